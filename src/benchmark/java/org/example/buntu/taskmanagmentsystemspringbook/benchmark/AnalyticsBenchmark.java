@@ -0,0 +1,95 @@
+package org.example.buntu.taskmanagmentsystemspringbook.benchmark;
+
+import org.example.buntu.taskmanagmentsystemspringbook.analytics.TaskAnalytics;
+import org.example.buntu.taskmanagmentsystemspringbook.model.AnalyticsResponse;
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.InMemoryTaskRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created and completed per hour over the last day: the analytics buckets versus a scan of
+ * the store grouping createdAt and updatedAt, the only way to answer it without them
+ * The store holds taskCount tasks and every bucket of the ring has data. recordUpdated is
+ * the cost added to each status change.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class AnalyticsBenchmark {
+
+    @Param({"10000", "100000"})
+    int taskCount;
+
+    private InMemoryTaskRepository repository;
+    private TaskAnalytics analytics;
+    private Task task;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        repository = new InMemoryTaskRepository();
+        analytics = new TaskAnalytics();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < taskCount; i++) {
+            Task created = new Task("Task " + i, "Imported by the nightly job, batch " + i % 100,
+                    Task.TaskStatus.TODO, Task.TaskPriority.MEDIUM);
+            // Spread over the last day
+            created.setCreatedAt(now.minusSeconds(i % 86_400));
+            created.setUpdatedAt(created.getCreatedAt());
+            if (i % 3 == 0) {
+                created.setStatus(Task.TaskStatus.COMPLETED);
+                created.setUpdatedAt(created.getCreatedAt().plusMinutes(30));
+            }
+            repository.save(created);
+        }
+        // Every bucket of the ring holds data, as after a day of traffic
+        long start = System.currentTimeMillis() - analytics.getRetention().toMillis();
+        task = new Task("Tracked", "desc", Task.TaskStatus.TODO, Task.TaskPriority.MEDIUM);
+        task.setId(1L);
+        task.setCreatedAt(now.minusHours(1));
+        for (long at = start; at < System.currentTimeMillis(); at += TaskAnalytics.DEFAULT_BUCKET_MS / 4) {
+            analytics.recordCreated(task, at);
+        }
+    }
+
+    @Benchmark
+    public AnalyticsResponse analyticsQuery() {
+        return analytics.query(Duration.ofHours(24), Duration.ofHours(1));
+    }
+
+    @Benchmark
+    public Map<LocalDateTime, long[]> scanStore() {
+        LocalDateTime since = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).minusHours(23);
+        Map<LocalDateTime, long[]> perHour = new TreeMap<>();
+        for (Task stored : repository.findAll()) {
+            if (!stored.getCreatedAt().isBefore(since)) {
+                perHour.computeIfAbsent(stored.getCreatedAt().truncatedTo(ChronoUnit.HOURS), hour -> new long[2])[0]++;
+            }
+            if (stored.getStatus() == Task.TaskStatus.COMPLETED && !stored.getUpdatedAt().isBefore(since)) {
+                perHour.computeIfAbsent(stored.getUpdatedAt().truncatedTo(ChronoUnit.HOURS), hour -> new long[2])[1]++;
+            }
+        }
+        return perHour;
+    }
+
+    /**
+     * A TODO -> IN_PROGRESS -> TODO round trip: two status changes
+     */
+    @Benchmark
+    public Task recordUpdated() {
+        task.setStatus(Task.TaskStatus.IN_PROGRESS);
+        analytics.recordUpdated(Task.TaskStatus.TODO, 2L, task);
+        task.setStatus(Task.TaskStatus.TODO);
+        analytics.recordUpdated(Task.TaskStatus.IN_PROGRESS, 2L, task);
+        return task;
+    }
+}
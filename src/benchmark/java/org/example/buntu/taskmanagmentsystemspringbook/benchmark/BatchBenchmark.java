@@ -0,0 +1,101 @@
+package org.example.buntu.taskmanagmentsystemspringbook.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.example.buntu.taskmanagmentsystemspringbook.controller.TaskController;
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.ChangeFeed;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.InMemoryTaskRepository;
+import org.example.buntu.taskmanagmentsystemspringbook.service.AsyncTaskServiceImpl;
+import org.example.buntu.taskmanagmentsystemspringbook.service.TaskChangeServiceImpl;
+import org.example.buntu.taskmanagmentsystemspringbook.service.TaskServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Items-per-second of POST /tasks/create called once per task versus one POST /tasks/batch
+ * Requests go through the real controller, JSON conversion and validation (MockMvc, no socket),
+ * so the difference is the per-request overhead the batch endpoint removes.
+ * Compare the "items" secondary result of both benchmarks.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int batchSize;
+
+    private MockMvc mockMvc;
+    private byte[][] singleBodies;
+    private byte[] batchBody;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Items {
+        public long items;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            items = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void prepareBodies() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<Task> tasks = new ArrayList<>(batchSize);
+        singleBodies = new byte[batchSize][];
+        for (int i = 0; i < batchSize; i++) {
+            Task task = new Task("Imported task " + i, "Imported by the nightly job",
+                    Task.TaskStatus.TODO, Task.TaskPriority.MEDIUM);
+            tasks.add(task);
+            singleBodies[i] = objectMapper.writeValueAsBytes(task);
+        }
+        batchBody = objectMapper.writeValueAsBytes(tasks);
+    }
+
+    @Setup(Level.Iteration)
+    public void freshStore() {
+        // A new store per iteration keeps the map size comparable between runs
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        TaskServiceImpl taskService = new TaskServiceImpl(new InMemoryTaskRepository(),
+                Validation.buildDefaultValidatorFactory().getValidator());
+        // Async calls run inline so both benchmarks stay on the benchmark thread
+        AsyncTaskServiceImpl asyncTaskService = new AsyncTaskServiceImpl(taskService, Runnable::run);
+        mockMvc = MockMvcBuilders.standaloneSetup(new TaskController(taskService, asyncTaskService,
+                        new TaskChangeServiceImpl(new ChangeFeed(1), Runnable::run), objectMapper, new SimpleMeterRegistry()))
+                .build();
+    }
+
+    @Benchmark
+    public void singleCreates(Items items) throws Exception {
+        for (byte[] body : singleBodies) {
+            mockMvc.perform(post("/tasks/create").contentType(MediaType.APPLICATION_JSON).content(body));
+        }
+        items.items += batchSize;
+    }
+
+    @Benchmark
+    public void batchCreate(Items items) throws Exception {
+        MvcResult started = mockMvc.perform(post("/tasks/batch").contentType(MediaType.APPLICATION_JSON)
+                .content(batchBody)).andReturn();
+        mockMvc.perform(asyncDispatch(started));
+        items.items += batchSize;
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.buntu.taskmanagmentsystemspringbook.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Runs the hot-path benchmarks once per thread count, one JSON result file each
+ * JMH only takes a single thread count per run, so this repeats the run for every
+ * count in -Dbench.threads (the jmh.threads Maven property) and writes
+ * target/jmh/threads-N.json, which can be diffed between releases.
+ * Other JMH options are taken from the command line; without a benchmark pattern it
+ * runs RepositoryBenchmark, ServiceBenchmark and SerializationBenchmark.
+ */
+public class BenchmarkSuite {
+
+    static final String DEFAULT_INCLUDE = "RepositoryBenchmark|ServiceBenchmark|SerializationBenchmark";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        Path output = Path.of(System.getProperty("bench.output", "target/jmh"));
+        Files.createDirectories(output);
+
+        for (String threads : System.getProperty("bench.threads", "1,4,8").split(",")) {
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .parent(commandLine)
+                    .threads(Integer.parseInt(threads.trim()))
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(output.resolve("threads-" + threads.trim() + ".json").toString());
+            if (commandLine.getIncludes().isEmpty()) {
+                options.include(DEFAULT_INCLUDE);
+            }
+            new Runner(options.build()).run();
+        }
+    }
+}
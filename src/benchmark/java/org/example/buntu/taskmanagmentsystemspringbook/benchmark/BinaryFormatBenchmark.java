@@ -0,0 +1,71 @@
+package org.example.buntu.taskmanagmentsystemspringbook.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.buntu.taskmanagmentsystemspringbook.controller.BodyFormat;
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payload size and encode/decode cost of tasks in each body format
+ * The mappers are the ones the HTTP converters use: Spring Boot's JSON settings, with the CBOR
+ * or Smile factory. tasks=1 is a single task body, larger counts a task list. The payload size
+ * of each combination is printed once per trial ("payload: ... bytes").
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinaryFormatBenchmark {
+
+    private static final TypeReference<List<Task>> TASK_LIST = new TypeReference<>() {
+    };
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    BodyFormat format;
+
+    @Param({"1", "1000"})
+    int tasks;
+
+    private ObjectMapper mapper;
+    private Object body;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void encode() throws Exception {
+        mapper = format.mapper(Jackson2ObjectMapperBuilder.json().build());
+        LocalDateTime created = LocalDateTime.of(2030, 1, 1, 9, 0, 15, 250_000_000);
+        List<Task> list = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            Task task = new Task("Task " + i, "Imported by the nightly job, batch " + i % 100,
+                    Task.TaskStatus.values()[i % 4], Task.TaskPriority.values()[i % 4]);
+            task.setId(i + 1L);
+            task.setCreatedAt(created.plusSeconds(i));
+            task.setUpdatedAt(created.plusSeconds(i));
+            task.setDueDate(i % 3 == 0 ? null : created.plusDays(i % 30));
+            task.setVersion(1L);
+            list.add(task);
+        }
+        body = tasks == 1 ? list.get(0) : list;
+        encoded = mapper.writeValueAsBytes(body);
+        System.out.println("payload: " + format + ", " + tasks + " task(s): " + encoded.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] write() throws Exception {
+        return mapper.writeValueAsBytes(body);
+    }
+
+    @Benchmark
+    public Object read() throws Exception {
+        return tasks == 1 ? mapper.readValue(encoded, Task.class) : mapper.readValue(encoded, TASK_LIST);
+    }
+}
@@ -0,0 +1,180 @@
+package org.example.buntu.taskmanagmentsystemspringbook.benchmark;
+
+import org.example.buntu.taskmanagmentsystemspringbook.TaskManagementSystemSpringBookApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of idle change-feed subscribers and the fan-out latency of one change to all of them
+ * Starts the application on a random port, opens load.subscribers Server-Sent Events streams on
+ * /tasks/changes through one asynchronous HTTP client (no thread per stream on either side),
+ * then reports:
+ * - platform threads and heap (after GC) added by the subscribers, client side included
+ * - CPU used by the process while the subscribers sit idle for load.idle-seconds
+ * - time from a create returning until every subscriber has received its change event
+ * Not a JMH benchmark: run it with exec:java, see the benchmark profile in pom.xml
+ * -Dload.subscribers=5000 -Dload.idle-seconds=10 -Dload.writes=20
+ * Each stream uses two file descriptors in this process, check `ulimit -n`.
+ */
+public class ChangeFeedLoadReport {
+
+    private static final String BODY = "{\"title\":\"Feed test\",\"description\":\"Created by ChangeFeedLoadReport\","
+            + "\"status\":\"TODO\",\"priority\":\"MEDIUM\"}";
+
+    public static void main(String[] args) throws Exception {
+        // exec:java passes the profile's JMH arguments along, so settings come from system properties
+        int subscribers = Integer.getInteger("load.subscribers", 5000);
+        int idleSeconds = Integer.getInteger("load.idle-seconds", 10);
+        int writes = Integer.getInteger("load.writes", 20);
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskManagementSystemSpringBookApplication.class)
+                // Arguments, not default properties: these must override application.properties
+                .run("--server.port=0", "--tasks.due-soon.enabled=false",
+                        "--logging.level.root=WARN", "--spring.main.banner-mode=off");
+        // The client's default executor is a growing thread pool; virtual threads keep the thread count server-side
+        try (ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                .executor(clientExecutor)
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build()) {
+            String base = "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort()
+                    + "/api/tasks/";
+            run(http, base, subscribers, idleSeconds, writes);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void run(HttpClient http, String base, int subscriberCount, int idleSeconds, int writes)
+            throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        // Warm the client and the endpoints up so their one-off allocations are not counted
+        long start = create(http, base);
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        long heapBefore = usedHeapAfterGc(memory);
+
+        List<Subscriber> subscribers = new ArrayList<>(subscriberCount);
+        // An explicit since: streams that connect after the next write still receive it
+        HttpRequest stream = HttpRequest.newBuilder(URI.create(base + "changes?since=" + start))
+                .header("Accept", "text/event-stream")
+                .build();
+        for (int i = 0; i < subscriberCount; i++) {
+            Subscriber subscriber = new Subscriber();
+            subscribers.add(subscriber);
+            http.sendAsync(stream, HttpResponse.BodyHandlers.fromLineSubscriber(subscriber));
+        }
+        // Streams are connected once all of them have seen a change
+        long first = create(http, base);
+        awaitAll(subscribers, first, 120);
+
+        int threadsAfter = ManagementFactory.getThreadMXBean().getThreadCount();
+        long heapAfter = usedHeapAfterGc(memory);
+        long cpuBefore = processCpuNanos();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(idleSeconds));
+        long idleCpu = processCpuNanos() - cpuBefore;
+
+        long[] fanOut = new long[writes];
+        for (int i = 0; i < writes; i++) {
+            long begin = System.nanoTime();
+            long sequence = create(http, base);
+            awaitAll(subscribers, sequence, 60);
+            fanOut[i] = System.nanoTime() - begin;
+        }
+        Arrays.sort(fanOut);
+
+        System.out.printf("subscribers            %d%n", subscriberCount);
+        System.out.printf("platform threads       %d -> %d%n", threadsBefore, threadsAfter);
+        System.out.printf("heap per subscriber    %.1f KB (client and server side)%n",
+                (heapAfter - heapBefore) / 1024.0 / subscriberCount);
+        System.out.printf("idle CPU               %.1f ms over %d s%n", idleCpu / 1e6, idleSeconds);
+        System.out.printf("fan-out to all, p50    %.1f ms%n", fanOut[writes / 2] / 1e6);
+        System.out.printf("fan-out to all, max    %.1f ms%n", fanOut[writes - 1] / 1e6);
+    }
+
+    /**
+     * Creates a task and returns the change sequence it was published with
+     * (a zero-timeout long poll without since answers with the latest sequence)
+     */
+    private static long create(HttpClient http, String base) throws Exception {
+        HttpResponse<String> created = http.send(HttpRequest.newBuilder(URI.create(base + "create"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(BODY)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (created.statusCode() != 201) {
+            throw new IllegalStateException("Create failed: " + created.statusCode());
+        }
+        HttpResponse<String> changes = http.send(HttpRequest.newBuilder(URI.create(base + "changes?timeout=0"))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        return Long.parseLong(changes.body().replaceAll("(?s).*\"lastSequence\":(\\d+).*", "$1"));
+    }
+
+    private static void awaitAll(List<Subscriber> subscribers, long sequence, int timeoutSeconds) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        for (Subscriber subscriber : subscribers) {
+            while (subscriber.lastSequence < sequence) {
+                if (System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Change " + sequence + " did not reach every subscriber");
+                }
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+                .getProcessCpuTime();
+    }
+
+    /**
+     * Tracks the id of the latest event; ids are change sequences
+     */
+    private static final class Subscriber implements Flow.Subscriber<String> {
+
+        private volatile long lastSequence;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.startsWith("id:")) {
+                lastSequence = Long.parseLong(line.substring(3));
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
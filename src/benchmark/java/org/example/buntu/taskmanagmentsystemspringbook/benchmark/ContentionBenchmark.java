@@ -0,0 +1,89 @@
+package org.example.buntu.taskmanagmentsystemspringbook.benchmark;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.InMemoryTaskRepository;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.VersionConflictException;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Update throughput of 8 threads hammering a small or a large set of tasks
+ * - atomicUpdate: repository.update, the change runs inside the per-key compute
+ * - optimisticRetry: read, change a copy, update if the version still matches, retry on conflict
+ *   (what a client doing GET + PUT with If-Match does)
+ * - globalLock: read-modify-save under one lock, the approach update replaces
+ * The "conflicts" secondary result counts the retries of optimisticRetry.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ContentionBenchmark {
+
+    @Param({"1", "1000"})
+    int hotTasks;
+
+    private InMemoryTaskRepository repository;
+    private long firstId;
+    private final Object globalLock = new Object();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Conflicts {
+        public long conflicts;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            conflicts = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void populate() {
+        repository = new InMemoryTaskRepository();
+        firstId = repository.save(new Task("Hot 0", "0", Task.TaskStatus.TODO, Task.TaskPriority.MEDIUM)).getId();
+        for (int i = 1; i < hotTasks; i++) {
+            repository.save(new Task("Hot " + i, "0", Task.TaskStatus.TODO, Task.TaskPriority.MEDIUM));
+        }
+    }
+
+    @Benchmark
+    public Task atomicUpdate() {
+        return repository.update(pick(), null, ContentionBenchmark::change).orElseThrow();
+    }
+
+    @Benchmark
+    public Task optimisticRetry(Conflicts conflicts) {
+        Long id = pick();
+        while (true) {
+            Task task = repository.findById(id).orElseThrow();
+            try {
+                return repository.update(id, task.getVersion(), ContentionBenchmark::change).orElseThrow();
+            } catch (VersionConflictException ex) {
+                conflicts.conflicts++;
+            }
+        }
+    }
+
+    @Benchmark
+    public Task globalLock() {
+        synchronized (globalLock) {
+            Task task = repository.findById(pick()).orElseThrow();
+            change(task);
+            return repository.save(task);
+        }
+    }
+
+    private Long pick() {
+        return firstId + ThreadLocalRandom.current().nextInt(hotTasks);
+    }
+
+    private static void change(Task task) {
+        task.setStatus(task.getStatus() == Task.TaskStatus.TODO ? Task.TaskStatus.IN_PROGRESS : Task.TaskStatus.TODO);
+    }
+}
@@ -0,0 +1,192 @@
+package org.example.buntu.taskmanagmentsystemspringbook.benchmark;
+
+import org.example.buntu.taskmanagmentsystemspringbook.TaskManagementSystemSpringBookApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Throughput and latency of the real HTTP stack with platform versus virtual request threads
+ * For each mode the application is started in-process on a random port with the write-ahead
+ * log in ALWAYS durability, so every create blocks its request thread until the group fsync.
+ * Each client is a virtual thread looping POST /create then GET /{id}, with an optional think
+ * time between requests; the shared HTTP/1.1 client opens a connection per in-flight request.
+ * Not a JMH benchmark: run it with exec:java, see the benchmark profile in pom.xml
+ * -Dload.modes=platform,virtual -Dload.clients=1000,5000,10000 -Dload.seconds=15 -Dload.think-ms=0
+ * Client and server share the machine, so compare modes with each other, not with production.
+ */
+public class ExecutionModeLoadReport {
+
+    private static final String BODY = "{\"title\":\"Load test\",\"description\":\"Created by ExecutionModeLoadReport\","
+            + "\"status\":\"TODO\",\"priority\":\"MEDIUM\"}";
+
+    public static void main(String[] args) throws Exception {
+        // exec:java passes the profile's JMH arguments along, so settings come from system properties
+        String[] modes = System.getProperty("load.modes", "platform,virtual").split(",");
+        int[] clientCounts = Arrays.stream(System.getProperty("load.clients", "1000,5000,10000").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        int seconds = Integer.getInteger("load.seconds", 15);
+        int thinkMs = Integer.getInteger("load.think-ms", 0);
+
+        // Everything runs in one JVM, so warm the JIT up once before the first measured mode
+        measure("platform", 200, 5, thinkMs, false);
+
+        System.out.printf("%-9s %8s %12s %10s %10s %10s %8s%n",
+                "mode", "clients", "requests/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (String mode : modes) {
+            for (int clients : clientCounts) {
+                measure(mode.trim(), clients, seconds, thinkMs, true);
+            }
+        }
+    }
+
+    private static void measure(String mode, int clients, int seconds, int thinkMs, boolean print) throws Exception {
+        Path directory = Files.createTempDirectory("load-report");
+        ConfigurableApplicationContext context = start(mode, directory);
+        try {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            run(mode, port, clients, seconds, thinkMs, print);
+        } finally {
+            context.close();
+            delete(directory);
+        }
+    }
+
+    private static ConfigurableApplicationContext start(String mode, Path directory) {
+        return new SpringApplicationBuilder(TaskManagementSystemSpringBookApplication.class)
+                // Arguments, not default properties: these must override application.properties
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + mode.equals("virtual"),
+                        "--tasks.persistence.enabled=true",
+                        "--tasks.persistence.durability=ALWAYS",
+                        "--tasks.persistence.directory=" + directory,
+                        "--tasks.due-soon.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--spring.main.banner-mode=off");
+    }
+
+    private static void run(String mode, int port, int clients, int seconds, int thinkMs, boolean print)
+            throws Exception {
+        URI create = URI.create("http://localhost:" + port + "/api/tasks/create");
+        String read = "http://localhost:" + port + "/api/tasks/";
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicLong errors = new AtomicLong();
+        // Requests that finish after the deadline count for latency but not for throughput
+        AtomicLong completedInWindow = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>(clients);
+        List<int[]> counts = new ArrayList<>(clients);
+
+        // Resources close in reverse order: the executor waits for every client before the HttpClient closes
+        try (HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(30))
+                     .build();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                long[] samples = new long[1 << 12];
+                int[] count = new int[1];
+                latencies.add(samples);
+                counts.add(count);
+                executor.submit(() -> {
+                    try {
+                        start.await();
+                        while (System.nanoTime() < deadline) {
+                            long begin = System.nanoTime();
+                            HttpResponse<String> created = http.send(HttpRequest.newBuilder(create)
+                                    .header("Content-Type", "application/json")
+                                    .POST(HttpRequest.BodyPublishers.ofString(BODY)).build(),
+                                    HttpResponse.BodyHandlers.ofString());
+                            record(samples, count, begin, deadline, completedInWindow);
+                            if (created.statusCode() != 201) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                            String id = created.body().replaceAll("(?s).*\"id\":(\\d+).*", "$1");
+                            begin = System.nanoTime();
+                            HttpResponse<Void> found = http.send(HttpRequest.newBuilder(URI.create(read + id)).build(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            record(samples, count, begin, deadline, completedInWindow);
+                            if (found.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                            if (thinkMs > 0) {
+                                Thread.sleep(thinkMs);
+                            }
+                        }
+                    } catch (IOException ex) {
+                        errors.incrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        if (!print) {
+            return;
+        }
+        int total = counts.stream().mapToInt(count -> count[0]).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < clients; c++) {
+            int count = Math.min(counts.get(c)[0], latencies.get(c).length);
+            System.arraycopy(latencies.get(c), 0, all, offset, count);
+            offset += count;
+        }
+        long[] sorted = Arrays.copyOf(all, offset);
+        Arrays.sort(sorted);
+        System.out.printf("%-9s %8d %12.0f %10.1f %10.1f %10.1f %8d%n", mode, clients,
+                (double) completedInWindow.get() / seconds, percentile(sorted, 50), percentile(sorted, 99),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6, errors.get());
+    }
+
+    /**
+     * Keeps the first samples of each client; enough for percentiles, bounded memory at 10k clients
+     */
+    private static void record(long[] samples, int[] count, long begin, long deadline, AtomicLong completedInWindow) {
+        long end = System.nanoTime();
+        if (end <= deadline) {
+            completedInWindow.incrementAndGet();
+        }
+        if (count[0] < samples.length) {
+            samples[count[0]] = end - begin;
+        }
+        count[0]++;
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.buntu.taskmanagmentsystemspringbook.benchmark;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.InMemoryTaskRepository;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Retained heap per task, measured with JOL by walking the object graph
+ * Compares a plain ConcurrentHashMap<Long, Task> (the pre-compact layout) with the
+ * repository's compact map, and reports the whole repository including its indexes
+ * Not a JMH benchmark: run it with exec:java, see the benchmark profile in pom.xml
+ */
+public class FootprintReport {
+
+    public static void main(String[] args) throws Exception {
+        // Field offsets of record classes are only readable this way; must be set before JOL loads
+        System.setProperty("jol.magicFieldOffset", "true");
+        // exec:java passes the profile's JMH arguments along, so the size comes from -Dfootprint.tasks
+        int taskCount = Integer.getInteger("footprint.tasks", 100_000);
+
+        Map<Long, Task> plain = new ConcurrentHashMap<>();
+        InMemoryTaskRepository repository = new InMemoryTaskRepository();
+        Task.TaskPriority[] priorities = Task.TaskPriority.values();
+        LocalDateTime due = LocalDateTime.of(2030, 1, 1, 9, 0);
+        for (int i = 0; i < taskCount; i++) {
+            Task task = new Task("Task " + i, "Imported by the nightly job, batch " + i % 100,
+                    Task.TaskStatus.TODO, priorities[i % priorities.length]);
+            task.setDueDate(due.plusMinutes(i));
+            repository.save(task);
+            plain.put(task.getId(), task);
+        }
+
+        Field storeField = InMemoryTaskRepository.class.getDeclaredField("tasks");
+        storeField.setAccessible(true);
+        Object compact = storeField.get(repository);
+        Field searchField = InMemoryTaskRepository.class.getDeclaredField("searchIndex");
+        searchField.setAccessible(true);
+        Object searchIndex = searchField.get(repository);
+
+        System.out.printf("%,d tasks, title ~10 chars, description ~40 chars%n", taskCount);
+        report("ConcurrentHashMap<Long, Task>", plain, taskCount);
+        report("ConcurrentHashMap<Long, CompactTask>", compact, taskCount);
+        report("SearchIndex", searchIndex, taskCount);
+        report("InMemoryTaskRepository incl. indexes", repository, taskCount);
+    }
+
+    private static void report(String label, Object root, int taskCount) {
+        long bytes = GraphLayout.parseInstance(root).totalSize();
+        System.out.printf("%-40s %,14d bytes %8.1f bytes/task%n", label, bytes, (double) bytes / taskCount);
+    }
+}
@@ -0,0 +1,444 @@
+package org.example.buntu.taskmanagmentsystemspringbook.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.example.buntu.taskmanagmentsystemspringbook.TaskManagementSystemSpringBookApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end load test of /api/tasks over real HTTP on localhost
+ * Boots the application on a random port, seeds load.tasks tasks through the batch endpoint,
+ * then lets load.clients virtual-thread clients send a weighted read/write mix over every
+ * TaskController endpoint. Latency is recorded per endpoint in HdrHistograms (microsecond
+ * resolution) and reported as throughput plus p50/p95/p99/p99.9, on stdout and as JSON.
+ *
+ * Closed loop by default: each client sends its next request when the previous one returns.
+ * With load.rate the clients follow a fixed schedule instead and latency is measured from
+ * the scheduled start, so a stalled server is not hidden by clients that stopped sending
+ * (coordinated omission).
+ *
+ * Requests rejected by admission control (503 or 429) are counted as shed, not as errors, and
+ * their latency is recorded like any other. load.admission=true|false overrides
+ * tasks.admission.enabled to compare overload behaviour with and without it.
+ *
+ * Release gate: with load.max-p99-ms or load.max-error-percent exceeded for any endpoint the
+ * process exits with status 1. Not a JMH benchmark: run it with exec:java, see pom.xml.
+ *
+ *   load.tasks=10000 load.clients=64 load.seconds=30 load.warmup-seconds=10
+ *   load.write-percent=20 load.rate=0 (requests/s over all clients, 0 = closed loop)
+ *   load.persistence=false (true: write-ahead log with INTERVAL durability in a temp directory)
+ *   load.admission= (unset: the application's setting)
+ *   load.max-p99-ms=0 (0 = no latency gate) load.max-error-percent=1 load.output=target/load-results.json
+ */
+public class LoadTestHarness {
+
+    private static final String[] WORDS = {"deploy", "review", "invoice", "backup", "release", "customer",
+            "report", "migration", "budget", "onboarding", "security", "audit", "database", "design", "support"};
+    private static final String[] STATUSES = {"TODO", "IN_PROGRESS", "COMPLETED", "CANCELLED"};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "URGENT"};
+    private static final int SEED_BATCH = 1000;
+    // Slowest latency the histograms can hold; slower requests are clamped to it
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    /**
+     * One kind of request of the mix; weight is relative to the other reads or writes
+     */
+    private enum Endpoint {
+        GET_BY_ID(false, 35, "GET /tasks/{id}"),
+        PAGE(false, 15, "GET /tasks/all"),
+        SEARCH(false, 10, "GET /tasks/search"),
+        QUERY(false, 10, "GET /tasks/query"),
+        STATS(false, 10, "GET /tasks/stats"),
+        DUE(false, 5, "GET /tasks/due"),
+        OVERDUE(false, 5, "GET /tasks/overdue"),
+        BY_STATUS(false, 4, "GET /tasks/status/{status}"),
+        BY_PRIORITY(false, 4, "GET /tasks/priority/{priority}"),
+        EXPORT(false, 2, "GET /tasks/export"),
+        CREATE(true, 40, "POST /tasks/create"),
+        UPDATE(true, 25, "PUT /tasks/{id}"),
+        PATCH(true, 20, "PATCH /tasks/{id}"),
+        DELETE(true, 10, "DELETE /tasks/{id}"),
+        BATCH_CREATE(true, 5, "POST /tasks/batch");
+
+        final boolean write;
+        final int weight;
+        final String label;
+
+        Endpoint(boolean write, int weight, String label) {
+            this.write = write;
+            this.weight = weight;
+            this.label = label;
+        }
+    }
+
+    private final String baseUrl;
+    private final HttpClient http;
+    private final int seededTasks;
+    private final long firstSeededId;
+    private final int writePercent;
+    private final Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, AtomicLong> errors = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, AtomicLong> shed = new EnumMap<>(Endpoint.class);
+    private volatile boolean recording;
+
+    private LoadTestHarness(String baseUrl, HttpClient http, int seededTasks, long firstSeededId, int writePercent) {
+        this.baseUrl = baseUrl;
+        this.http = http;
+        this.seededTasks = seededTasks;
+        this.firstSeededId = firstSeededId;
+        this.writePercent = writePercent;
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.put(endpoint, new Recorder(MAX_LATENCY_MICROS, 3));
+            errors.put(endpoint, new AtomicLong());
+            shed.put(endpoint, new AtomicLong());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        // exec:java passes the profile's JMH arguments along, so settings come from system properties
+        int tasks = Integer.getInteger("load.tasks", 10_000);
+        int clients = Integer.getInteger("load.clients", 64);
+        int seconds = Integer.getInteger("load.seconds", 30);
+        int warmupSeconds = Integer.getInteger("load.warmup-seconds", 10);
+        int writePercent = Integer.getInteger("load.write-percent", 20);
+        double rate = Double.parseDouble(System.getProperty("load.rate", "0"));
+        boolean persistence = Boolean.getBoolean("load.persistence");
+        String admission = System.getProperty("load.admission", "");
+        double maxP99Ms = Double.parseDouble(System.getProperty("load.max-p99-ms", "0"));
+        double maxErrorPercent = Double.parseDouble(System.getProperty("load.max-error-percent", "1"));
+        Path output = Path.of(System.getProperty("load.output", "target/load-results.json"));
+
+        Path directory = Files.createTempDirectory("load-test");
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "tasks.due-soon.enabled=false",
+                "logging.level.root=WARN",
+                "spring.main.banner-mode=off"));
+        if (!admission.isEmpty()) {
+            properties.add("tasks.admission.enabled=" + admission);
+        }
+        if (persistence) {
+            properties.add("tasks.persistence.enabled=true");
+            properties.add("tasks.persistence.durability=INTERVAL");
+            properties.add("tasks.persistence.directory=" + directory);
+        }
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TaskManagementSystemSpringBookApplication.class)
+                // Arguments, not default properties: these must override application.properties
+                .run(properties.stream().map(property -> "--" + property).toArray(String[]::new));
+        boolean passed;
+        try (HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build()) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port + "/api/tasks";
+            long firstId = seed(http, baseUrl, tasks);
+
+            LoadTestHarness harness = new LoadTestHarness(baseUrl, http, tasks, firstId, writePercent);
+            System.out.printf("%,d tasks seeded, %d clients, %d%% writes, %s, admission control %s%n", tasks, clients,
+                    writePercent, rate > 0 ? String.format("%.0f requests/s scheduled", rate) : "closed loop",
+                    context.getEnvironment().getProperty("tasks.admission.enabled", "false"));
+            Map<Endpoint, Histogram> results = harness.run(clients, warmupSeconds, seconds, rate);
+            passed = harness.report(results, seconds, maxP99Ms, maxErrorPercent, output);
+        } finally {
+            context.close();
+            FileSystemUtils.deleteRecursively(directory);
+        }
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Creates the tasks through POST /tasks/batch
+     * @return the id of the first seeded task; seeded ids are consecutive
+     */
+    private static long seed(HttpClient http, String baseUrl, int tasks) throws Exception {
+        SplittableRandom random = new SplittableRandom(42);
+        long firstId = -1;
+        for (int created = 0; created < tasks; created += SEED_BATCH) {
+            List<Map<String, Object>> batch = new ArrayList<>();
+            for (int i = created; i < Math.min(tasks, created + SEED_BATCH); i++) {
+                batch.add(randomTask(random, i));
+            }
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(batch))).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Seeding failed: " + response.statusCode() + " " + response.body());
+            }
+            if (firstId < 0) {
+                firstId = JSON.readTree(response.body()).path("results").get(0).path("id").asLong();
+            }
+        }
+        return firstId;
+    }
+
+    private static Map<String, Object> randomTask(SplittableRandom random, int number) {
+        Map<String, Object> task = new LinkedHashMap<>();
+        task.put("title", word(random) + " " + word(random) + " " + number);
+        task.put("description", word(random) + " " + word(random) + " " + word(random) + " for the load test");
+        task.put("status", STATUSES[random.nextInt(STATUSES.length)]);
+        task.put("priority", PRIORITIES[random.nextInt(PRIORITIES.length)]);
+        task.put("dueDate", LocalDateTime.now().plusHours(random.nextInt(-24 * 30, 24 * 60)).withNano(0).toString());
+        return task;
+    }
+
+    private static String word(SplittableRandom random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private Map<Endpoint, Histogram> run(int clients, int warmupSeconds, int seconds, double rate) throws Exception {
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long deadline = measureFrom + TimeUnit.SECONDS.toNanos(seconds);
+        // With a target rate every client sends on its own fixed schedule
+        long intervalNanos = rate > 0 ? (long) (clients * 1e9 / rate) : 0;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                long seed = c;
+                long offset = intervalNanos * c / clients;
+                executor.submit(() -> client(new SplittableRandom(seed), start + offset, intervalNanos, deadline));
+            }
+            // Clients run through the warmup unrecorded; closing the executor waits for the deadline
+            long sleep = measureFrom - System.nanoTime();
+            if (sleep > 0) {
+                TimeUnit.NANOSECONDS.sleep(sleep);
+            }
+            recording = true;
+        }
+        Map<Endpoint, Histogram> results = new EnumMap<>(Endpoint.class);
+        recorders.forEach((endpoint, recorder) -> results.put(endpoint, recorder.getIntervalHistogram()));
+        return results;
+    }
+
+    private Void client(SplittableRandom random, long firstStart, long intervalNanos, long deadline) throws Exception {
+        Deque<Long> ownTasks = new ArrayDeque<>();
+        long intended = firstStart;
+        while (true) {
+            if (intervalNanos > 0) {
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+            } else {
+                intended = System.nanoTime();
+            }
+            if (intended >= deadline) {
+                return null;
+            }
+            Endpoint endpoint = pick(random, ownTasks);
+            boolean ok;
+            boolean rejected = false;
+            try {
+                ok = send(endpoint, random, ownTasks);
+            } catch (ShedException ex) {
+                ok = true;
+                rejected = true;
+            } catch (IOException ex) {
+                ok = false;
+            }
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+            if (recording) {
+                recorders.get(endpoint).recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+                if (!ok) {
+                    errors.get(endpoint).incrementAndGet();
+                }
+                if (rejected) {
+                    shed.get(endpoint).incrementAndGet();
+                }
+            }
+            intended += intervalNanos;
+        }
+    }
+
+    private Endpoint pick(SplittableRandom random, Deque<Long> ownTasks) {
+        boolean write = random.nextInt(100) < writePercent;
+        int total = 0;
+        for (Endpoint endpoint : Endpoint.values()) {
+            if (endpoint.write == write) {
+                total += endpoint.weight;
+            }
+        }
+        int ticket = random.nextInt(total);
+        for (Endpoint endpoint : Endpoint.values()) {
+            if (endpoint.write == write) {
+                ticket -= endpoint.weight;
+                if (ticket < 0) {
+                    // A client only deletes tasks it created itself, so seeded ids always exist
+                    return endpoint == Endpoint.DELETE && ownTasks.isEmpty() ? Endpoint.CREATE : endpoint;
+                }
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    /**
+     * @return whether the response had the expected status
+     */
+    private boolean send(Endpoint endpoint, SplittableRandom random, Deque<Long> ownTasks) throws Exception {
+        long seededId = firstSeededId + random.nextInt(seededTasks);
+        return switch (endpoint) {
+            case GET_BY_ID -> get("/" + seededId) == 200;
+            case PAGE -> get("/all?limit=50&sort=" + (random.nextBoolean() ? "id" : "dueDate")) == 200;
+            case SEARCH -> get("/search?q=" + word(random) + "&limit=20") == 200;
+            case QUERY -> get("/query?status=" + STATUSES[random.nextInt(2)] + "&priority=HIGH,URGENT&dueTo="
+                    + LocalDateTime.now().plusDays(7).withNano(0) + "&limit=50") == 200;
+            case STATS -> get("/stats") == 200;
+            case DUE -> get("/due?from=" + LocalDateTime.now().withNano(0)
+                    + "&to=" + LocalDateTime.now().plusDays(1).withNano(0) + "&limit=50") == 200;
+            case OVERDUE -> get("/overdue?limit=50") == 200;
+            case BY_STATUS -> get("/status/" + STATUSES[random.nextInt(STATUSES.length)]) == 200;
+            case BY_PRIORITY -> get("/priority/" + PRIORITIES[random.nextInt(PRIORITIES.length)]) == 200;
+            case EXPORT -> get("/export?status=CANCELLED&priority=URGENT") == 200;
+            case CREATE -> {
+                HttpResponse<String> response = send("POST", "/create", randomTask(random, 0));
+                if (response.statusCode() == 201) {
+                    ownTasks.push(JSON.readTree(response.body()).path("task").path("id").asLong());
+                }
+                yield response.statusCode() == 201;
+            }
+            case UPDATE -> send("PUT", "/" + seededId, randomTask(random, 0)).statusCode() == 200;
+            case PATCH -> send("PATCH", "/" + seededId,
+                    Map.of("status", STATUSES[random.nextInt(STATUSES.length)])).statusCode() == 200;
+            case DELETE -> send("DELETE", "/" + ownTasks.pop(), null).statusCode() == 200;
+            case BATCH_CREATE -> {
+                List<Map<String, Object>> batch = new ArrayList<>();
+                for (int i = 0; i < 20; i++) {
+                    batch.add(randomTask(random, i));
+                }
+                HttpResponse<String> response = send("POST", "/batch", batch);
+                if (response.statusCode() == 200) {
+                    for (JsonNode result : JSON.readTree(response.body()).path("results")) {
+                        ownTasks.push(result.path("id").asLong());
+                    }
+                }
+                yield response.statusCode() == 200;
+            }
+        };
+    }
+
+    private int get(String path) throws Exception {
+        return checkShed(http.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).build(),
+                HttpResponse.BodyHandlers.discarding())).statusCode();
+    }
+
+    private HttpResponse<String> send(String method, String path, Object body) throws Exception {
+        HttpRequest.BodyPublisher publisher = body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(JSON.writeValueAsString(body));
+        return checkShed(http.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                        .header("Content-Type", "application/json")
+                        .method(method, publisher).build(),
+                HttpResponse.BodyHandlers.ofString()));
+    }
+
+    private static <T> HttpResponse<T> checkShed(HttpResponse<T> response) {
+        if (response.statusCode() == 503 || response.statusCode() == 429) {
+            throw new ShedException();
+        }
+        return response;
+    }
+
+    /**
+     * The server rejected the request under admission control: expected under overload, not an error
+     */
+    private static class ShedException extends RuntimeException {
+        ShedException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Prints the table, writes the JSON report and applies the release gate
+     * @return true when every endpoint is within the limits
+     */
+    private boolean report(Map<Endpoint, Histogram> results, int seconds, double maxP99Ms, double maxErrorPercent,
+                           Path output) throws IOException {
+        System.out.printf("%-32s %9s %9s %9s %9s %9s %9s %9s %7s %7s%n", "endpoint", "requests", "req/s",
+                "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms", "errors", "shed");
+        List<Map<String, Object>> rows = new ArrayList<>();
+        List<String> violations = new ArrayList<>();
+        Histogram all = new Histogram(MAX_LATENCY_MICROS, 3);
+        long allErrors = 0;
+        long allShed = 0;
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram histogram = results.get(endpoint);
+            long failed = errors.get(endpoint).get();
+            long rejected = shed.get(endpoint).get();
+            all.add(histogram);
+            allErrors += failed;
+            allShed += rejected;
+            rows.add(row(endpoint.label, histogram, failed, rejected, seconds));
+            double errorPercent = histogram.getTotalCount() == 0 ? 0 : 100.0 * failed / histogram.getTotalCount();
+            double p99 = histogram.getValueAtPercentile(99) / 1000.0;
+            if (maxP99Ms > 0 && p99 > maxP99Ms) {
+                violations.add(String.format("%s p99 %.1f ms > %.1f ms", endpoint.label, p99, maxP99Ms));
+            }
+            if (errorPercent > maxErrorPercent) {
+                violations.add(String.format("%s errors %.2f%% > %.2f%%", endpoint.label, errorPercent, maxErrorPercent));
+            }
+        }
+        rows.add(row("all", all, allErrors, allShed, seconds));
+        for (Map<String, Object> row : rows) {
+            System.out.printf("%-32s %9d %9.0f %9.2f %9.2f %9.2f %9.2f %9.2f %7d %7d%n", row.get("endpoint"),
+                    row.get("requests"), row.get("requestsPerSecond"), row.get("p50Ms"), row.get("p95Ms"),
+                    row.get("p99Ms"), row.get("p999Ms"), row.get("maxMs"), row.get("errors"), row.get("shed"));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("seconds", seconds);
+        report.put("writePercent", writePercent);
+        report.put("seededTasks", seededTasks);
+        report.put("endpoints", rows);
+        report.put("violations", violations);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        JSON.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(output.toFile(), report);
+        System.out.println("Results written to " + output);
+
+        violations.forEach(violation -> System.out.println("FAILED: " + violation));
+        return violations.isEmpty();
+    }
+
+    private static Map<String, Object> row(String label, Histogram histogram, long errors, long shed, int seconds) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("endpoint", label);
+        row.put("requests", histogram.getTotalCount());
+        row.put("requestsPerSecond", (double) histogram.getTotalCount() / seconds);
+        row.put("p50Ms", histogram.getValueAtPercentile(50) / 1000.0);
+        row.put("p95Ms", histogram.getValueAtPercentile(95) / 1000.0);
+        row.put("p99Ms", histogram.getValueAtPercentile(99) / 1000.0);
+        row.put("p999Ms", histogram.getValueAtPercentile(99.9) / 1000.0);
+        row.put("maxMs", histogram.getMaxValue() / 1000.0);
+        row.put("errors", errors);
+        row.put("shed", shed);
+        return row;
+    }
+}
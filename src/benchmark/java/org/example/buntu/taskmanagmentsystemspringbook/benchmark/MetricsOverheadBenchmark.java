@@ -0,0 +1,85 @@
+package org.example.buntu.taskmanagmentsystemspringbook.benchmark;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.InMemoryTaskRepository;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.MeteredTaskRepository;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.TaskRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the repository metrics: the same calls with and without MeteredTaskRepository
+ * The registry is a Prometheus registry publishing histogram buckets, as configured in
+ * application.properties, so instrumented=true measures what production records.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsOverheadBenchmark {
+
+    @Param({"false", "true"})
+    boolean instrumented;
+
+    private TaskRepository repository;
+    private long firstId;
+    private int taskCount;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        InMemoryTaskRepository store = new InMemoryTaskRepository();
+        Task.TaskStatus[] statuses = Task.TaskStatus.values();
+        taskCount = 10_000;
+        firstId = Long.MAX_VALUE;
+        for (int i = 0; i < taskCount; i++) {
+            Task task = store.save(new Task("Task " + i, "Imported", statuses[i % statuses.length],
+                    Task.TaskPriority.MEDIUM));
+            firstId = Math.min(firstId, task.getId());
+        }
+        if (instrumented) {
+            PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+            registry.config().meterFilter(new MeterFilter() {
+                @Override
+                public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                    return DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config);
+                }
+            });
+            repository = new MeteredTaskRepository(store, registry);
+        } else {
+            repository = store;
+        }
+    }
+
+    @Benchmark
+    public Optional<Task> findById() {
+        return repository.findById(randomId());
+    }
+
+    @Benchmark
+    public Task save() {
+        Long id = randomId();
+        Task task = new Task("Task " + id, "Saved", Task.TaskStatus.IN_PROGRESS, Task.TaskPriority.HIGH);
+        task.setId(id);
+        return repository.save(task);
+    }
+
+    @Benchmark
+    public List<Task> findByStatus() {
+        return repository.findByStatus(Task.TaskStatus.TODO);
+    }
+
+    private Long randomId() {
+        return firstId + ThreadLocalRandom.current().nextInt(taskCount);
+    }
+}
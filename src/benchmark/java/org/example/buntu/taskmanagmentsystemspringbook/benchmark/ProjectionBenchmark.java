@@ -0,0 +1,79 @@
+package org.example.buntu.taskmanagmentsystemspringbook.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.example.buntu.taskmanagmentsystemspringbook.controller.TaskController;
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.ChangeFeed;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.InMemoryTaskRepository;
+import org.example.buntu.taskmanagmentsystemspringbook.service.AsyncTaskServiceImpl;
+import org.example.buntu.taskmanagmentsystemspringbook.service.TaskChangeServiceImpl;
+import org.example.buntu.taskmanagmentsystemspringbook.service.TaskServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server CPU and bytes on the wire of a /tasks/all page, with and without ?fields= and gzip
+ * A task is re-saved before every call, so each call renders the page (no response cache hit).
+ * gzip=true sends Accept-Encoding: gzip, so the controller also compresses the page (default level).
+ * The size sent for each combination is printed once per trial ("wire: ... bytes").
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProjectionBenchmark {
+
+    private static final int PAGE_SIZE = TaskServiceImpl.MAX_PAGE_SIZE;
+
+    @Param({"", "id,title,status"})
+    String fields;
+
+    @Param({"false", "true"})
+    boolean gzip;
+
+    private TaskServiceImpl taskService;
+    private TaskController controller;
+    private long taskId;
+    private HttpHeaders headers;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        taskService = new TaskServiceImpl(new InMemoryTaskRepository(),
+                Validation.buildDefaultValidatorFactory().getValidator());
+        controller = new TaskController(taskService, new AsyncTaskServiceImpl(taskService, Runnable::run),
+                new TaskChangeServiceImpl(new ChangeFeed(1), Runnable::run), objectMapper, new SimpleMeterRegistry());
+        headers = new HttpHeaders();
+        if (gzip) {
+            headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        }
+        LocalDateTime due = LocalDateTime.of(2030, 1, 1, 9, 0);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Task task = new Task("Task " + i, "Imported by the nightly job from the customer backlog, batch "
+                    + i % 100 + "; see the attached ticket for the acceptance criteria",
+                    Task.TaskStatus.TODO, Task.TaskPriority.MEDIUM);
+            task.setDueDate(due.plusMinutes(i));
+            taskId = taskService.createTask(task).getId();
+        }
+        System.out.println("wire: fields=" + fields + ", gzip=" + gzip + ": " + page().length + " bytes");
+    }
+
+    @Setup(Level.Invocation)
+    public void touch() {
+        // Any write moves the sequence, so the page is rendered again
+        taskService.updateTask(taskId, taskService.getTaskById(taskId));
+    }
+
+    @Benchmark
+    public byte[] page() {
+        return controller.getAllTasks(PAGE_SIZE, "id", null, fields, headers).getBody();
+    }
+}
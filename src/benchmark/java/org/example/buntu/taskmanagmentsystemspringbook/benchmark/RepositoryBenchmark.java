@@ -0,0 +1,77 @@
+package org.example.buntu.taskmanagmentsystemspringbook.benchmark;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.InMemoryTaskRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the InMemoryTaskRepository calls behind the read and write endpoints
+ * Tasks are spread evenly over the four statuses, so findByStatus returns a quarter
+ * of the store and findAll all of it; save overwrites a random existing task so the
+ * store keeps its size. Run with BenchmarkSuite to repeat it at several thread counts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class RepositoryBenchmark {
+
+    @Param({"1000", "100000"})
+    int taskCount;
+
+    private InMemoryTaskRepository repository;
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        repository = new InMemoryTaskRepository();
+        Task.TaskStatus[] statuses = Task.TaskStatus.values();
+        Task.TaskPriority[] priorities = Task.TaskPriority.values();
+        firstId = Long.MAX_VALUE;
+        for (int i = 0; i < taskCount; i++) {
+            Task task = repository.save(new Task("Task " + i, "Imported by the nightly job, batch " + i % 100,
+                    statuses[i % statuses.length], priorities[i % priorities.length]));
+            firstId = Math.min(firstId, task.getId());
+        }
+    }
+
+    @Benchmark
+    public Task save() {
+        Long id = randomId();
+        Task task = new Task("Task " + id, "Saved by RepositoryBenchmark", Task.TaskStatus.IN_PROGRESS,
+                Task.TaskPriority.HIGH);
+        task.setId(id);
+        return repository.save(task);
+    }
+
+    @Benchmark
+    public Optional<Task> findById() {
+        return repository.findById(randomId());
+    }
+
+    @Benchmark
+    public List<Task> findByStatus() {
+        return repository.findByStatus(Task.TaskStatus.IN_PROGRESS);
+    }
+
+    @Benchmark
+    public List<Task> findAll() {
+        return repository.findAll();
+    }
+
+    @Benchmark
+    public long countByStatus() {
+        return repository.countByStatus(Task.TaskStatus.TODO);
+    }
+
+    private Long randomId() {
+        return firstId + ThreadLocalRandom.current().nextInt(taskCount);
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.buntu.taskmanagmentsystemspringbook.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.example.buntu.taskmanagmentsystemspringbook.controller.TaskController;
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.ChangeFeed;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.InMemoryTaskRepository;
+import org.example.buntu.taskmanagmentsystemspringbook.service.AsyncTaskServiceImpl;
+import org.example.buntu.taskmanagmentsystemspringbook.service.TaskChangeServiceImpl;
+import org.example.buntu.taskmanagmentsystemspringbook.service.TaskServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time and allocation of the controller's uncached responses, without HTTP
+ * Each benchmark calls the controller (and its exception handler for notFound) and writes
+ * the body with an ObjectMapper configured like Spring Boot's. Run with the GC profiler
+ * and compare gc.alloc.rate.norm, the bytes allocated per call:
+ * -Djmh.args="ResponseAllocationBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseAllocationBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private ObjectMapper objectMapper;
+    private TaskController controller;
+    private long taskId;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        TaskServiceImpl taskService = new TaskServiceImpl(new InMemoryTaskRepository(),
+                Validation.buildDefaultValidatorFactory().getValidator());
+        controller = new TaskController(taskService, new AsyncTaskServiceImpl(taskService, Runnable::run),
+                new TaskChangeServiceImpl(new ChangeFeed(1), Runnable::run), objectMapper, new SimpleMeterRegistry());
+        LocalDateTime due = LocalDateTime.of(2030, 1, 1, 9, 0, 15, 250_000_000);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Task task = new Task("Task " + i, "Imported by the nightly job, batch " + i % 100,
+                    Task.TaskStatus.TODO, Task.TaskPriority.MEDIUM);
+            task.setDueDate(due.plusMinutes(i));
+            taskId = taskService.createTask(task).getId();
+        }
+    }
+
+    @Benchmark
+    public byte[] singleTask() throws Exception {
+        return objectMapper.writeValueAsBytes(controller.getTaskById(taskId).getBody());
+    }
+
+    @Benchmark
+    public byte[] duePage() throws Exception {
+        return objectMapper.writeValueAsBytes(controller.getTasksDue(null, null, PAGE_SIZE, null).getBody());
+    }
+
+    /**
+     * Create then delete, so the store keeps its size
+     */
+    @Benchmark
+    public int createAndDelete() throws Exception {
+        Task task = new Task("Short-lived", "Created by ResponseAllocationBenchmark",
+                Task.TaskStatus.TODO, Task.TaskPriority.LOW);
+        byte[] created = objectMapper.writeValueAsBytes(controller.createTask(task).getBody());
+        byte[] deleted = objectMapper.writeValueAsBytes(controller.deleteTask(task.getId()).getBody());
+        return created.length + deleted.length;
+    }
+
+    @Benchmark
+    public byte[] notFound() throws Exception {
+        try {
+            controller.getTaskById(-1L);
+            throw new IllegalStateException("Task -1 exists");
+        } catch (TaskServiceImpl.TaskNotFoundException ex) {
+            Object body = controller.handleTaskNotFound(ex).getBody();
+            return objectMapper.writeValueAsBytes(body);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.buntu.taskmanagmentsystemspringbook.benchmark;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskPage;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.InMemoryTaskRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of one search page (50 results) against the number of stored tasks.
+ * Text is drawn from a synthetic 5,000-word vocabulary with a skewed distribution,
+ * so low word numbers are common (word 0 is in ~15% of tasks) and high ones are rare.
+ * Queries: a common word, a rare word, a 3-letter prefix and two ANDed words.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+
+    private static final int VOCABULARY_SIZE = 5_000;
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ne", "ru", "sa", "te", "vo", "zi", "pu"};
+
+    @Param({"100000", "1000000"})
+    int taskCount;
+
+    @Param({"common", "rare", "prefix", "twoTerms"})
+    String query;
+
+    private InMemoryTaskRepository repository;
+    private String queryText;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        repository = new InMemoryTaskRepository();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < taskCount; i++) {
+            repository.save(new Task(words(random, 4), words(random, 12),
+                    Task.TaskStatus.TODO, Task.TaskPriority.MEDIUM));
+        }
+        queryText = switch (query) {
+            case "common" -> word(0);
+            case "rare" -> word(4_000);
+            case "prefix" -> word(1_234).substring(0, 3);
+            case "twoTerms" -> word(3) + " " + word(200);
+            default -> throw new IllegalArgumentException(query);
+        };
+    }
+
+    @Benchmark
+    public TaskPage search() {
+        return repository.search(queryText, null, 50);
+    }
+
+    private static String words(SplittableRandom random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            // Cubing a uniform draw skews towards low word numbers, like natural text
+            double skew = Math.pow(random.nextDouble(), 3);
+            text.append(word((int) (skew * VOCABULARY_SIZE))).append(' ');
+        }
+        return text.toString();
+    }
+
+    private static String word(int number) {
+        // Four base-10 syllables spell every number below 10,000 as a distinct word
+        StringBuilder word = new StringBuilder();
+        for (int digit = 0; digit < 4; digit++) {
+            word.append(SYLLABLES[number % 10]);
+            number /= 10;
+        }
+        return word.toString();
+    }
+}
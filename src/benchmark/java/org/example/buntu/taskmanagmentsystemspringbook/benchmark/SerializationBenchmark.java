@@ -0,0 +1,108 @@
+package org.example.buntu.taskmanagmentsystemspringbook.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.example.buntu.taskmanagmentsystemspringbook.controller.TaskController;
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.ChangeFeed;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.InMemoryTaskRepository;
+import org.example.buntu.taskmanagmentsystemspringbook.service.AsyncTaskServiceImpl;
+import org.example.buntu.taskmanagmentsystemspringbook.service.TaskChangeServiceImpl;
+import org.example.buntu.taskmanagmentsystemspringbook.service.TaskServiceImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of building and rendering the controller's JSON responses, without HTTP
+ * Each benchmark calls the controller method and writes its body with an ObjectMapper
+ * configured like Spring Boot's, so envelope building, task materialization and
+ * Jackson all count. pageSize is the number of tasks in the /tasks/all page.
+ * The list and stats endpoints cache their serialized bodies per modification sequence:
+ * with cached=false a task is re-saved before every call, so each call renders again;
+ * with cached=true repeat calls are served from the cache. The notModified benchmarks send
+ * the ETag of the first response back as If-None-Match: a 304 with cached=true, a client
+ * holding a stale copy with cached=false.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"1", "50", "1000"})
+    int pageSize;
+
+    @Param({"false", "true"})
+    boolean cached;
+
+    private ObjectMapper objectMapper;
+    private TaskServiceImpl taskService;
+    private TaskController controller;
+    private long taskId;
+    private String pageETag;
+    private String statsETag;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        taskService = new TaskServiceImpl(new InMemoryTaskRepository(),
+                Validation.buildDefaultValidatorFactory().getValidator());
+        controller = new TaskController(taskService, new AsyncTaskServiceImpl(taskService, Runnable::run),
+                new TaskChangeServiceImpl(new ChangeFeed(1), Runnable::run), objectMapper, new SimpleMeterRegistry());
+        LocalDateTime due = LocalDateTime.of(2030, 1, 1, 9, 0);
+        for (int i = 0; i < pageSize; i++) {
+            Task task = new Task("Task " + i, "Imported by the nightly job, batch " + i % 100,
+                    Task.TaskStatus.TODO, Task.TaskPriority.MEDIUM);
+            task.setDueDate(due.plusMinutes(i));
+            taskId = taskService.createTask(task).getId();
+        }
+        pageETag = controller.getAllTasks(pageSize, "id", null, null, HttpHeaders.EMPTY).getHeaders().getETag();
+        statsETag = controller.getTaskStats(HttpHeaders.EMPTY).getHeaders().getETag();
+    }
+
+    @Setup(Level.Invocation)
+    public void touch() {
+        if (!cached) {
+            // Any write moves the sequence and invalidates the cached bodies
+            taskService.updateTask(taskId, taskService.getTaskById(taskId));
+        }
+    }
+
+    private static HttpHeaders ifNoneMatch(String eTag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        return headers;
+    }
+
+    @Benchmark
+    public byte[] taskPage() {
+        return controller.getAllTasks(pageSize, "id", null, null, HttpHeaders.EMPTY).getBody();
+    }
+
+    @Benchmark
+    public Object taskPageNotModified() {
+        return controller.getAllTasks(pageSize, "id", null, null, ifNoneMatch(pageETag)).getStatusCode();
+    }
+
+    @Benchmark
+    public byte[] singleTask() throws Exception {
+        return objectMapper.writeValueAsBytes(controller.getTaskById(taskId).getBody());
+    }
+
+    @Benchmark
+    public byte[] stats() {
+        return controller.getTaskStats(HttpHeaders.EMPTY).getBody();
+    }
+
+    @Benchmark
+    public Object statsNotModified() {
+        return controller.getTaskStats(ifNoneMatch(statsETag)).getStatusCode();
+    }
+}
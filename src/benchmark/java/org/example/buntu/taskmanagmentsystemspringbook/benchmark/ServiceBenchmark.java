@@ -0,0 +1,65 @@
+package org.example.buntu.taskmanagmentsystemspringbook.benchmark;
+
+import jakarta.validation.Validation;
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.InMemoryTaskRepository;
+import org.example.buntu.taskmanagmentsystemspringbook.service.TaskServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of TaskServiceImpl calls on a populated store
+ * updateTask picks its target among the first hotTasks tasks: with one hot task every
+ * thread updates the same one, which is the contended case once run at several threads
+ * (see BenchmarkSuite); getTaskCount is the counter read behind /tasks/stats.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    int taskCount;
+
+    @Param({"1", "1000"})
+    int hotTasks;
+
+    private TaskServiceImpl taskService;
+    private long firstId;
+    private Task update;
+
+    @Setup(Level.Trial)
+    public void populate() {
+        taskService = new TaskServiceImpl(new InMemoryTaskRepository(),
+                Validation.buildDefaultValidatorFactory().getValidator());
+        firstId = Long.MAX_VALUE;
+        for (int i = 0; i < taskCount; i++) {
+            Task task = taskService.createTask(new Task("Task " + i, "Imported by the nightly job",
+                    Task.TaskStatus.TODO, Task.TaskPriority.MEDIUM));
+            firstId = Math.min(firstId, task.getId());
+        }
+        update = new Task("Updated by ServiceBenchmark", "New description", Task.TaskStatus.IN_PROGRESS,
+                Task.TaskPriority.HIGH);
+    }
+
+    @Benchmark
+    public Task updateTask() {
+        return taskService.updateTask(firstId + ThreadLocalRandom.current().nextInt(Math.min(hotTasks, taskCount)),
+                update);
+    }
+
+    @Benchmark
+    public Task getTaskById() {
+        return taskService.getTaskById(firstId + ThreadLocalRandom.current().nextInt(taskCount));
+    }
+
+    @Benchmark
+    public long getTaskCount() {
+        return taskService.getTaskCount();
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.buntu.taskmanagmentsystemspringbook.benchmark;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.QueryResult;
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskQuery;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.InMemoryTaskRepository;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.ShardedTaskRepository;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.TaskRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scan-heavy reads on the single store versus the sharded store
+ * shards=1 is the plain InMemoryTaskRepository; higher counts split the same tasks over that
+ * many shards scanned in parallel. The query has no criterion, so it scans everything.
+ * Scaling needs as many cores as shards: on fewer cores this measures the scatter-gather overhead.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class ShardedScanBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    int shards;
+
+    @Param({"100000"})
+    int taskCount;
+
+    private TaskRepository repository;
+    // No criterion at all: nothing to drive from, every task is examined
+    private final TaskQuery unfiltered = new TaskQuery(null, null, null, null, null, null);
+
+    @Setup(Level.Trial)
+    public void populate() {
+        repository = shards == 1 ? new InMemoryTaskRepository() : new ShardedTaskRepository(shards, null);
+        Task.TaskStatus[] statuses = Task.TaskStatus.values();
+        Task.TaskPriority[] priorities = Task.TaskPriority.values();
+        List<Task> batch = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            batch.add(new Task("Task " + i, "Imported by the nightly job, batch " + i % 100,
+                    statuses[i % statuses.length], priorities[i % priorities.length]));
+        }
+        repository.saveAll(batch);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        if (repository instanceof ShardedTaskRepository sharded) {
+            sharded.close();
+        }
+    }
+
+    @Benchmark
+    public List<Task> findAll() {
+        return repository.findAll();
+    }
+
+    @Benchmark
+    public List<Task> findByStatus() {
+        return repository.findByStatus(Task.TaskStatus.IN_PROGRESS);
+    }
+
+    @Benchmark
+    public QueryResult queryFullScan() {
+        return repository.query(unfiltered, null, 50);
+    }
+}
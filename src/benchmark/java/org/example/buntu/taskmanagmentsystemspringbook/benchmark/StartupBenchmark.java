@@ -0,0 +1,80 @@
+package org.example.buntu.taskmanagmentsystemspringbook.benchmark;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.persistence.DurabilityMode;
+import org.example.buntu.taskmanagmentsystemspringbook.persistence.SnapshotStore;
+import org.example.buntu.taskmanagmentsystemspringbook.persistence.WriteAheadLog;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.InMemoryTaskRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time until a persistent InMemoryTaskRepository is usable, against task count:
+ * recovering from a snapshot versus replaying the full mutation log.
+ * Each task in the log was written twice (create + status change), as in normal use.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    @Param({"100000", "1000000"})
+    int taskCount;
+
+    private Path logOnly;
+    private Path withSnapshot;
+    private WriteAheadLog openLog;
+
+    @Setup(Level.Trial)
+    public void writeStores() throws Exception {
+        logOnly = Files.createTempDirectory("startup-log");
+        withSnapshot = Files.createTempDirectory("startup-snapshot");
+        populate(logOnly, false);
+        populate(withSnapshot, true);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteStores() throws Exception {
+        FileSystemUtils.deleteRecursively(logOnly);
+        FileSystemUtils.deleteRecursively(withSnapshot);
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeLog() throws Exception {
+        openLog.close();
+    }
+
+    @Benchmark
+    public long recoverFromSnapshot() throws Exception {
+        openLog = new WriteAheadLog(withSnapshot, DurabilityMode.OS, 50, 64L * 1024 * 1024);
+        return new InMemoryTaskRepository(openLog, new SnapshotStore(withSnapshot)).count();
+    }
+
+    @Benchmark
+    public long replayFullLog() throws Exception {
+        openLog = new WriteAheadLog(logOnly, DurabilityMode.OS, 50, 64L * 1024 * 1024);
+        return new InMemoryTaskRepository(openLog, null).count();
+    }
+
+    private void populate(Path directory, boolean snapshot) throws Exception {
+        try (WriteAheadLog wal = new WriteAheadLog(directory, DurabilityMode.OS, 50, 64L * 1024 * 1024)) {
+            InMemoryTaskRepository repository = new InMemoryTaskRepository(wal, snapshot ? new SnapshotStore(directory) : null);
+            for (int i = 0; i < taskCount; i++) {
+                Task task = repository.save(new Task("Task " + i, "Benchmark task number " + i,
+                        Task.TaskStatus.TODO, Task.TaskPriority.values()[i % 4]));
+                task.setStatus(Task.TaskStatus.IN_PROGRESS);
+                repository.save(task);
+            }
+            if (snapshot) {
+                repository.snapshot();
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package org.example.buntu.taskmanagmentsystemspringbook.benchmark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first request and resident memory of a freshly started application, per startup mode
+ * Each run starts the packaged jar in its own JVM, polls GET /api/tasks/stats until it answers 200
+ * and then reads the process RSS from /proc (Linux only). Modes:
+ * - jar: plain java -jar, as before any of the options below
+ * - aot: the Spring AOT bean definitions, -Dspring.aot.enabled=true
+ * - cds: the extracted jar with a class-data-sharing archive from a training run
+ * - aot-cds: both, the Dockerfile's default
+ * - aot-cds-lazy: both plus spring.main.lazy-initialization=true
+ * Needs a jar built with the aot profile: ./mvnw -Paot package -DskipTests
+ * Not a JMH benchmark: run it with exec:java, see the benchmark profile in pom.xml
+ * -Dstartup.modes=jar,aot,cds,aot-cds,aot-cds-lazy -Dstartup.runs=5 -Dstartup.jvm-args=-Xmx256m
+ * Results are written to target/startup-results.json.
+ */
+public class StartupReport {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(120);
+
+    public static void main(String[] args) throws Exception {
+        // exec:java passes the profile's JMH arguments along, so settings come from system properties
+        String[] modes = System.getProperty("startup.modes", "jar,aot,cds,aot-cds,aot-cds-lazy").split(",");
+        int runs = Integer.getInteger("startup.runs", 5);
+        List<String> jvmArgs = Arrays.stream(System.getProperty("startup.jvm-args", "").split(" "))
+                .filter(arg -> !arg.isBlank()).toList();
+        Path jar = Path.of(System.getProperty("startup.jar", findJar().toString()));
+        Path work = Path.of("target", "startup");
+        Path output = Path.of(System.getProperty("startup.output", "target/startup-results.json"));
+
+        Files.createDirectories(work);
+        Path extracted = extract(jar, work.resolve("extracted"));
+        List<String> rows = new ArrayList<>();
+        System.out.printf("%-13s %6s %14s %10s %10s %12s%n", "mode", "runs", "first req ms", "min ms", "max ms", "RSS MB");
+        for (String mode : modes) {
+            List<String> command = command(mode.trim(), jar, extracted, work, jvmArgs);
+            long[] millis = new long[runs];
+            long[] rss = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                long[] sample = measure(command, work.resolve(mode.trim() + "-" + run + ".log"));
+                millis[run] = sample[0];
+                rss[run] = sample[1];
+            }
+            Arrays.sort(millis);
+            Arrays.sort(rss);
+            long medianMillis = millis[runs / 2];
+            double medianRss = rss[runs / 2] / 1024.0;
+            System.out.printf(Locale.ROOT, "%-13s %6d %14d %10d %10d %12.1f%n",
+                    mode.trim(), runs, medianMillis, millis[0], millis[runs - 1], medianRss);
+            rows.add(String.format(Locale.ROOT,
+                    "{\"mode\":\"%s\",\"runs\":%d,\"firstRequestMs\":%d,\"minMs\":%d,\"maxMs\":%d,\"rssMb\":%.1f}",
+                    mode.trim(), runs, medianMillis, millis[0], millis[runs - 1], medianRss));
+        }
+        Files.writeString(output, "[" + String.join(",", rows) + "]\n");
+        System.out.println("Results written to " + output);
+    }
+
+    private static List<String> command(String mode, Path jar, Path extracted, Path work, List<String> jvmArgs)
+            throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(java());
+        command.addAll(jvmArgs);
+        boolean aot = mode.startsWith("aot");
+        if (aot) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        if (mode.endsWith("-lazy")) {
+            command.add("-Dspring.main.lazy-initialization=true");
+        }
+        switch (mode) {
+            case "jar", "aot" -> command.addAll(List.of("-jar", jar.toString()));
+            case "cds", "aot-cds", "aot-cds-lazy" -> {
+                // A CDS archive only matches the class path it was trained on, so aot gets its own
+                Path archive = train(extracted, work.resolve(aot ? "aot.jsa" : "app.jsa"), aot, jvmArgs);
+                command.addAll(List.of("-XX:SharedArchiveFile=" + archive, "-Xlog:cds=off", "-Xlog:cds+dynamic=off",
+                        "-jar", extracted.resolve("app.jar").toString()));
+            }
+            default -> throw new IllegalArgumentException("Unknown startup mode: " + mode);
+        }
+        return command;
+    }
+
+    /**
+     * The layout the Dockerfile uses: an application jar next to lib/, which CDS can map
+     * (it cannot share classes loaded from jars nested in the executable jar)
+     */
+    private static Path extract(Path jar, Path destination) throws Exception {
+        run(List.of(java(), "-Djarmode=tools", "-jar", jar.toString(), "extract", "--force",
+                "--destination", destination.toString(), "--application-filename", "app.jar"));
+        return destination;
+    }
+
+    /**
+     * Starts the application once, stopping after the context refresh, and dumps every class
+     * it loaded into the archive
+     */
+    private static Path train(Path extracted, Path archive, boolean aot, List<String> jvmArgs) throws Exception {
+        if (Files.exists(archive)) {
+            return archive;
+        }
+        List<String> command = new ArrayList<>(List.of(java()));
+        command.addAll(jvmArgs);
+        command.addAll(List.of("-XX:ArchiveClassesAtExit=" + archive, "-Dspring.context.exit=onRefresh",
+                "-Dspring.aot.enabled=" + aot, "-jar", extracted.resolve("app.jar").toString()));
+        run(command);
+        return archive;
+    }
+
+    /**
+     * @return milliseconds from launch to the first successful response, and the RSS in KB then
+     */
+    private static long[] measure(List<String> command, Path log) throws Exception {
+        int port = freePort();
+        List<String> withPort = new ArrayList<>(command);
+        withPort.add("--server.port=" + port);
+        URI uri = URI.create("http://localhost:" + port + "/api/tasks/stats");
+
+        try (HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build()) {
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(withPort).redirectErrorStream(true)
+                    .redirectOutput(log.toFile()).start();
+            try {
+                while (true) {
+                    if (!process.isAlive()) {
+                        throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+                    }
+                    if (System.nanoTime() - start > TIMEOUT.toNanos()) {
+                        throw new IllegalStateException("No response within " + TIMEOUT + ", see " + log);
+                    }
+                    try {
+                        HttpResponse<Void> response = http.send(HttpRequest.newBuilder(uri).build(),
+                                HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() == 200) {
+                            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                            return new long[]{millis, rssKb(process.pid())};
+                        }
+                    } catch (IOException notListening) {
+                        // Not accepting connections yet
+                    }
+                    Thread.sleep(5);
+                }
+            } finally {
+                process.destroy();
+                process.waitFor(30, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private static long rssKb(long pid) throws IOException {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (!Files.exists(status)) {
+            return 0;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        return 0;
+    }
+
+    private static void run(List<String> command) throws Exception {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("Failed with " + process.exitValue() + ": " + String.join(" ", command));
+        }
+    }
+
+    private static Path findJar() throws IOException {
+        try (var jars = Files.list(Path.of("target"))) {
+            return jars.filter(path -> path.toString().endsWith(".jar") && !path.toString().endsWith("-plain.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No jar in target, run ./mvnw -Paot package first"));
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+}
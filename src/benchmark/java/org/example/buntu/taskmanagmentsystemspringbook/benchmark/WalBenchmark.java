@@ -0,0 +1,53 @@
+package org.example.buntu.taskmanagmentsystemspringbook.benchmark;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.persistence.DurabilityMode;
+import org.example.buntu.taskmanagmentsystemspringbook.persistence.WriteAheadLog;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.InMemoryTaskRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes per second through InMemoryTaskRepository.save with the write-ahead log
+ * at each durability level, from 8 concurrent writers (so ALWAYS shows group commit).
+ * Set -Djava.io.tmpdir to put the log on the disk you actually deploy on.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class WalBenchmark {
+
+    @Param({"ALWAYS", "INTERVAL", "OS"})
+    DurabilityMode durability;
+
+    private Path directory;
+    private WriteAheadLog writeAheadLog;
+    private InMemoryTaskRepository repository;
+
+    @Setup(Level.Trial)
+    public void open() throws Exception {
+        directory = Files.createTempDirectory("wal-benchmark");
+        writeAheadLog = new WriteAheadLog(directory, durability, 50, 64L * 1024 * 1024);
+        repository = new InMemoryTaskRepository(writeAheadLog, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws Exception {
+        writeAheadLog.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Task save() {
+        return repository.save(new Task("Durable task", "Written through the write-ahead log",
+                Task.TaskStatus.TODO, Task.TaskPriority.MEDIUM));
+    }
+}
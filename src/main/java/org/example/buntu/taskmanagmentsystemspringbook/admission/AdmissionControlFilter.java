@@ -0,0 +1,216 @@
+package org.example.buntu.taskmanagmentsystemspringbook.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.buntu.taskmanagmentsystemspringbook.model.ErrorResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission control for the task API: rejects what the server cannot serve soon, instead of
+ * letting every request queue in Tomcat until latency collapses for all of them
+ * Each RequestClass has its own concurrency limit and bounded FIFO queue with a timeout, so
+ * expensive scans cannot take the capacity of cheap single-task calls. Scans and bulk requests
+ * do not queue while point requests are waiting: under overload they are shed first.
+ * Rejections are immediate: 503 with Retry-After, or 429 from the optional per-client token bucket.
+ * A permit is held until the response is complete, async (batch) processing included.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final Map<RequestClass, ConcurrencyLimit> limits = new EnumMap<>(RequestClass.class);
+    private final AdmissionProperties.ClientRateLimit clientRateLimit;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Set<String> trustedProxies;
+    private final ReentrantLock evicting = new ReentrantLock();
+    private final long retryAfterSeconds;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry registry;
+
+    public AdmissionControlFilter(AdmissionProperties properties, ObjectMapper objectMapper, MeterRegistry registry) {
+        for (RequestClass requestClass : RequestClass.values()) {
+            AdmissionProperties.Limit limit = properties.limit(requestClass);
+            ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit(limit.getMaxConcurrent(), limit.getMaxQueue(),
+                    limit.getQueueTimeoutMs());
+            limits.put(requestClass, concurrencyLimit);
+            Gauge.builder("tasks.admission.active", concurrencyLimit, ConcurrencyLimit::active)
+                    .tag("class", requestClass.name())
+                    .description("Admitted requests in progress")
+                    .register(registry);
+            Gauge.builder("tasks.admission.queued", concurrencyLimit, ConcurrencyLimit::waiting)
+                    .tag("class", requestClass.name())
+                    .description("Requests waiting for admission")
+                    .register(registry);
+        }
+        this.clientRateLimit = properties.getClientRateLimit().isEnabled() ? properties.getClientRateLimit() : null;
+        this.trustedProxies = Set.copyOf(properties.getClientRateLimit().getTrustedProxies());
+        this.retryAfterSeconds = properties.getRetryAfterSeconds();
+        this.objectMapper = objectMapper;
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // The decoded path without ;parameters or doubled slashes, as handler mapping sees it
+        RequestClass requestClass = RequestClass.of(UrlPathHelper.defaultInstance.getLookupPathForRequest(request));
+        if (requestClass == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (clientRateLimit != null) {
+            long waitNanos = bucket(clientKey(request)).tryTake(System.nanoTime());
+            if (waitNanos > 0) {
+                reject(response, requestClass, HttpStatus.TOO_MANY_REQUESTS, "client-rate",
+                        Math.ceilDiv(waitNanos, TimeUnit.SECONDS.toNanos(1)),
+                        "Too many requests from this client, retry later");
+                return;
+            }
+        }
+
+        ConcurrencyLimit limit = limits.get(requestClass);
+        boolean queue = requestClass == RequestClass.POINT || limits.get(RequestClass.POINT).waiting() == 0;
+        boolean admitted;
+        try {
+            admitted = limit.acquire(queue);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            reject(response, requestClass, HttpStatus.SERVICE_UNAVAILABLE, queue ? "queue" : "shed",
+                    retryAfterSeconds, "Server busy, retry later");
+            return;
+        }
+
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                limit.release();
+            }
+        };
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private TokenBucket bucket(String client) {
+        TokenBucket bucket = buckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        long now = System.nanoTime();
+        if (buckets.size() >= clientRateLimit.getMaxClients()) {
+            evict(now);
+        }
+        return buckets.computeIfAbsent(client, key -> new TokenBucket(clientRateLimit.getRequestsPerSecond(),
+                clientRateLimit.getBurst(), now));
+    }
+
+    /**
+     * Drops the buckets that have refilled, which a new bucket would replace exactly. If that
+     * frees less than an eighth of maxClients, the least recently used go too, so the next sweep
+     * is that many new clients away. Clients still sending keep their bucket.
+     */
+    private void evict(long now) {
+        // One sweep at a time; the others go ahead and overshoot maxClients by a few
+        if (!evicting.tryLock()) {
+            return;
+        }
+        try {
+            int maxClients = clientRateLimit.getMaxClients();
+            if (buckets.size() < maxClients) {
+                return;
+            }
+            buckets.values().removeIf(bucket -> bucket.isFull(now));
+            int excess = buckets.size() - (maxClients - Math.max(1, maxClients / 8));
+            if (excess <= 0) {
+                return;
+            }
+            // Last use copied first: buckets keep being used while this sorts
+            List<Map.Entry<String, Long>> byLastUse = new ArrayList<>(buckets.size());
+            buckets.forEach((client, bucket) -> byLastUse.add(Map.entry(client, bucket.lastUsed())));
+            byLastUse.sort(Map.Entry.comparingByValue());
+            for (int i = 0; i < excess && i < byLastUse.size(); i++) {
+                buckets.remove(byLastUse.get(i).getKey());
+            }
+        } finally {
+            evicting.unlock();
+        }
+    }
+
+    /**
+     * The remote address, or the client header when a trusted proxy sent the request:
+     * a header from anyone else could name a new client on every request
+     */
+    private String clientKey(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        if (trustedProxies.contains(address)) {
+            String client = request.getHeader(clientRateLimit.getClientHeader());
+            if (client != null && !client.isBlank()) {
+                return client;
+            }
+        }
+        return address;
+    }
+
+    private void reject(HttpServletResponse response, RequestClass requestClass, HttpStatus status, String reason,
+                        long retryAfter, String error) throws IOException {
+        registry.counter("tasks.admission.rejected", "class", requestClass.name(), "reason", reason).increment();
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponse.of(status.value(), error));
+    }
+
+    /**
+     * Releases the permit of an async request when its response is done, however it ends
+     */
+    private record ReleasingListener(Runnable release) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
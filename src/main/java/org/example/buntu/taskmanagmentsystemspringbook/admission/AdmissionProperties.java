@@ -0,0 +1,86 @@
+package org.example.buntu.taskmanagmentsystemspringbook.admission;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * tasks.admission.* settings for admission control in front of the task API
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "tasks.admission")
+public class AdmissionProperties {
+
+    /** Limit concurrent requests per RequestClass and reject the excess instead of queueing it in Tomcat */
+    private boolean enabled = false;
+
+    /** Retry-After of 503 responses */
+    private long retryAfterSeconds = 1;
+
+    /** Single-task reads and writes */
+    private Limit point = new Limit(64, 256, 1000);
+
+    /** Listings, search, query and stats; about one per core */
+    private Limit scan = new Limit(4, 16, 250);
+
+    /** Export and batch operations */
+    private Limit bulk = new Limit(2, 4, 250);
+
+    private ClientRateLimit clientRateLimit = new ClientRateLimit();
+
+    public Limit limit(RequestClass requestClass) {
+        return switch (requestClass) {
+            case POINT -> point;
+            case SCAN -> scan;
+            case BULK -> bulk;
+        };
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+
+        /** Requests of the class handled at the same time */
+        private int maxConcurrent;
+
+        /** Requests waiting for one of them to finish; more are rejected at once */
+        private int maxQueue;
+
+        /** Longest wait in the queue before the request is rejected */
+        private long queueTimeoutMs;
+    }
+
+    @Getter
+    @Setter
+    public static class ClientRateLimit {
+
+        /** Give every client a token bucket; requests finding it empty get 429 */
+        private boolean enabled = false;
+
+        /** Sustained requests per second per client */
+        private double requestsPerSecond = 50;
+
+        /** Requests a client may send at once after being idle */
+        private int burst = 100;
+
+        /** Header naming the client, read only on requests from a trusted proxy */
+        private String clientHeader = "X-Client-Id";
+
+        /**
+         * Remote addresses of proxies that set clientHeader; for any other request the
+         * header is ignored and the client is the remote address
+         */
+        private List<String> trustedProxies = new ArrayList<>();
+
+        /** Buckets kept; beyond this, refilled ones and then the least recently used are dropped */
+        private int maxClients = 10_000;
+    }
+}
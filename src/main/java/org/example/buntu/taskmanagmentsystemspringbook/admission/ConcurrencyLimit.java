@@ -0,0 +1,59 @@
+package org.example.buntu.taskmanagmentsystemspringbook.admission;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * At most maxConcurrent holders, and at most maxQueue callers waiting (FIFO) for a turn
+ */
+class ConcurrencyLimit {
+
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long queueTimeoutNanos;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    ConcurrencyLimit(int maxConcurrent, int maxQueue, long queueTimeoutMs) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = maxQueue;
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMs);
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * Takes a free permit, or waits up to the queue timeout for one if the queue has room
+     * @param queue false to only take a free permit
+     * @return false when the caller is rejected; it must not release
+     */
+    boolean acquire(boolean queue) throws InterruptedException {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        if (!queue) {
+            return false;
+        }
+        if (waiting.incrementAndGet() > maxQueue) {
+            waiting.decrementAndGet();
+            return false;
+        }
+        try {
+            return permits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    void release() {
+        permits.release();
+    }
+
+    int active() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    int waiting() {
+        return waiting.get();
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.buntu.taskmanagmentsystemspringbook.admission;
+
+/**
+ * Task API requests grouped by cost, each class with its own concurrency limit and queue
+ */
+public enum RequestClass {
+
+    /** One task by id, and single creates: bounded work */
+    POINT,
+    /** Listings, search, queries and stats: work grows with the number of tasks */
+    SCAN,
+    /** Export and batch operations: the most work per request */
+    BULK;
+
+    private static final String PREFIX = "/tasks/";
+
+    /**
+     * @param path request path below the context path, e.g. /tasks/42
+     * @return null for requests admission control leaves alone: paths outside /tasks, and the
+     * change feed, whose long polls and event streams wait without holding a thread
+     */
+    public static RequestClass of(String path) {
+        if (path == null || !path.startsWith(PREFIX)) {
+            return null;
+        }
+        int end = path.indexOf('/', PREFIX.length());
+        String first = path.substring(PREFIX.length(), end < 0 ? path.length() : end);
+        return switch (first) {
+            case "changes" -> null;
+            case "export", "batch" -> BULK;
+            case "all", "search", "due", "overdue", "query", "stats", "status", "priority" -> SCAN;
+            default -> POINT;
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.buntu.taskmanagmentsystemspringbook.admission;
+
+/**
+ * Refills at a fixed rate up to capacity tokens; each request takes one
+ */
+class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double capacity;
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(double tokensPerSecond, int capacity, long now) {
+        this.tokensPerNano = tokensPerSecond / 1e9;
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.refilledAt = now;
+    }
+
+    /**
+     * @param now System.nanoTime()
+     * @return 0 when a token was taken, otherwise the nanoseconds until one is available
+     */
+    synchronized long tryTake(long now) {
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    /**
+     * @return true when the bucket has refilled by now, i.e. it is the same as a new one
+     */
+    synchronized boolean isFull(long now) {
+        return tokens + (now - refilledAt) * tokensPerNano >= capacity;
+    }
+
+    synchronized long lastUsed() {
+        return refilledAt;
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.buntu.taskmanagmentsystemspringbook.analytics;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.AnalyticsResponse;
+
+/**
+ * Log-scale bins for durations, four per doubling from one second to about five months
+ * Bin 0 holds everything under a second, bin k >= 1 holds [2^((k-1)/4), 2^(k/4)) seconds and
+ * the last bin everything longer. A histogram is laid out as count, sum of millis, then the bins.
+ */
+final class DurationHistogram {
+
+    static final int BINS = 96;
+    static final int COUNT = 0;
+    static final int SUM_MILLIS = 1;
+    static final int FIRST_BIN = 2;
+    static final int LENGTH = FIRST_BIN + BINS;
+
+    private static final double LOG_BIN_WIDTH = Math.log(2) / 4;
+    private static final double[] UPPER_SECONDS = new double[BINS];
+
+    static {
+        for (int bin = 0; bin < BINS; bin++) {
+            UPPER_SECONDS[bin] = Math.pow(2, bin / 4.0);
+        }
+    }
+
+    private DurationHistogram() {
+    }
+
+    static int bin(long millis) {
+        if (millis < 1000) {
+            return 0;
+        }
+        return Math.min(BINS - 1, 1 + (int) (Math.log(millis / 1000.0) / LOG_BIN_WIDTH));
+    }
+
+    /**
+     * @param histogram merged values, laid out from offset
+     */
+    static AnalyticsResponse.DurationSummary summary(long[] histogram, int offset) {
+        long count = histogram[offset + COUNT];
+        if (count == 0) {
+            return new AnalyticsResponse.DurationSummary(0, 0, 0, 0, 0);
+        }
+        return new AnalyticsResponse.DurationSummary(count,
+                histogram[offset + SUM_MILLIS] / 1000.0 / count,
+                percentile(histogram, offset, count, 0.50),
+                percentile(histogram, offset, count, 0.90),
+                percentile(histogram, offset, count, 0.99));
+    }
+
+    private static double percentile(long[] histogram, int offset, long count, double percentile) {
+        long rank = (long) Math.ceil(percentile * count);
+        long seen = 0;
+        for (int bin = 0; bin < BINS; bin++) {
+            seen += histogram[offset + FIRST_BIN + bin];
+            if (seen >= rank) {
+                return UPPER_SECONDS[bin];
+            }
+        }
+        return UPPER_SECONDS[BINS - 1];
+    }
+}
@@ -0,0 +1,239 @@
+package org.example.buntu.taskmanagmentsystemspringbook.analytics;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.AnalyticsResponse;
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Task throughput and time in status, maintained as tasks are written
+ * Creations and status changes are counted into a fixed ring of time buckets; a bucket that
+ * comes round again is replaced, so memory stays constant. Each bucket also keeps histograms
+ * of how long tasks spent in TODO and IN_PROGRESS before leaving, and of the lead time from
+ * creation to COMPLETED. A query merges the buckets of its window, so its cost depends on the
+ * window and the bucket size, never on the number of tasks stored.
+ * Time in a status counts from the write that entered it, remembered for open tasks only.
+ * Nothing is persisted: after a restart, a task still in the status it was created with counts
+ * from its creation, and other tasks already open are left out of timeInStatus.
+ */
+public class TaskAnalytics {
+
+    public static final long DEFAULT_BUCKET_MS = Duration.ofMinutes(5).toMillis();
+    // 25 hours: room for a 24-hour window
+    public static final int DEFAULT_BUCKETS = 300;
+
+    // Bucket layout: created, then entries per status, then the histograms
+    private static final int CREATED = 0;
+    private static final int ENTERED = 1;
+    private static final int HISTOGRAMS = ENTERED + Task.TaskStatus.values().length;
+    private static final int TODO_TIME = HISTOGRAMS;
+    private static final int IN_PROGRESS_TIME = TODO_TIME + DurationHistogram.LENGTH;
+    private static final int LEAD_TIME = IN_PROGRESS_TIME + DurationHistogram.LENGTH;
+    private static final int BUCKET_LENGTH = LEAD_TIME + DurationHistogram.LENGTH;
+
+    private final long bucketMs;
+    private final AtomicReferenceArray<Bucket> ring;
+    private final ZoneId zone = ZoneId.systemDefault();
+    // Task id -> epoch millis it entered its current status, for TODO and IN_PROGRESS tasks
+    private final Map<Long, Long> enteredAt = new ConcurrentHashMap<>();
+
+    public TaskAnalytics() {
+        this(DEFAULT_BUCKET_MS, DEFAULT_BUCKETS);
+    }
+
+    public TaskAnalytics(long bucketMs, int buckets) {
+        if (bucketMs < 1000 || buckets < 1) {
+            throw new IllegalArgumentException("Buckets must span at least a second and there must be at least one");
+        }
+        this.bucketMs = bucketMs;
+        this.ring = new AtomicReferenceArray<>(buckets);
+    }
+
+    public Duration getRetention() {
+        return Duration.ofMillis(bucketMs * ring.length());
+    }
+
+    public void recordCreated(Task task) {
+        recordCreated(task, System.currentTimeMillis());
+    }
+
+    /**
+     * @param now epoch millis of the write; also for replaying earlier writes, oldest first
+     */
+    public void recordCreated(Task task, long now) {
+        Bucket bucket = bucket(now);
+        if (bucket != null) {
+            bucket.values.incrementAndGet(CREATED);
+        }
+        if (histogram(task.getStatus()) >= 0) {
+            enteredAt.put(task.getId(), now);
+        }
+    }
+
+    /**
+     * @param previousStatus the status the write replaced
+     * @param previousVersion the version the write replaced, 1 when the task was never changed
+     */
+    public void recordUpdated(Task.TaskStatus previousStatus, Long previousVersion, Task task) {
+        recordUpdated(previousStatus, previousVersion, task, System.currentTimeMillis());
+    }
+
+    public void recordUpdated(Task.TaskStatus previousStatus, Long previousVersion, Task task, long now) {
+        Task.TaskStatus status = task.getStatus();
+        if (status == previousStatus || status == null) {
+            return;
+        }
+        Bucket bucket = bucket(now);
+        int histogram = histogram(previousStatus);
+        if (histogram >= 0) {
+            Long entered = enteredAt.remove(task.getId());
+            if (entered == null && Long.valueOf(1).equals(previousVersion) && task.getCreatedAt() != null) {
+                // Never changed since it was created, so it entered the status then
+                entered = millis(task.getCreatedAt());
+            }
+            if (entered != null && bucket != null) {
+                record(bucket, histogram, now - entered);
+            }
+        }
+        if (bucket != null) {
+            bucket.values.incrementAndGet(ENTERED + status.ordinal());
+            if (status == Task.TaskStatus.COMPLETED && task.getCreatedAt() != null) {
+                record(bucket, LEAD_TIME, now - millis(task.getCreatedAt()));
+            }
+        }
+        if (histogram(status) >= 0) {
+            enteredAt.put(task.getId(), now);
+        }
+    }
+
+    public void recordDeleted(Long id) {
+        enteredAt.remove(id);
+    }
+
+    /**
+     * @param window a multiple of step, at most the retention
+     * @param step a multiple of the bucket size
+     */
+    public AnalyticsResponse query(Duration window, Duration step) {
+        return query(window, step, System.currentTimeMillis());
+    }
+
+    AnalyticsResponse query(Duration window, Duration step, long now) {
+        long stepMs = step.toMillis();
+        long windowMs = window.toMillis();
+        if (stepMs <= 0 || stepMs % bucketMs != 0) {
+            throw new IllegalArgumentException("'step' must be a positive multiple of " + Duration.ofMillis(bucketMs));
+        }
+        if (windowMs <= 0 || windowMs % stepMs != 0) {
+            throw new IllegalArgumentException("'window' must be a positive multiple of 'step'");
+        }
+        if (windowMs > bucketMs * ring.length()) {
+            throw new IllegalArgumentException("'window' must not exceed " + getRetention());
+        }
+
+        // Whole steps ending with the one now is in; at most one bucket per slot, as window <= retention
+        long end = (Math.floorDiv(now, stepMs) + 1) * stepMs;
+        long start = end - windowMs;
+        long firstIndex = start / bucketMs;
+        int bucketsPerStep = (int) (stepMs / bucketMs);
+        long[] totals = new long[BUCKET_LENGTH];
+        long[] created = new long[(int) (windowMs / stepMs)];
+        long[] completed = new long[created.length];
+        for (long index = firstIndex; index < end / bucketMs; index++) {
+            Bucket bucket = ring.get(slot(index));
+            if (bucket == null || bucket.index != index) {
+                continue;
+            }
+            int point = (int) ((index - firstIndex) / bucketsPerStep);
+            for (int i = 0; i < BUCKET_LENGTH; i++) {
+                totals[i] += bucket.values.get(i);
+            }
+            created[point] += bucket.values.get(CREATED);
+            completed[point] += bucket.values.get(ENTERED + Task.TaskStatus.COMPLETED.ordinal());
+        }
+
+        List<AnalyticsResponse.Point> series = new ArrayList<>(created.length);
+        for (int point = 0; point < created.length; point++) {
+            series.add(new AnalyticsResponse.Point(dateTime(start + point * stepMs), created[point], completed[point]));
+        }
+        Map<Task.TaskStatus, AnalyticsResponse.DurationSummary> timeInStatus = new EnumMap<>(Task.TaskStatus.class);
+        timeInStatus.put(Task.TaskStatus.TODO, DurationHistogram.summary(totals, TODO_TIME));
+        timeInStatus.put(Task.TaskStatus.IN_PROGRESS, DurationHistogram.summary(totals, IN_PROGRESS_TIME));
+        return new AnalyticsResponse(dateTime(start), dateTime(end), step,
+                totals[CREATED],
+                totals[ENTERED + Task.TaskStatus.IN_PROGRESS.ordinal()],
+                totals[ENTERED + Task.TaskStatus.COMPLETED.ordinal()],
+                totals[ENTERED + Task.TaskStatus.CANCELLED.ordinal()],
+                series, timeInStatus, DurationHistogram.summary(totals, LEAD_TIME));
+    }
+
+    /**
+     * @return the bucket now falls in, replacing the one a full ring earlier; null if now is
+     * older than the ring, after the clock went back a long way
+     */
+    private Bucket bucket(long now) {
+        long index = Math.floorDiv(now, bucketMs);
+        int slot = slot(index);
+        while (true) {
+            Bucket bucket = ring.get(slot);
+            if (bucket != null && bucket.index >= index) {
+                return bucket.index == index ? bucket : null;
+            }
+            Bucket fresh = new Bucket(index);
+            if (ring.compareAndSet(slot, bucket, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private int slot(long index) {
+        return (int) Math.floorMod(index, ring.length());
+    }
+
+    private static void record(Bucket bucket, int histogram, long millis) {
+        millis = Math.max(0, millis);
+        bucket.values.incrementAndGet(histogram + DurationHistogram.COUNT);
+        bucket.values.addAndGet(histogram + DurationHistogram.SUM_MILLIS, millis);
+        bucket.values.incrementAndGet(histogram + DurationHistogram.FIRST_BIN + DurationHistogram.bin(millis));
+    }
+
+    /**
+     * @return the offset of the histogram for time spent in status, -1 when it is not tracked
+     */
+    private static int histogram(Task.TaskStatus status) {
+        if (status == Task.TaskStatus.TODO) {
+            return TODO_TIME;
+        }
+        if (status == Task.TaskStatus.IN_PROGRESS) {
+            return IN_PROGRESS_TIME;
+        }
+        return -1;
+    }
+
+    private long millis(LocalDateTime dateTime) {
+        return dateTime.atZone(zone).toInstant().toEpochMilli();
+    }
+
+    private LocalDateTime dateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone);
+    }
+
+    private static final class Bucket {
+        final long index;
+        final AtomicLongArray values = new AtomicLongArray(BUCKET_LENGTH);
+
+        Bucket(long index) {
+            this.index = index;
+        }
+    }
+}
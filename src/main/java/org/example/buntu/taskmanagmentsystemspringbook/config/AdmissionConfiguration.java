@@ -0,0 +1,34 @@
+package org.example.buntu.taskmanagmentsystemspringbook.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.buntu.taskmanagmentsystemspringbook.admission.AdmissionControlFilter;
+import org.example.buntu.taskmanagmentsystemspringbook.admission.AdmissionProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Admission Configuration
+ * Puts AdmissionControlFilter in front of /tasks/* when tasks.admission.enabled=true
+ */
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "tasks.admission", name = "enabled", havingValue = "true")
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(AdmissionProperties properties,
+                                                                                 ObjectMapper objectMapper,
+                                                                                 MeterRegistry registry) {
+        FilterRegistrationBean<AdmissionControlFilter> registration =
+                new FilterRegistrationBean<>(new AdmissionControlFilter(properties, objectMapper, registry));
+        registration.addUrlPatterns("/tasks/*");
+        // After the observation filter, so rejected requests still count in http.server.requests
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.buntu.taskmanagmentsystemspringbook.config;
+
+import org.example.buntu.taskmanagmentsystemspringbook.analytics.TaskAnalytics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Analytics Configuration
+ * Task analytics keep tasks.analytics.buckets buckets of tasks.analytics.bucket-ms each;
+ * queries can look back over all of them and step by any multiple of one
+ */
+@Configuration
+public class AnalyticsConfiguration {
+
+    @Bean
+    public TaskAnalytics taskAnalytics(@Value("${tasks.analytics.bucket-ms:300000}") long bucketMs,
+                                       @Value("${tasks.analytics.buckets:300}") int buckets) {
+        return new TaskAnalytics(bucketMs, buckets);
+    }
+}
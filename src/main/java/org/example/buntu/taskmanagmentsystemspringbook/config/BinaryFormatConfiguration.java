@@ -0,0 +1,29 @@
+package org.example.buntu.taskmanagmentsystemspringbook.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.buntu.taskmanagmentsystemspringbook.controller.BodyFormat;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary Format Configuration
+ * Request and response bodies in CBOR (application/cbor) and Smile (application/x-jackson-smile),
+ * chosen by Content-Type and Accept; JSON stays the default. The converters use the application's
+ * ObjectMapper settings (ISO dates, Task serializer), so every format carries the same fields.
+ * Boot puts these beans in place of Spring MVC's default CBOR and Smile converters.
+ */
+@Configuration
+public class BinaryFormatConfiguration {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(BodyFormat.CBOR.mapper(objectMapper));
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(BodyFormat.SMILE.mapper(objectMapper));
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.buntu.taskmanagmentsystemspringbook.config;
+
+import org.example.buntu.taskmanagmentsystemspringbook.repository.ChangeFeed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Change Feed Configuration
+ * The feed keeps the last tasks.changes.capacity changes; clients further behind must resync
+ */
+@Configuration
+public class ChangeFeedConfiguration {
+
+    @Bean
+    public ChangeFeed changeFeed(@Value("${tasks.changes.capacity:10000}") int capacity) {
+        return new ChangeFeed(capacity);
+    }
+}
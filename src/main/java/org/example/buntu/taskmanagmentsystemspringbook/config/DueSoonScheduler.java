@@ -0,0 +1,80 @@
+package org.example.buntu.taskmanagmentsystemspringbook.config;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskDueSoonEvent;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskPage;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.TaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Publishes a TaskDueSoonEvent for every open task that becomes due within the window
+ * Each run walks only the head of the repository's due-date index, from now to now + window,
+ * so its cost follows the number of tasks due soon rather than the size of the store
+ * Eager even with lazy initialization: a bean that is never created is never scheduled
+ */
+@Component
+@Lazy(false)
+@ConditionalOnProperty(prefix = "tasks.due-soon", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class DueSoonScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(DueSoonScheduler.class);
+    private static final int PAGE_SIZE = 500;
+
+    private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Duration window;
+
+    // Task id -> due date already announced; only holds tasks inside the window.
+    // Runs never overlap (fixed delay), so a plain map is enough.
+    private final Map<Long, LocalDateTime> announced = new HashMap<>();
+
+    public DueSoonScheduler(TaskRepository taskRepository, ApplicationEventPublisher eventPublisher,
+                            @Value("${tasks.due-soon.window-ms:3600000}") long windowMs) {
+        this.taskRepository = taskRepository;
+        this.eventPublisher = eventPublisher;
+        this.window = Duration.ofMillis(windowMs);
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.due-soon.check-interval-ms:60000}")
+    public void publishDueSoon() {
+        publishDueSoon(LocalDateTime.now());
+    }
+
+    /**
+     * @return the number of events published
+     */
+    int publishDueSoon(LocalDateTime now) {
+        announced.values().removeIf(dueDate -> dueDate.isBefore(now));
+
+        int published = 0;
+        String cursor = null;
+        do {
+            TaskPage page = taskRepository.findOpenByDueDate(now, now.plus(window), cursor, PAGE_SIZE);
+            for (Task task : page.tasks()) {
+                LocalDateTime previous = announced.put(task.getId(), task.getDueDate());
+                if (!task.getDueDate().equals(previous)) {
+                    eventPublisher.publishEvent(new TaskDueSoonEvent(task, task.getDueDate()));
+                    published++;
+                }
+            }
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        if (published > 0) {
+            log.info("Published {} due-soon task events", published);
+        }
+        return published;
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.buntu.taskmanagmentsystemspringbook.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.MeteredTaskRepository;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * Metrics Configuration
+ * Everything injecting TaskRepository gets the metered decorator around the "taskStore" bean,
+ * the single or the sharded store; components that need the store itself (snapshots) still
+ * inject InMemoryTaskRepository
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    @Primary
+    // The store gauges are registered when this is created, so not on the first request
+    @Lazy(false)
+    public TaskRepository meteredTaskRepository(@Qualifier("taskStore") TaskRepository taskRepository,
+                                                MeterRegistry registry) {
+        return new MeteredTaskRepository(taskRepository, registry);
+    }
+}
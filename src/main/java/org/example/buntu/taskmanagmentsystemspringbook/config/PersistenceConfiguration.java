@@ -0,0 +1,37 @@
+package org.example.buntu.taskmanagmentsystemspringbook.config;
+
+import org.example.buntu.taskmanagmentsystemspringbook.persistence.PersistenceProperties;
+import org.example.buntu.taskmanagmentsystemspringbook.persistence.SnapshotStore;
+import org.example.buntu.taskmanagmentsystemspringbook.persistence.WriteAheadLog;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Persistence Configuration
+ * Creates the write-ahead log and snapshot store only when tasks.persistence.enabled=true;
+ * without them the repository stays purely in memory
+ */
+@Configuration
+@EnableConfigurationProperties(PersistenceProperties.class)
+public class PersistenceConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "tasks.persistence", name = "enabled", havingValue = "true")
+    public WriteAheadLog writeAheadLog(PersistenceProperties properties) throws IOException {
+        return new WriteAheadLog(Path.of(properties.getDirectory()),
+                properties.getDurability(),
+                properties.getSyncIntervalMs(),
+                properties.getSegmentSizeBytes());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "tasks.persistence", name = "enabled", havingValue = "true")
+    public SnapshotStore snapshotStore(PersistenceProperties properties) throws IOException {
+        return new SnapshotStore(Path.of(properties.getDirectory()));
+    }
+}
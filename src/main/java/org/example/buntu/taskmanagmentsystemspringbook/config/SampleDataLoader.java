@@ -0,0 +1,55 @@
+package org.example.buntu.taskmanagmentsystemspringbook.config;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.TaskRepository;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Sample Data Loader
+ * Seeds a few example tasks into an empty store when the sample-data profile is active.
+ * The profile is checked at startup instead of with @Profile: in AOT mode the set of
+ * beans is fixed at build time, but this still follows the profiles of each run.
+ */
+@Component
+public class SampleDataLoader implements ApplicationRunner {
+
+    public static final String PROFILE = "sample-data";
+
+    private final TaskRepository taskRepository;
+    private final Environment environment;
+
+    public SampleDataLoader(TaskRepository taskRepository, Environment environment) {
+        this.taskRepository = taskRepository;
+        this.environment = environment;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // A recovered store keeps its own data
+        if (environment.acceptsProfiles(Profiles.of(PROFILE)) && taskRepository.count() == 0) {
+            taskRepository.saveAll(sampleTasks());
+        }
+    }
+
+    static List<Task> sampleTasks() {
+        return List.of(
+                new Task("Setup Development Environment",
+                        "Install Java, Maven, and IDE",
+                        Task.TaskStatus.COMPLETED,
+                        Task.TaskPriority.HIGH),
+                new Task("Learn Spring Boot",
+                        "Complete Spring Boot tutorial",
+                        Task.TaskStatus.IN_PROGRESS,
+                        Task.TaskPriority.MEDIUM),
+                new Task("Build REST API",
+                        "Create task management REST endpoints",
+                        Task.TaskStatus.TODO,
+                        Task.TaskPriority.HIGH));
+    }
+}
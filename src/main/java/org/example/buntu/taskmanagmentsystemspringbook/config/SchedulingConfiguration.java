@@ -0,0 +1,12 @@
+package org.example.buntu.taskmanagmentsystemspringbook.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (snapshots, due-soon events, ...)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
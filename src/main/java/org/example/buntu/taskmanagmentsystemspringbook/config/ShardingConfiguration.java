@@ -0,0 +1,32 @@
+package org.example.buntu.taskmanagmentsystemspringbook.config;
+
+import org.example.buntu.taskmanagmentsystemspringbook.repository.ChangeFeed;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.ShardedTaskRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Sharding Configuration
+ * With tasks.shards > 1 the task store is split into that many in-memory shards whose scans
+ * run in parallel; about one shard per core. Sharding does not support the write-ahead log.
+ */
+@Configuration
+@ConditionalOnExpression("${tasks.shards:1} > 1")
+public class ShardingConfiguration {
+
+    @Bean
+    @Lazy(false)
+    @Qualifier("taskStore")
+    public ShardedTaskRepository shardedTaskRepository(@Value("${tasks.shards}") int shards,
+                                                       @Value("${tasks.persistence.enabled:false}") boolean persistence,
+                                                       ChangeFeed changeFeed) {
+        if (persistence) {
+            throw new IllegalStateException("tasks.shards > 1 cannot be combined with tasks.persistence.enabled=true");
+        }
+        return new ShardedTaskRepository(shards, changeFeed);
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.buntu.taskmanagmentsystemspringbook.config;
+
+import org.example.buntu.taskmanagmentsystemspringbook.repository.InMemoryTaskRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Periodically snapshots the task store in the background so startup only
+ * replays the log written since the last snapshot
+ * Eager even with lazy initialization, or its schedule would never be registered
+ */
+@Component
+@Lazy(false)
+@ConditionalOnProperty(prefix = "tasks.persistence", name = "enabled", havingValue = "true")
+public class SnapshotScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotScheduler.class);
+
+    private final InMemoryTaskRepository taskRepository;
+
+    public SnapshotScheduler(InMemoryTaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    @Scheduled(initialDelayString = "${tasks.persistence.snapshot-interval-ms:300000}",
+            fixedDelayString = "${tasks.persistence.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        try {
+            long start = System.nanoTime();
+            long mark = taskRepository.snapshot();
+            log.info("Task snapshot up to LSN {} written in {} ms", mark, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException ex) {
+            // The log still has everything; the next run tries again
+            log.error("Task snapshot failed", ex);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.buntu.taskmanagmentsystemspringbook.controller;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Encodings of response bodies: JSON, and the binary CBOR and Smile for service-to-service clients
+ * All three carry the same data model; the binary ones are smaller and cheaper to encode and decode
+ * Declaration order is the preference when the client accepts several equally, so JSON wins wildcards
+ */
+public enum BodyFormat {
+
+    JSON(MediaType.APPLICATION_JSON, "", JsonFactory::new),
+    CBOR(MediaType.APPLICATION_CBOR, "-cbor", CBORFactory::new),
+    SMILE(new MediaType("application", "x-jackson-smile"), "-smile", SmileFactory::new);
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    private final MediaType mediaType;
+    private final String eTagSuffix;
+    private final Supplier<JsonFactory> factory;
+
+    BodyFormat(MediaType mediaType, String eTagSuffix, Supplier<JsonFactory> factory) {
+        this.mediaType = mediaType;
+        this.eTagSuffix = eTagSuffix;
+        this.factory = factory;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Distinguishes the ETags of the representations of one resource; empty for JSON
+     */
+    String eTagSuffix() {
+        return eTagSuffix;
+    }
+
+    /**
+     * A mapper with the modules and settings of objectMapper that writes and reads this format
+     */
+    public ObjectMapper mapper(ObjectMapper objectMapper) {
+        return this == JSON ? objectMapper : objectMapper.copyWith(factory.get());
+    }
+
+    /**
+     * One mapper per format, all derived from objectMapper
+     */
+    static Map<BodyFormat, ObjectMapper> mappers(ObjectMapper objectMapper) {
+        Map<BodyFormat, ObjectMapper> mappers = new EnumMap<>(BodyFormat.class);
+        for (BodyFormat format : values()) {
+            mappers.put(format, format.mapper(objectMapper));
+        }
+        return mappers;
+    }
+
+    /**
+     * The format an Accept header prefers: highest quality first, then declaration order
+     * Missing, unparseable or unsatisfiable headers get JSON, as before binary formats existed
+     */
+    static BodyFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        BodyFormat best = JSON;
+        double bestQuality = 0;
+        try {
+            for (MediaType requested : MediaType.parseMediaTypes(accept)) {
+                double quality = requested.getQualityValue();
+                if (quality <= bestQuality) {
+                    continue;
+                }
+                for (BodyFormat format : values()) {
+                    if (requested.includes(format.mediaType)) {
+                        best = format;
+                        bestQuality = quality;
+                        break;
+                    }
+                }
+            }
+        } catch (InvalidMediaTypeException ex) {
+            return JSON;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.buntu.taskmanagmentsystemspringbook.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serialized response bodies keyed by request, each valid for one modification sequence
+ * A lookup with a newer sequence misses and renders again, so nothing has to be evicted
+ * on writes. Bounded by entry count and total bytes: past either, the least recently used
+ * entries go until an eighth of the room is free again, so hot bodies such as /stats stay.
+ */
+class ResponseCache {
+
+    private static final class Entry {
+        final long sequence;
+        final byte[] body;
+        volatile long lastUsed;
+
+        Entry(long sequence, byte[] body, long lastUsed) {
+            this.sequence = sequence;
+            this.body = body;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong bytes = new AtomicLong();
+    private final ReentrantLock evicting = new ReentrantLock();
+    private final int maxEntries;
+    private final long maxBytes;
+    private final Counter hits;
+    private final Counter misses;
+
+    ResponseCache(int maxEntries, long maxBytes, MeterRegistry registry) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.hits = Counter.builder("tasks.response.cache").tag("result", "hit")
+                .description("List and stats responses served from pre-serialized bytes")
+                .register(registry);
+        this.misses = Counter.builder("tasks.response.cache").tag("result", "miss")
+                .description("List and stats responses served from pre-serialized bytes")
+                .register(registry);
+    }
+
+    /**
+     * Returns the body cached for key at this sequence, rendering and caching it on a miss
+     * The caller must read the sequence before rendering: the body is then at least as new
+     * as the sequence it is stored under
+     */
+    byte[] get(String key, long sequence, Supplier<byte[]> render) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.sequence == sequence) {
+            entry.lastUsed = System.nanoTime();
+            hits.increment();
+            return entry.body;
+        }
+        misses.increment();
+        byte[] body = render.get();
+        if (body.length > maxBytes / 8) {
+            // Would push out a good part of the cache for one request
+            return body;
+        }
+        Entry rendered = new Entry(sequence, body, System.nanoTime());
+        entries.compute(key, (k, cached) -> {
+            // A slow render of an older sequence must not replace a newer entry
+            if (cached != null && cached.sequence > sequence) {
+                return cached;
+            }
+            bytes.addAndGet(body.length - (cached == null ? 0 : cached.body.length));
+            return rendered;
+        });
+        if (entries.size() > maxEntries || bytes.get() > maxBytes) {
+            evict();
+        }
+        return body;
+    }
+
+    private void evict() {
+        // One sweep at a time; requests meanwhile overshoot the bounds by a little
+        if (!evicting.tryLock()) {
+            return;
+        }
+        try {
+            // Last use copied first: entries keep being read while this sorts
+            List<Map.Entry<String, Long>> byLastUse = new ArrayList<>(entries.size());
+            entries.forEach((key, entry) -> byLastUse.add(Map.entry(key, entry.lastUsed)));
+            byLastUse.sort(Map.Entry.comparingByValue());
+            int targetEntries = maxEntries - Math.max(1, maxEntries / 8);
+            long targetBytes = maxBytes - maxBytes / 8;
+            for (Map.Entry<String, Long> oldest : byLastUse) {
+                if (entries.size() <= targetEntries && bytes.get() <= targetBytes) {
+                    break;
+                }
+                entries.computeIfPresent(oldest.getKey(), (key, entry) -> {
+                    bytes.addAndGet(-entry.body.length);
+                    return null;
+                });
+            }
+        } finally {
+            evicting.unlock();
+        }
+    }
+}
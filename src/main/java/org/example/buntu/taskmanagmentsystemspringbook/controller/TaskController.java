@@ -1,19 +1,63 @@
 package org.example.buntu.taskmanagmentsystemspringbook.controller;
+import org.example.buntu.taskmanagmentsystemspringbook.model.AnalyticsResponse;
+import org.example.buntu.taskmanagmentsystemspringbook.model.BatchResponse;
+import org.example.buntu.taskmanagmentsystemspringbook.model.ChangesResponse;
+import org.example.buntu.taskmanagmentsystemspringbook.model.ErrorResponse;
+import org.example.buntu.taskmanagmentsystemspringbook.model.MessageResponse;
+import org.example.buntu.taskmanagmentsystemspringbook.model.PageResponse;
+import org.example.buntu.taskmanagmentsystemspringbook.model.QueryResult;
+import org.example.buntu.taskmanagmentsystemspringbook.model.StatsResponse;
 import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskChange;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskFields;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskResponse;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskPatch;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskQuery;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskSort;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.VersionConflictException;
+import org.example.buntu.taskmanagmentsystemspringbook.service.AsyncTaskService;
+import org.example.buntu.taskmanagmentsystemspringbook.service.TaskChangeService;
 import org.example.buntu.taskmanagmentsystemspringbook.service.TaskService;
 import org.example.buntu.taskmanagmentsystemspringbook.service.TaskServiceImpl;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
-import java.util.HashMap;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * REST Controller for Task Management
  * Handles HTTP requests and responses
+ * Response bodies are typed records (see the *Response models), not per-request maps
+ * Bodies are JSON unless the client asks for CBOR or Smile (see BodyFormat) via Accept or Content-Type
+ * Listings take ?fields=id,title,status to return only those fields of each task (see TaskFields)
  * @RestController combines @Controller and @ResponseBody
  */
 @RestController
@@ -21,135 +65,526 @@ import java.util.Map;
 @CrossOrigin(origins = "*") // Allow CORS for frontend integration
 public class TaskController {
 
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    static final int EXPORT_FLUSH_EVERY = 500;
+    static final int RESPONSE_CACHE_ENTRIES = 256;
+    // Gzipped copies count too; about a hundred full first pages fit
+    static final long RESPONSE_CACHE_BYTES = 32L * 1024 * 1024;
+    // Same threshold as server.compression.min-response-size, which covers the other responses
+    static final int GZIP_MIN_BYTES = 2048;
+    static final int MAX_LONG_POLL_SECONDS = 55;
+    // EventSource clients reconnect on their own, resuming from Last-Event-ID
+    static final long SSE_TIMEOUT_MS = 300_000;
+
     private final TaskService taskService;
+    private final AsyncTaskService asyncTaskService;
+    private final TaskChangeService taskChangeService;
+    private final ObjectMapper objectMapper;
+    private final Map<BodyFormat, ObjectMapper> mappers;
+    private final MeterRegistry meterRegistry;
+    private final ResponseCache responseCache;
+    // Sequences restart with the process; the prefix keeps ETags from an earlier run from matching
+    private final String eTagPrefix = Long.toString(System.currentTimeMillis(), 36);
 
     /**
      * Constructor-based Dependency Injection
      */
     @Autowired
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, AsyncTaskService asyncTaskService,
+                          TaskChangeService taskChangeService, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
         this.taskService = taskService;
+        this.asyncTaskService = asyncTaskService;
+        this.taskChangeService = taskChangeService;
+        this.objectMapper = objectMapper;
+        this.mappers = BodyFormat.mappers(objectMapper);
+        this.meterRegistry = meterRegistry;
+        this.responseCache = new ResponseCache(RESPONSE_CACHE_ENTRIES, RESPONSE_CACHE_BYTES, meterRegistry);
     }
 
     /**
-     * GET /api/tasks - Get all tasks
+     * GET /api/tasks/all - Get tasks one page at a time
+     * ?limit=50&sort=id|createdAt|dueDate|priority&after={nextCursor of the previous page}&fields=id,title
+     * Revalidate with If-None-Match: 304 until any task changes
+     * Only first pages are cached: a crawl through cursors would push out everything else
      */
     @GetMapping("/all")
-    public ResponseEntity<Map<String, Object>> getAllTasks() {
-        List<Task> tasks = taskService.getAllTasks();
-        Map<String, Object> response = new HashMap<>();
-        response.put("tasks", tasks);
-        response.put("count", tasks.size());
-        response.put("status", "success");
+    public ResponseEntity<byte[]> getAllTasks(
+            @RequestParam(defaultValue = "" + TaskServiceImpl.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields,
+            @RequestHeader HttpHeaders headers) {
+        TaskSort taskSort = TaskSort.fromParam(sort);
+        int pageSize = TaskServiceImpl.pageSize(limit);
+        return cachedBody(after == null ? "all:" + taskSort + ":" + pageSize : null,
+                taskService.getModificationSequence(), headers, TaskFields.parse(fields),
+                () -> PageResponse.of(taskService.getTaskPage(taskSort, after, pageSize)));
+    }
+
+    /**
+     * GET /api/tasks/search?q=deploy%20data - Ranked keyword search over title and description
+     * Terms are ANDed and match whole words or word prefixes; pages continue with ?after=nextCursor
+     */
+    @GetMapping("/search")
+    public ResponseEntity<MappingJacksonValue> searchTasks(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "" + TaskServiceImpl.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields) {
+        TaskFields projection = TaskFields.parse(fields);
+        return ResponseEntity.ok(projected(PageResponse.of(taskService.searchTasks(q, after, limit)), projection));
+    }
 
-        return ResponseEntity.ok(response);
+    /**
+     * GET /api/tasks/due?from=2025-01-06T00:00:00&to=2025-01-13T00:00:00 - Tasks due in [from, to), earliest first
+     * Either bound may be omitted; tasks without a due date are not listed
+     */
+    @GetMapping("/due")
+    public ResponseEntity<PageResponse> getTasksDue(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "" + TaskServiceImpl.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String after) {
+        return ResponseEntity.ok(PageResponse.of(taskService.getTasksDueBetween(from, to, after, limit)));
+    }
+
+    /**
+     * GET /api/tasks/overdue - Open tasks whose due date has passed, most overdue first
+     */
+    @GetMapping("/overdue")
+    public ResponseEntity<PageResponse> getOverdueTasks(
+            @RequestParam(defaultValue = "" + TaskServiceImpl.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String after) {
+        return ResponseEntity.ok(PageResponse.of(taskService.getOverdueTasks(after, limit)));
+    }
+
+    /**
+     * GET /api/tasks/query?status=IN_PROGRESS&priority=HIGH,URGENT&dueTo=2025-01-10T00:00:00 - Composite query
+     * All given criteria must hold; status and priority take several values, date ranges are [from, to)
+     * Results are ordered by id; explain=true adds the plan the repository chose
+     */
+    @GetMapping("/query")
+    public ResponseEntity<MappingJacksonValue> queryTasks(
+            @RequestParam(required = false) List<Task.TaskStatus> status,
+            @RequestParam(required = false) List<Task.TaskPriority> priority,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(defaultValue = "" + TaskServiceImpl.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "false") boolean explain,
+            @RequestParam(required = false) String fields) {
+        TaskFields projection = TaskFields.parse(fields);
+        TaskQuery query = new TaskQuery(status == null ? null : new HashSet<>(status),
+                priority == null ? null : new HashSet<>(priority),
+                dueFrom, dueTo, createdFrom, createdTo);
+        QueryResult result = taskService.queryTasks(query, after, limit);
+        return ResponseEntity.ok(projected(PageResponse.of(result.page(), explain ? result.plan() : null), projection));
     }
 
     /**
      * GET /api/tasks/{id} - Get task by ID
+     * The ETag is the task version; send it back as If-Match to update conditionally
      */
     @GetMapping("/{id}")
     public ResponseEntity<Task> getTaskById(@PathVariable Long id) {
         Task task = taskService.getTaskById(id);
-        return ResponseEntity.ok(task);
+        return ResponseEntity.ok().eTag(eTag(task)).body(task);
     }
 
     /**
      * POST /api/tasks - Create new task
      */
     @PostMapping("/create")
-    public ResponseEntity<Map<String, Object>> createTask(@Valid @RequestBody Task task) {
+    public ResponseEntity<TaskResponse> createTask(@Valid @RequestBody Task task) {
         Task createdTask = taskService.createTask(task);
-        Map<String, Object> response = new HashMap<>();
-        response.put("task", createdTask);
-        response.put("message", "Task created successfully");
-        response.put("status", "success");
-
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return ResponseEntity.status(HttpStatus.CREATED).body(TaskResponse.created(createdTask));
     }
 
     /**
      * PUT /api/tasks/{id} - Update existing task
+     * With If-Match: "{version}" the update only applies if nobody changed the task since; 412 otherwise
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> updateTask(
+    public ResponseEntity<TaskResponse> updateTask(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody Task task) {
-        Task updatedTask = taskService.updateTask(id, task);
-        Map<String, Object> response = new HashMap<>();
-        response.put("task", updatedTask);
-        response.put("message", "Task updated successfully");
-        response.put("status", "success");
+        Task updatedTask = taskService.updateTask(id, task, expectedVersion(ifMatch));
+        return updatedResponse(updatedTask);
+    }
+
+    /**
+     * PATCH /api/tasks/{id} - Change only the fields present in the body
+     * Honours If-Match like PUT
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<TaskResponse> patchTask(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody TaskPatch patch) {
+        Task updatedTask = taskService.patchTask(id, patch, expectedVersion(ifMatch));
+        return updatedResponse(updatedTask);
+    }
 
-        return ResponseEntity.ok(response);
+    private ResponseEntity<TaskResponse> updatedResponse(Task updatedTask) {
+        return ResponseEntity.ok().eTag(eTag(updatedTask)).body(TaskResponse.updated(updatedTask));
+    }
+
+    private static String eTag(Task task) {
+        return "\"" + task.getVersion() + "\"";
+    }
+
+    /**
+     * @return the version named by an If-Match header, null when absent or "*"
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        // Only strong, single tags are issued, so weak tags and lists are rejected
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ignored) {
+                // Reported below
+            }
+        }
+        throw new IllegalArgumentException("If-Match must be a task ETag such as \"3\"");
     }
 
     /**
      * DELETE /api/tasks/{id} - Delete task
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> deleteTask(@PathVariable Long id) {
+    public ResponseEntity<MessageResponse> deleteTask(@PathVariable Long id) {
         taskService.deleteTask(id);
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "Task deleted successfully");
-        response.put("status", "success");
+        return ResponseEntity.ok(MessageResponse.DELETED);
+    }
 
-        return ResponseEntity.ok(response);
+    /**
+     * POST /api/tasks/batch - Create many tasks in one call
+     * Every item is validated; the response carries one result per item
+     * Batches are the longest writes, so they run asynchronously and release
+     * the request thread while the write-ahead log is appended and synced
+     */
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<BatchResponse>> createTasks(@RequestBody List<Task> tasks) {
+        return asyncTaskService.createTasks(tasks).thenApply(results -> ResponseEntity.ok(BatchResponse.of(results)));
+    }
+
+    /**
+     * PUT /api/tasks/batch - Update many tasks (each item must carry its id)
+     */
+    @PutMapping("/batch")
+    public CompletableFuture<ResponseEntity<BatchResponse>> updateTasks(@RequestBody List<Task> tasks) {
+        return asyncTaskService.updateTasks(tasks).thenApply(results -> ResponseEntity.ok(BatchResponse.of(results)));
+    }
+
+    /**
+     * DELETE /api/tasks/batch - Delete many tasks by id
+     */
+    @DeleteMapping("/batch")
+    public CompletableFuture<ResponseEntity<BatchResponse>> deleteTasks(@RequestBody List<Long> ids) {
+        return asyncTaskService.deleteTasks(ids).thenApply(results -> ResponseEntity.ok(BatchResponse.of(results)));
     }
 
     /**
      * GET /api/tasks/status/{status} - Get tasks by status
+     * Revalidate with If-None-Match: 304 until a task enters, leaves or changes in this status
      */
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Task>> getTasksByStatus(@PathVariable Task.TaskStatus status) {
-        List<Task> tasks = taskService.getTasksByStatus(status);
-        return ResponseEntity.ok(tasks);
+    public ResponseEntity<byte[]> getTasksByStatus(
+            @PathVariable Task.TaskStatus status,
+            @RequestParam(required = false) String fields,
+            @RequestHeader HttpHeaders headers) {
+        return cachedBody("status:" + status, taskService.getModificationSequenceByStatus(status), headers,
+                TaskFields.parse(fields), () -> taskService.getTasksByStatus(status));
     }
 
     /**
      * GET /api/tasks/priority/{priority} - Get tasks by priority
      */
     @GetMapping("/priority/{priority}")
-    public ResponseEntity<List<Task>> getTasksByPriority(@PathVariable Task.TaskPriority priority) {
+    public ResponseEntity<MappingJacksonValue> getTasksByPriority(
+            @PathVariable Task.TaskPriority priority,
+            @RequestParam(required = false) String fields) {
+        TaskFields projection = TaskFields.parse(fields);
         List<Task> tasks = taskService.getTasksByPriority(priority);
-        return ResponseEntity.ok(tasks);
+        return ResponseEntity.ok(projected(tasks, projection));
+    }
+
+    /**
+     * Wraps a body for the message converters, which pass the projection to the Task serializer
+     */
+    private static MappingJacksonValue projected(Object body, TaskFields projection) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(projection);
+        return value;
+    }
+
+    /**
+     * GET /api/tasks/changes?since=42 - Creates, updates and deletes after a sequence, long-polled
+     * Answers as soon as there is a change, or with an empty list after timeout seconds;
+     * continue with since=lastSequence. Without since, waits for the next change.
+     * resync=true means the changes are no longer buffered: reload /all, then continue from lastSequence
+     */
+    @GetMapping(value = "/changes", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BodyFormat.SMILE_VALUE})
+    public CompletableFuture<ResponseEntity<ChangesResponse>> getChanges(
+            @RequestParam(required = false) Long since,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(defaultValue = "25") int timeout) {
+        long from = since == null ? taskChangeService.getLastSequence() : since;
+        Duration wait = Duration.ofSeconds(Math.max(0, Math.min(timeout, MAX_LONG_POLL_SECONDS)));
+        return taskChangeService.awaitChanges(from, limit, wait)
+                .thenApply(batch -> ResponseEntity.ok(ChangesResponse.of(batch)));
+    }
+
+    /**
+     * GET /api/tasks/changes with Accept: text/event-stream - The same changes as Server-Sent Events
+     * Each change is a "change" event whose id is its sequence, so a reconnecting EventSource
+     * resumes where it stopped; a "resync" event means reload /all and keep listening
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        long from = since != null ? since : lastEventId != null ? lastEventId : taskChangeService.getLastSequence();
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+        TaskChangeService.Subscription subscription = taskChangeService.subscribe(from, batch -> {
+            if (batch.resync()) {
+                emitter.send(SseEmitter.event().name("resync").id(Long.toString(batch.lastSequence()))
+                        .data(Map.of("lastSequence", batch.lastSequence())));
+            }
+            for (TaskChange change : batch.changes()) {
+                emitter.send(SseEmitter.event().name("change").id(Long.toString(change.sequence())).data(change));
+            }
+        });
+        emitter.onCompletion(subscription::cancel);
+        // Completing here ends the stream normally instead of raising an async timeout
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscription.cancel());
+        return emitter;
+    }
+
+    /**
+     * GET /api/tasks/export - Stream tasks as newline-delimited JSON
+     * Optional ?status= and ?priority= filters; tasks are written straight from
+     * repository iteration and flushed in chunks, never collected into a list
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @RequestParam(required = false) Task.TaskStatus status,
+            @RequestParam(required = false) Task.TaskPriority priority) {
+        // Flushing is done per chunk below, not after every task
+        ObjectWriter writer = objectMapper.writerFor(Task.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+                 Stream<Task> tasks = taskService.streamTasks(status, priority)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+
+                int written = 0;
+                Iterator<Task> iterator = tasks.iterator();
+                while (iterator.hasNext()) {
+                    writer.writeValue(generator, iterator.next());
+                    generator.writeRaw('\n');
+                    if (++written % EXPORT_FLUSH_EVERY == 0) {
+                        generator.flush();
+                    }
+                }
+                generator.flush();
+            }
+        };
+
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
     }
 
     /**
      * GET /api/tasks/stats - Get task statistics
+     * Counts come from counters maintained by the repository, no task lists are built
+     * Revalidate with If-None-Match: 304 until any task changes
      */
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Object>> getTaskStats() {
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("totalTasks", taskService.getTaskCount());
-        stats.put("todoTasks", taskService.getTasksByStatus(Task.TaskStatus.TODO).size());
-        stats.put("inProgressTasks", taskService.getTasksByStatus(Task.TaskStatus.IN_PROGRESS).size());
-        stats.put("completedTasks", taskService.getTasksByStatus(Task.TaskStatus.COMPLETED).size());
+    public ResponseEntity<byte[]> getTaskStats(
+            @RequestHeader HttpHeaders headers) {
+        return cachedBody("stats", taskService.getModificationSequence(), headers, null, this::statsBody);
+    }
+
+    private StatsResponse statsBody() {
+        return new StatsResponse(taskService.getTaskCount(),
+                taskService.getTaskCountByStatus(Task.TaskStatus.TODO),
+                taskService.getTaskCountByStatus(Task.TaskStatus.IN_PROGRESS),
+                taskService.getTaskCountByStatus(Task.TaskStatus.COMPLETED),
+                taskService.getTaskCountByStatus(Task.TaskStatus.CANCELLED),
+                taskService.getTaskCountByPriority(Task.TaskPriority.LOW),
+                taskService.getTaskCountByPriority(Task.TaskPriority.MEDIUM),
+                taskService.getTaskCountByPriority(Task.TaskPriority.HIGH),
+                taskService.getTaskCountByPriority(Task.TaskPriority.URGENT));
+    }
 
-        return ResponseEntity.ok(stats);
+    /**
+     * GET /api/tasks/analytics - Get task throughput and time in status
+     * Tasks created and completed per step over the last window, ISO-8601 durations such as
+     * window=PT24H and step=PT1H; read from buckets kept up to date on every write, so the
+     * cost does not grow with the number of tasks
+     */
+    @GetMapping("/analytics")
+    public ResponseEntity<AnalyticsResponse> getTaskAnalytics(
+            @RequestParam(defaultValue = "PT24H") Duration window,
+            @RequestParam(defaultValue = "PT1H") Duration step) {
+        return ResponseEntity.ok(taskService.getAnalytics(window, step));
     }
 
     /**
-     * Global Exception Handler for this controller
+     * Conditional response for a listing that only changes when sequence does
+     * The strong ETag is derived from the sequence, so a matching If-None-Match is answered
+     * with 304 before anything is read; otherwise the body is served from the response
+     * cache and only rendered when the sequence moved since it was last cached.
+     * Each format the Accept header can select, and each projection, has its own cache entry and ETag.
+     * Clients accepting gzip get bodies of GZIP_MIN_BYTES or more gzipped from the cache as well:
+     * the server's own compression skips responses with a strong ETag, and would repeat the work per request.
+     * A null key still answers If-None-Match but renders every other request, bypassing the cache.
      */
+    private ResponseEntity<byte[]> cachedBody(String key, long sequence, HttpHeaders headers,
+                                              TaskFields projection, Supplier<Object> body) {
+        BodyFormat format = BodyFormat.negotiate(headerValue(headers, HttpHeaders.ACCEPT));
+        boolean gzip = acceptsGzip(headerValue(headers, HttpHeaders.ACCEPT_ENCODING));
+        String representation = format.eTagSuffix() + (projection == null ? "" : "-f" + projection.key());
+        String eTag = "\"" + eTagPrefix + "-" + sequence + representation + (gzip ? "-gzip" : "") + "\"";
+        if (noneMatchFails(headerValue(headers, HttpHeaders.IF_NONE_MATCH), eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        String cacheKey = key == null ? null : key + ":" + format + representation;
+        byte[] bytes = cached(cacheKey, sequence, () -> encode(format, projection, body.get()));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(format.mediaType());
+        if (gzip && bytes.length >= GZIP_MIN_BYTES) {
+            byte[] plain = bytes;
+            bytes = cached(cacheKey == null ? null : cacheKey + ":gzip", sequence, () -> gzip(plain));
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(bytes);
+    }
+
+    private byte[] cached(String cacheKey, long sequence, Supplier<byte[]> render) {
+        return cacheKey == null ? render.get() : responseCache.get(cacheKey, sequence, render);
+    }
+
+    /**
+     * All values of a request header joined with commas, or null when it is absent
+     */
+    private static String headerValue(HttpHeaders headers, String name) {
+        List<String> values = headers.get(name);
+        return values == null || values.isEmpty() ? null : String.join(",", values);
+    }
+
+    /**
+     * True when an Accept-Encoding header allows gzip: listed (or *) without q=0
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] parts = candidate.split(";");
+            String coding = parts[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim().replace(" ", "");
+                if (parameter.startsWith("q=") && parameter.substring(2).matches("0(\\.0*)?")) {
+                    refused = true;
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * True when an If-None-Match header lists eTag (or is *), i.e. the client's copy is current
+     * If-None-Match uses the weak comparison, so W/ prefixes are ignored
+     */
+    static boolean noneMatchFails(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private byte[] encode(BodyFormat format, TaskFields projection, Object body) {
+        try {
+            return mappers.get(format).writer(projection).writeValueAsBytes(body);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Counts handled exceptions as tasks.errors, tagged with the exception type;
+     * http.server.requests only sees the resulting status code
+     */
+    private void countError(Exception ex) {
+        meterRegistry.counter("tasks.errors", "exception", ex.getClass().getSimpleName()).increment();
+    }
+
     @ExceptionHandler(TaskServiceImpl.TaskNotFoundException.class)
-    public ResponseEntity<Map<String, Object>> handleTaskNotFound(TaskServiceImpl.TaskNotFoundException ex) {
-        Map<String, Object> error = new HashMap<>();
-        error.put("error", ex.getMessage());
-        error.put("status", "error");
-        error.put("code", 404);
+    public ResponseEntity<ErrorResponse> handleTaskNotFound(TaskServiceImpl.TaskNotFoundException ex) {
+        countError(ex);
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ErrorResponse.of(404, ex.getMessage()));
+    }
+
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<ErrorResponse> handleVersionConflict(VersionConflictException ex) {
+        countError(ex);
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .eTag("\"" + ex.getCurrentVersion() + "\"")
+                .body(ErrorResponse.conflict(ex.getMessage(), ex.getCurrentVersion()));
+    }
 
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    // Type mismatches are unparsable path or query values, e.g. a malformed date
+    @ExceptionHandler({IllegalArgumentException.class, MethodArgumentTypeMismatchException.class})
+    public ResponseEntity<ErrorResponse> handleBadRequest(RuntimeException ex) {
+        countError(ex);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ErrorResponse.of(400, ex.getMessage()));
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<Map<String, Object>> handleGenericException(Exception ex) {
-        Map<String, Object> error = new HashMap<>();
-        error.put("error", "Internal server error");
-        error.put("message", ex.getMessage());
-        error.put("status", "error");
-        error.put("code", 500);
-
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+    public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
+        countError(ex);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ErrorResponse.internal(ex.getMessage()));
     }
 }
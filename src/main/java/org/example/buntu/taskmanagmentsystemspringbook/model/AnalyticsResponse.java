@@ -0,0 +1,32 @@
+package org.example.buntu.taskmanagmentsystemspringbook.model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response body of /tasks/analytics: throughput and time in status over [from, to)
+ * The counts are status changes made in the window; series splits created and completed into
+ * steps, and timeInStatus covers tasks that left TODO or IN_PROGRESS in the window
+ */
+public record AnalyticsResponse(LocalDateTime from, LocalDateTime to, Duration step,
+                                long created, long started, long completed, long cancelled,
+                                List<Point> series,
+                                Map<Task.TaskStatus, DurationSummary> timeInStatus,
+                                DurationSummary leadTime) {
+
+    /**
+     * Tasks created and completed in [start, start + step)
+     */
+    public record Point(LocalDateTime start, long created, long completed) {
+    }
+
+    /**
+     * Durations in seconds; percentiles are the upper bound of their histogram bin,
+     * at most 19% above the exact value
+     */
+    public record DurationSummary(long count, double meanSeconds,
+                                  double p50Seconds, double p90Seconds, double p99Seconds) {
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.buntu.taskmanagmentsystemspringbook.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of a single item in a batch create/update/delete request
+ * index refers to the position of the item in the request body
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchItemResult(int index, Long id, String status, String error, Task task) {
+
+    public static BatchItemResult success(int index, Task task) {
+        return new BatchItemResult(index, task.getId(), "success", null, task);
+    }
+
+    public static BatchItemResult deleted(int index, Long id) {
+        return new BatchItemResult(index, id, "success", null, null);
+    }
+
+    public static BatchItemResult failure(int index, Long id, String error) {
+        return new BatchItemResult(index, id, "error", error, null);
+    }
+
+    @JsonIgnore
+    public boolean isSuccess() {
+        return "success".equals(status);
+    }
+}
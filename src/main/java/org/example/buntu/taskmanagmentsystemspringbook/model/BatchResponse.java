@@ -0,0 +1,22 @@
+package org.example.buntu.taskmanagmentsystemspringbook.model;
+
+import java.util.List;
+
+/**
+ * Response body of a batch create/update/delete: one result per item plus totals
+ * status is "success" when every item succeeded, "error" when none did, "partial" otherwise
+ */
+public record BatchResponse(List<BatchItemResult> results, long succeeded, long failed, String status) {
+
+    public static BatchResponse of(List<BatchItemResult> results) {
+        long succeeded = 0;
+        for (BatchItemResult result : results) {
+            if (result.isSuccess()) {
+                succeeded++;
+            }
+        }
+        long failed = results.size() - succeeded;
+        String status = failed == 0 ? MessageResponse.SUCCESS : succeeded == 0 ? MessageResponse.ERROR : "partial";
+        return new BatchResponse(results, succeeded, failed, status);
+    }
+}
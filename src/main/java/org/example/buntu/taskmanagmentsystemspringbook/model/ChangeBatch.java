@@ -0,0 +1,11 @@
+package org.example.buntu.taskmanagmentsystemspringbook.model;
+
+import java.util.List;
+
+/**
+ * Changes after a given sequence, in order
+ * lastSequence is where the next read should continue from. When resync is true the
+ * changes asked for are no longer buffered: reload the full list, then continue from lastSequence
+ */
+public record ChangeBatch(List<TaskChange> changes, long lastSequence, boolean resync) {
+}
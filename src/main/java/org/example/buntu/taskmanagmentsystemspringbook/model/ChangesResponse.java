@@ -0,0 +1,15 @@
+package org.example.buntu.taskmanagmentsystemspringbook.model;
+
+import java.util.List;
+
+/**
+ * Response body of a /tasks/changes long poll, see ChangeBatch
+ */
+public record ChangesResponse(List<TaskChange> changes, int count, long lastSequence, boolean resync,
+                              String status) {
+
+    public static ChangesResponse of(ChangeBatch batch) {
+        return new ChangesResponse(batch.changes(), batch.changes().size(), batch.lastSequence(), batch.resync(),
+                MessageResponse.SUCCESS);
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.buntu.taskmanagmentsystemspringbook.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Response body of every handled error; code repeats the HTTP status
+ * message carries the cause of an internal error, currentVersion the version of a task
+ * whose If-Match check failed
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ErrorResponse(String error, String message, String status, int code, Long currentVersion) {
+
+    public static ErrorResponse of(int code, String error) {
+        return new ErrorResponse(error, null, MessageResponse.ERROR, code, null);
+    }
+
+    public static ErrorResponse internal(String message) {
+        return new ErrorResponse("Internal server error", message, MessageResponse.ERROR, 500, null);
+    }
+
+    public static ErrorResponse conflict(String error, long currentVersion) {
+        return new ErrorResponse(error, null, MessageResponse.ERROR, 412, currentVersion);
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.buntu.taskmanagmentsystemspringbook.model;
+
+/**
+ * Response body that only confirms an operation; the fixed ones are shared instances
+ */
+public record MessageResponse(String message, String status) {
+
+    public static final String SUCCESS = "success";
+    public static final String ERROR = "error";
+
+    public static final MessageResponse DELETED = new MessageResponse("Task deleted successfully", SUCCESS);
+}
@@ -0,0 +1,21 @@
+package org.example.buntu.taskmanagmentsystemspringbook.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Response body of the paged listings; nextCursor is null on the last page
+ * plan is only present when a composite query was asked to explain itself
+ */
+public record PageResponse(List<Task> tasks, int count, String nextCursor,
+                           @JsonInclude(JsonInclude.Include.NON_NULL) QueryPlan plan, String status) {
+
+    public static PageResponse of(TaskPage page) {
+        return of(page, null);
+    }
+
+    public static PageResponse of(TaskPage page, QueryPlan plan) {
+        return new PageResponse(page.tasks(), page.tasks().size(), page.nextCursor(), plan, MessageResponse.SUCCESS);
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.buntu.taskmanagmentsystemspringbook.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * How a composite query was executed, returned by /tasks/query?explain=true
+ * access: the index that produced the candidates, or "parallelScan" when none applied
+ * estimates: candidate rows per applicable index; range estimates stop counting once
+ * they exceed the best estimate so far, so they are lower bounds
+ * filters: criteria checked on each candidate after it was fetched
+ */
+public record QueryPlan(String access, long estimatedRows, Map<String, Long> estimates,
+                        List<String> filters, long examinedRows) {
+}
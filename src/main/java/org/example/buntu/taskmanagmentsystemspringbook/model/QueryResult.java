@@ -0,0 +1,7 @@
+package org.example.buntu.taskmanagmentsystemspringbook.model;
+
+/**
+ * One page of composite query results, ordered by id, with the plan that produced it
+ */
+public record QueryResult(TaskPage page, QueryPlan plan) {
+}
@@ -0,0 +1,10 @@
+package org.example.buntu.taskmanagmentsystemspringbook.model;
+
+/**
+ * Response body of /tasks/stats: task counts in total, per status and per priority
+ */
+public record StatsResponse(long totalTasks,
+                            long todoTasks, long inProgressTasks, long completedTasks, long cancelledTasks,
+                            long lowPriorityTasks, long mediumPriorityTasks, long highPriorityTasks,
+                            long urgentPriorityTasks) {
+}
@@ -2,6 +2,7 @@ package org.example.buntu.taskmanagmentsystemspringbook.model;
 
 // Task.java
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.Setter;
@@ -11,7 +12,9 @@ import java.time.LocalDateTime;
 /**
  * Task Entity Model
  * Represents a task in the task management system
+ * Written to JSON by TaskJsonSerializer, read back by the default bean deserializer
  */
+@JsonSerialize(using = TaskJsonSerializer.class)
 public class Task {
     @Setter
     private Long id;
@@ -37,6 +40,10 @@ public class Task {
     @Setter
     private LocalDateTime dueDate;
 
+    // Assigned by the repository: 1 on create, +1 on every update; exposed as the ETag
+    @Setter
+    private Long version;
+
     // Constructors
     public Task() {
         this.createdAt = LocalDateTime.now();
@@ -53,6 +60,22 @@ public class Task {
         this.priority = priority;
     }
 
+    /**
+     * Every field as given, without reading the clock; for tasks rebuilt from storage
+     */
+    public Task(Long id, String title, String description, TaskStatus status, TaskPriority priority,
+                LocalDateTime createdAt, LocalDateTime updatedAt, LocalDateTime dueDate, Long version) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.priority = priority;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.dueDate = dueDate;
+        this.version = version;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
 
@@ -83,6 +106,10 @@ public class Task {
 
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     // Enums
     public enum TaskStatus {
         TODO, IN_PROGRESS, COMPLETED, CANCELLED
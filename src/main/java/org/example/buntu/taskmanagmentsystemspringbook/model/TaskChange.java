@@ -0,0 +1,15 @@
+package org.example.buntu.taskmanagmentsystemspringbook.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One create, update or delete as published on the change feed
+ * sequence increases by one per change; task is the state after the change, null for deletes
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TaskChange(long sequence, Type type, Long taskId, Task task) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
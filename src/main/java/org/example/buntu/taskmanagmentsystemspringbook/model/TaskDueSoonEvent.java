@@ -0,0 +1,10 @@
+package org.example.buntu.taskmanagmentsystemspringbook.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published once when an open task's due date comes within the due-soon window
+ * (again if the due date is moved); consume it with an @EventListener
+ */
+public record TaskDueSoonEvent(Task task, LocalDateTime dueDate) {
+}
@@ -0,0 +1,94 @@
+package org.example.buntu.taskmanagmentsystemspringbook.model;
+
+import com.fasterxml.jackson.databind.ser.BeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+
+/**
+ * The Task fields a client asked for with ?fields=id,title,status
+ * Applied while serializing: set it as the writer's filter provider (ObjectWriter.with, or
+ * MappingJacksonValue.setFilters) and TaskJsonSerializer skips the other fields of every task
+ * in the body, envelopes untouched. Without a projection all fields are written.
+ */
+public final class TaskFields extends FilterProvider {
+
+    public static final int ID = 0;
+    public static final int TITLE = 1;
+    public static final int DESCRIPTION = 2;
+    public static final int STATUS = 3;
+    public static final int PRIORITY = 4;
+    public static final int CREATED_AT = 5;
+    public static final int UPDATED_AT = 6;
+    public static final int DUE_DATE = 7;
+    public static final int VERSION = 8;
+
+    // Indexed by the constants above, in the order TaskJsonSerializer writes them
+    static final String[] NAMES = {
+            "id", "title", "description", "status", "priority", "createdAt", "updatedAt", "dueDate", "version"
+    };
+
+    private final int mask;
+
+    private TaskFields(int mask) {
+        this.mask = mask;
+    }
+
+    /**
+     * Parses a comma-separated list of field names
+     * @return null (all fields) when fields is null or blank
+     * @throws IllegalArgumentException if a name is not a Task field
+     */
+    public static TaskFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        int mask = 0;
+        for (String name : fields.split(",")) {
+            String field = name.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            int index = indexOf(field);
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown task field: " + field
+                        + " (expected some of " + String.join(", ", NAMES) + ")");
+            }
+            mask |= 1 << index;
+        }
+        return mask == 0 ? null : new TaskFields(mask);
+    }
+
+    private static int indexOf(String name) {
+        for (int i = 0; i < NAMES.length; i++) {
+            if (NAMES[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean includes(int field) {
+        return (mask & 1 << field) != 0;
+    }
+
+    /**
+     * Short stable form of the projection, the same for any order or repetition of the names
+     */
+    public String key() {
+        return Integer.toString(mask, 36);
+    }
+
+    /**
+     * Tasks are filtered by TaskJsonSerializer itself; no bean in the model declares a @JsonFilter
+     */
+    @Override
+    public PropertyFilter findPropertyFilter(Object filterId, Object valueToFilter) {
+        return null;
+    }
+
+    @Override
+    @Deprecated
+    public BeanPropertyFilter findFilter(Object filterId) {
+        return null;
+    }
+}
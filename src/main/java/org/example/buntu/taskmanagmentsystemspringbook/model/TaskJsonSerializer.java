@@ -0,0 +1,195 @@
+package org.example.buntu.taskmanagmentsystemspringbook.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Jackson serializer for Task, the body of nearly every response
+ * Writes the same JSON as the default bean serializer with Spring Boot's settings (all fields,
+ * nulls included, ISO-8601 date-times) without reflective getter calls: field names and enum
+ * values are encoded once, and date-times are formatted straight into a small char buffer
+ * instead of through DateTimeFormatter. Mappers that write dates as timestamps get the
+ * regular date serializer. A TaskFields filter provider on the writer limits the fields written.
+ */
+public final class TaskJsonSerializer extends StdSerializer<Task> {
+
+    private static final SerializedString ID = new SerializedString(TaskFields.NAMES[TaskFields.ID]);
+    private static final SerializedString TITLE = new SerializedString(TaskFields.NAMES[TaskFields.TITLE]);
+    private static final SerializedString DESCRIPTION = new SerializedString(TaskFields.NAMES[TaskFields.DESCRIPTION]);
+    private static final SerializedString STATUS = new SerializedString(TaskFields.NAMES[TaskFields.STATUS]);
+    private static final SerializedString PRIORITY = new SerializedString(TaskFields.NAMES[TaskFields.PRIORITY]);
+    private static final SerializedString CREATED_AT = new SerializedString(TaskFields.NAMES[TaskFields.CREATED_AT]);
+    private static final SerializedString UPDATED_AT = new SerializedString(TaskFields.NAMES[TaskFields.UPDATED_AT]);
+    private static final SerializedString DUE_DATE = new SerializedString(TaskFields.NAMES[TaskFields.DUE_DATE]);
+    private static final SerializedString VERSION = new SerializedString(TaskFields.NAMES[TaskFields.VERSION]);
+
+    private static final SerializedString[] STATUSES = names(Task.TaskStatus.values());
+    private static final SerializedString[] PRIORITIES = names(Task.TaskPriority.values());
+
+    // yyyy-MM-ddTHH:mm:ss.nnnnnnnnn
+    private static final int MAX_DATE_TIME_LENGTH = 29;
+
+    public TaskJsonSerializer() {
+        super(Task.class);
+    }
+
+    private static SerializedString[] names(Enum<?>[] values) {
+        SerializedString[] names = new SerializedString[values.length];
+        for (Enum<?> value : values) {
+            names[value.ordinal()] = new SerializedString(value.name());
+        }
+        return names;
+    }
+
+    @Override
+    public void serialize(Task task, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (provider.getFilterProvider() instanceof TaskFields fields) {
+            serializeFields(task, generator, provider, fields);
+            return;
+        }
+        generator.writeStartObject(task);
+        writeNumber(generator, ID, task.getId());
+        writeString(generator, TITLE, task.getTitle());
+        writeString(generator, DESCRIPTION, task.getDescription());
+        writeEnum(generator, STATUS, STATUSES, task.getStatus());
+        writeEnum(generator, PRIORITY, PRIORITIES, task.getPriority());
+        char[] buffer = dateTimeBuffer(provider);
+        writeDateTime(generator, provider, buffer, CREATED_AT, task.getCreatedAt());
+        writeDateTime(generator, provider, buffer, UPDATED_AT, task.getUpdatedAt());
+        writeDateTime(generator, provider, buffer, DUE_DATE, task.getDueDate());
+        writeNumber(generator, VERSION, task.getVersion());
+        generator.writeEndObject();
+    }
+
+    private static void serializeFields(Task task, JsonGenerator generator, SerializerProvider provider,
+                                        TaskFields fields) throws IOException {
+        generator.writeStartObject(task);
+        if (fields.includes(TaskFields.ID)) {
+            writeNumber(generator, ID, task.getId());
+        }
+        if (fields.includes(TaskFields.TITLE)) {
+            writeString(generator, TITLE, task.getTitle());
+        }
+        if (fields.includes(TaskFields.DESCRIPTION)) {
+            writeString(generator, DESCRIPTION, task.getDescription());
+        }
+        if (fields.includes(TaskFields.STATUS)) {
+            writeEnum(generator, STATUS, STATUSES, task.getStatus());
+        }
+        if (fields.includes(TaskFields.PRIORITY)) {
+            writeEnum(generator, PRIORITY, PRIORITIES, task.getPriority());
+        }
+        char[] buffer = dateTimeBuffer(provider);
+        if (fields.includes(TaskFields.CREATED_AT)) {
+            writeDateTime(generator, provider, buffer, CREATED_AT, task.getCreatedAt());
+        }
+        if (fields.includes(TaskFields.UPDATED_AT)) {
+            writeDateTime(generator, provider, buffer, UPDATED_AT, task.getUpdatedAt());
+        }
+        if (fields.includes(TaskFields.DUE_DATE)) {
+            writeDateTime(generator, provider, buffer, DUE_DATE, task.getDueDate());
+        }
+        if (fields.includes(TaskFields.VERSION)) {
+            writeNumber(generator, VERSION, task.getVersion());
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * @return null when the mapper writes dates as timestamps
+     */
+    private static char[] dateTimeBuffer(SerializerProvider provider) {
+        return provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS) ? null : new char[MAX_DATE_TIME_LENGTH];
+    }
+
+    private static void writeNumber(JsonGenerator generator, SerializedString name, Long value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+
+    private static void writeEnum(JsonGenerator generator, SerializedString name, SerializedString[] names,
+                                  Enum<?> value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(names[value.ordinal()]);
+        }
+    }
+
+    private static void writeString(JsonGenerator generator, SerializedString name, String value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value);
+        }
+    }
+
+    /**
+     * @param buffer null when the mapper writes dates as timestamps
+     */
+    private static void writeDateTime(JsonGenerator generator, SerializerProvider provider, char[] buffer,
+                                      SerializedString name, LocalDateTime value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else if (buffer == null) {
+            provider.defaultSerializeValue(value, generator);
+        } else if (value.getYear() < 0 || value.getYear() > 9999) {
+            // Signed and five-digit years are rare enough to leave to the formatter
+            generator.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value));
+        } else {
+            generator.writeString(buffer, 0, formatIso(value, buffer));
+        }
+    }
+
+    /**
+     * Writes value like DateTimeFormatter.ISO_LOCAL_DATE_TIME: seconds always,
+     * the fraction only when non-zero and without trailing zeros
+     * @return the number of chars written
+     */
+    static int formatIso(LocalDateTime value, char[] buffer) {
+        int position = digits(buffer, 0, value.getYear(), 4);
+        buffer[position++] = '-';
+        position = digits(buffer, position, value.getMonthValue(), 2);
+        buffer[position++] = '-';
+        position = digits(buffer, position, value.getDayOfMonth(), 2);
+        buffer[position++] = 'T';
+        position = digits(buffer, position, value.getHour(), 2);
+        buffer[position++] = ':';
+        position = digits(buffer, position, value.getMinute(), 2);
+        buffer[position++] = ':';
+        position = digits(buffer, position, value.getSecond(), 2);
+        int nano = value.getNano();
+        if (nano > 0) {
+            int width = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                width--;
+            }
+            buffer[position++] = '.';
+            position = digits(buffer, position, nano, width);
+        }
+        return position;
+    }
+
+    private static int digits(char[] buffer, int position, int value, int width) {
+        for (int i = position + width - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return position + width;
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.buntu.taskmanagmentsystemspringbook.model;
+
+import java.util.List;
+
+/**
+ * One page of tasks from a keyset-paginated listing
+ * nextCursor is null when there are no further pages
+ */
+public record TaskPage(List<Task> tasks, String nextCursor) {
+}
@@ -0,0 +1,14 @@
+package org.example.buntu.taskmanagmentsystemspringbook.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Partial update of a task: only the non-null fields are changed
+ */
+public record TaskPatch(String title, String description, Task.TaskStatus status,
+                        Task.TaskPriority priority, LocalDateTime dueDate) {
+
+    public boolean isEmpty() {
+        return title == null && description == null && status == null && priority == null && dueDate == null;
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.buntu.taskmanagmentsystemspringbook.model;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Criteria of a composite task query; all given criteria must hold
+ * An empty status or priority set means any value, a null range bound is open,
+ * and ranges are half-open: [from, to)
+ */
+public record TaskQuery(Set<Task.TaskStatus> statuses, Set<Task.TaskPriority> priorities,
+                        LocalDateTime dueFrom, LocalDateTime dueTo,
+                        LocalDateTime createdFrom, LocalDateTime createdTo) {
+
+    public TaskQuery {
+        statuses = copy(statuses, Task.TaskStatus.class);
+        priorities = copy(priorities, Task.TaskPriority.class);
+    }
+
+    public boolean hasDueRange() {
+        return dueFrom != null || dueTo != null;
+    }
+
+    public boolean hasCreatedRange() {
+        return createdFrom != null || createdTo != null;
+    }
+
+    private static <E extends Enum<E>> Set<E> copy(Collection<E> values, Class<E> type) {
+        return values == null || values.isEmpty() ? EnumSet.noneOf(type) : EnumSet.copyOf(values);
+    }
+}
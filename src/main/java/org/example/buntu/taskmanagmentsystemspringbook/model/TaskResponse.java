@@ -0,0 +1,15 @@
+package org.example.buntu.taskmanagmentsystemspringbook.model;
+
+/**
+ * Response body of a create, update or patch: the stored task and a confirmation
+ */
+public record TaskResponse(Task task, String message, String status) {
+
+    public static TaskResponse created(Task task) {
+        return new TaskResponse(task, "Task created successfully", MessageResponse.SUCCESS);
+    }
+
+    public static TaskResponse updated(Task task) {
+        return new TaskResponse(task, "Task updated successfully", MessageResponse.SUCCESS);
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.buntu.taskmanagmentsystemspringbook.model;
+
+/**
+ * Sort orders supported by paged task listing
+ * Each value maps to an ordered index kept by the repository
+ */
+public enum TaskSort {
+    ID("id"),
+    CREATED_AT("createdAt"),
+    DUE_DATE("dueDate"),
+    PRIORITY("priority");
+
+    private final String param;
+
+    TaskSort(String param) {
+        this.param = param;
+    }
+
+    public String getParam() {
+        return param;
+    }
+
+    /**
+     * Resolves the value used in the ?sort= request parameter
+     */
+    public static TaskSort fromParam(String param) {
+        for (TaskSort sort : values()) {
+            if (sort.param.equalsIgnoreCase(param) || sort.name().equalsIgnoreCase(param)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + param);
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.buntu.taskmanagmentsystemspringbook.persistence;
+
+/**
+ * How eagerly the write-ahead log forces appended records to disk
+ */
+public enum DurabilityMode {
+    /** Every write waits for an fsync; concurrent writers share one fsync (group commit) */
+    ALWAYS,
+    /** Writes return immediately; the log is fsynced every sync interval */
+    INTERVAL,
+    /** Writes are handed to the OS page cache and never explicitly fsynced */
+    OS
+}
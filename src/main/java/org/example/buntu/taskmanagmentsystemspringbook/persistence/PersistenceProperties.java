@@ -0,0 +1,32 @@
+package org.example.buntu.taskmanagmentsystemspringbook.persistence;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * tasks.persistence.* settings for the optional durable task store
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "tasks.persistence")
+public class PersistenceProperties {
+
+    /** Keep the task store in a write-ahead log so it survives restarts */
+    private boolean enabled = false;
+
+    /** Directory holding the log segments */
+    private String directory = "data";
+
+    /** ALWAYS, INTERVAL or OS, see DurabilityMode */
+    private DurabilityMode durability = DurabilityMode.INTERVAL;
+
+    /** fsync period for INTERVAL durability */
+    private long syncIntervalMs = 50;
+
+    /** A new log segment is started once the current one reaches this size */
+    private long segmentSizeBytes = 64L * 1024 * 1024;
+
+    /** How often a snapshot is written and the log segments it covers are deleted */
+    private long snapshotIntervalMs = 5 * 60 * 1000;
+}
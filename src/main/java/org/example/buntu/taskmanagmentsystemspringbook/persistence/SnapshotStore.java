@@ -0,0 +1,154 @@
+package org.example.buntu.taskmanagmentsystemspringbook.persistence;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Point-in-time copies of the task store, used to skip most of the log on startup
+ *
+ * File layout: [int magic][int version][long markLsn][long nextId][long count]
+ * then count x [int length][TaskCodec bytes].
+ * markLsn is the last log record the snapshot is guaranteed to include; replay resumes after it.
+ * nextId is the id generator at the mark, so ids of tasks deleted before it are never issued again.
+ * Files are written to a temp name and atomically renamed, so a crash never leaves a partial snapshot.
+ * Loading maps the file read-only in large windows instead of copying it through streams.
+ */
+public class SnapshotStore {
+
+    static final String SNAPSHOT_PREFIX = "snapshot-";
+    static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final int MAGIC = 0x54534E50; // "TSNP"
+    private static final int VERSION = 3;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 8;
+    private static final int COUNT_OFFSET = 24;
+    private static final long MAP_WINDOW_BYTES = 256L * 1024 * 1024;
+
+    private final Path directory;
+
+    public SnapshotStore(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Where a snapshot stands: the last log record it includes and the next id to issue
+     */
+    public record Header(long markLsn, long nextId) {
+    }
+
+    /**
+     * Writes a snapshot of the given tasks tagged with the header and removes older snapshots
+     * @return the number of tasks written
+     */
+    public long write(Header header, Iterator<Task> tasks) throws IOException {
+        long markLsn = header.markLsn();
+        Path target = directory.resolve(snapshotName(markLsn));
+        Path temp = directory.resolve(snapshotName(markLsn) + ".tmp");
+
+        long count = 0;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             DataOutputStream out = new DataOutputStream(
+                     new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(markLsn);
+            out.writeLong(header.nextId());
+            out.writeLong(0); // count, patched below once known
+
+            ByteArrayOutputStream scratch = new ByteArrayOutputStream(256);
+            DataOutputStream scratchOut = new DataOutputStream(scratch);
+            while (tasks.hasNext()) {
+                scratch.reset();
+                TaskCodec.write(scratchOut, tasks.next());
+                out.writeInt(scratch.size());
+                scratch.writeTo(out);
+                count++;
+            }
+            out.flush();
+            channel.write(ByteBuffer.allocate(8).putLong(0, count), COUNT_OFFSET);
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        for (Path older : snapshots()) {
+            if (!older.equals(target)) {
+                Files.deleteIfExists(older);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Feeds every task of the newest snapshot to the consumer
+     * @return the snapshot's header, all zero when there is no snapshot
+     */
+    public Header load(Consumer<Task> consumer) throws IOException {
+        Optional<Path> latest = latest();
+        if (latest.isEmpty()) {
+            return new Header(0, 0);
+        }
+        try (FileChannel channel = FileChannel.open(latest.get(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            int magic = header.getInt();
+            int version = header.getInt();
+            if (magic != MAGIC || version != VERSION) {
+                throw new IOException("Not a task snapshot of format " + VERSION + ": " + latest.get());
+            }
+            long markLsn = header.getLong();
+            long nextId = header.getLong();
+            long count = header.getLong();
+
+            long position = HEADER_BYTES;
+            MappedByteBuffer window = null;
+            for (long i = 0; i < count; i++) {
+                // Remap when the next record does not fit in the current window
+                if (window == null || window.remaining() < 4
+                        || window.remaining() < 4 + window.getInt(window.position())) {
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                            Math.min(MAP_WINDOW_BYTES, size - position));
+                }
+                int length = window.getInt();
+                consumer.accept(TaskCodec.read(window));
+                position += 4 + length;
+            }
+            return new Header(markLsn, nextId);
+        }
+    }
+
+    Optional<Path> latest() throws IOException {
+        List<Path> snapshots = snapshots();
+        return snapshots.isEmpty() ? Optional.empty() : Optional.of(snapshots.get(snapshots.size() - 1));
+    }
+
+    private List<Path> snapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    static String snapshotName(long markLsn) {
+        return String.format("%s%020d%s", SNAPSHOT_PREFIX, markLsn, SNAPSHOT_SUFFIX);
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.buntu.taskmanagmentsystemspringbook.persistence;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Compact binary encoding of a Task shared by the log and snapshot files
+ * Layout: id, title, description, status, priority, createdAt, updatedAt, dueDate, version
+ * Strings are length-prefixed UTF-8 (-1 = null), enums are ordinals (-1 = null)
+ * and timestamps are UTC epoch microseconds (Long.MIN_VALUE = null)
+ */
+public final class TaskCodec {
+
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final Task.TaskStatus[] STATUSES = Task.TaskStatus.values();
+    private static final Task.TaskPriority[] PRIORITIES = Task.TaskPriority.values();
+
+    private TaskCodec() {
+    }
+
+    public static void write(DataOutput out, Task task) throws IOException {
+        out.writeLong(task.getId());
+        writeString(out, task.getTitle());
+        writeString(out, task.getDescription());
+        out.writeByte(task.getStatus() == null ? -1 : task.getStatus().ordinal());
+        out.writeByte(task.getPriority() == null ? -1 : task.getPriority().ordinal());
+        out.writeLong(toMicros(task.getCreatedAt()));
+        out.writeLong(toMicros(task.getUpdatedAt()));
+        out.writeLong(toMicros(task.getDueDate()));
+        out.writeLong(task.getVersion() == null ? 0 : task.getVersion());
+    }
+
+    public static Task read(DataInput in) throws IOException {
+        Task task = new Task();
+        task.setId(in.readLong());
+        task.setTitle(readString(in));
+        task.setDescription(readString(in));
+        byte status = in.readByte();
+        task.setStatus(status < 0 ? null : STATUSES[status]);
+        byte priority = in.readByte();
+        task.setPriority(priority < 0 ? null : PRIORITIES[priority]);
+        // setStatus touches updatedAt, so timestamps are restored last
+        task.setCreatedAt(fromMicros(in.readLong()));
+        task.setUpdatedAt(fromMicros(in.readLong()));
+        task.setDueDate(fromMicros(in.readLong()));
+        task.setVersion(in.readLong());
+        return task;
+    }
+
+    /**
+     * Same layout as read(DataInput), decoded straight from a (memory-mapped) buffer
+     */
+    public static Task read(ByteBuffer in) {
+        Task task = new Task();
+        task.setId(in.getLong());
+        task.setTitle(readString(in));
+        task.setDescription(readString(in));
+        byte status = in.get();
+        task.setStatus(status < 0 ? null : STATUSES[status]);
+        byte priority = in.get();
+        task.setPriority(priority < 0 ? null : PRIORITIES[priority]);
+        task.setCreatedAt(fromMicros(in.getLong()));
+        task.setUpdatedAt(fromMicros(in.getLong()));
+        task.setDueDate(fromMicros(in.getLong()));
+        task.setVersion(in.getLong());
+        return task;
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        if (time == null) {
+            return NO_TIME;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        if (micros == NO_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.buntu.taskmanagmentsystemspringbook.persistence;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+
+/**
+ * One mutation in the write-ahead log
+ * PUT records carry the full task state, DELETE records only the id,
+ * so replaying a record is idempotent
+ */
+public record WalRecord(long lsn, Type type, long id, Task task) {
+
+    public enum Type {
+        PUT, DELETE
+    }
+
+    public static WalRecord put(Task task) {
+        return new WalRecord(0, Type.PUT, task.getId(), task);
+    }
+
+    public static WalRecord delete(long id) {
+        return new WalRecord(0, Type.DELETE, id, null);
+    }
+}
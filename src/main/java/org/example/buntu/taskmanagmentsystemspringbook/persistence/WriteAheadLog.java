@@ -0,0 +1,447 @@
+package org.example.buntu.taskmanagmentsystemspringbook.persistence;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, segmented write-ahead log for task mutations
+ *
+ * Writers encode their record into an in-memory batch and get back a log sequence
+ * number (LSN). A single syncer thread writes whole batches to the current segment
+ * and, depending on the DurabilityMode, fsyncs them. Writers that need durability
+ * wait for their LSN, so everyone who appended while an fsync was in flight is
+ * covered by the next one (group commit).
+ *
+ * Record frame: [int bodyLength][int crc32c(body)][body], body = [long lsn][byte type][payload]
+ * Segments are named wal-{first LSN}.log; a torn record at the end of the last segment is
+ * ignored, an invalid record in any earlier segment fails replay.
+ */
+public class WriteAheadLog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    static final String SEGMENT_PREFIX = "wal-";
+    static final String SEGMENT_SUFFIX = ".log";
+    private static final int MAX_PENDING_BYTES = 8 * 1024 * 1024;
+    private static final byte TYPE_DELETE = 2;
+    private static final byte TYPE_PUT = 3;
+
+    private final Path directory;
+    private final DurabilityMode durability;
+    private final long syncIntervalNanos;
+    private final long segmentSizeBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition dataAvailable = lock.newCondition();
+    private final Condition synced = lock.newCondition();
+
+    // Guarded by lock
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream(64 * 1024);
+    private ByteArrayOutputStream spare = new ByteArrayOutputStream(64 * 1024);
+    private final ByteArrayOutputStream scratch = new ByteArrayOutputStream(512);
+    private final DataOutputStream scratchOut = new DataOutputStream(scratch);
+    private final CRC32C crc = new CRC32C();
+    private long lastLsn;
+    private long syncedLsn;
+    private boolean started;
+    private boolean closed;
+    private IOException failure;
+
+    // Owned by the syncer thread once started
+    private FileChannel segment;
+    private long segmentBytes;
+    private Thread syncer;
+
+    public WriteAheadLog(Path directory, DurabilityMode durability, long syncIntervalMs, long segmentSizeBytes)
+            throws IOException {
+        this.directory = directory;
+        this.durability = durability;
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, syncIntervalMs));
+        this.segmentSizeBytes = segmentSizeBytes;
+        Files.createDirectories(directory);
+    }
+
+    public DurabilityMode getDurability() {
+        return durability;
+    }
+
+    /**
+     * Feeds every intact record with an LSN greater than afterLsn to the consumer,
+     * oldest first. Must be called before start().
+     * @return the highest LSN found in the log
+     * @throws IOException also when a segment other than the last has an invalid record: only
+     * the last one can have been cut short by a crash, so its remaining records would be lost
+     */
+    public long replay(long afterLsn, Consumer<WalRecord> consumer) throws IOException {
+        long highest = afterLsn;
+        List<Path> segments = segments();
+        for (int i = 0; i < segments.size(); i++) {
+            Path file = segments.get(i);
+            long validBytes = 0;
+            CountingInputStream counter = new CountingInputStream(new BufferedInputStream(Files.newInputStream(file)));
+            try (DataInputStream in = new DataInputStream(counter)) {
+                WalRecord record;
+                while ((record = readRecord(in)) != null) {
+                    validBytes = counter.position;
+                    highest = Math.max(highest, record.lsn());
+                    if (record.lsn() > afterLsn) {
+                        consumer.accept(record);
+                    }
+                }
+            }
+            if (validBytes < Files.size(file) && i + 1 < segments.size()) {
+                log.error("Write-ahead log segment {} is corrupt after byte {} and is not the last segment",
+                        file, validBytes);
+                throw new IOException("Write-ahead log segment " + file + " is corrupt after byte " + validBytes
+                        + "; later segments follow, so this is not a torn write and replay stops here");
+            }
+            // Cut off a torn or corrupt tail so new appends never end up behind it
+            if (validBytes < Files.size(file)) {
+                log.warn("Ignoring torn or corrupt tail of write-ahead log segment {} after byte {}", file, validBytes);
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    channel.truncate(validBytes);
+                }
+            }
+        }
+        lock.lock();
+        try {
+            lastLsn = Math.max(lastLsn, highest);
+            syncedLsn = lastLsn;
+        } finally {
+            lock.unlock();
+        }
+        return highest;
+    }
+
+    /**
+     * Opens a fresh segment after the replayed ones and starts the syncer thread
+     */
+    public void start() throws IOException {
+        lock.lock();
+        try {
+            if (started) {
+                return;
+            }
+            openSegment(lastLsn + 1);
+            started = true;
+        } finally {
+            lock.unlock();
+        }
+        syncer = new Thread(this::syncLoop, "wal-syncer");
+        syncer.setDaemon(true);
+        syncer.start();
+    }
+
+    /**
+     * Encodes the record into the current batch and returns its LSN
+     * Callers that need the record on disk pass the LSN to awaitDurable
+     */
+    public long append(WalRecord record) {
+        lock.lock();
+        try {
+            if (!started || closed) {
+                throw new IllegalStateException("Write-ahead log is not open");
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("Write-ahead log failed", failure);
+            }
+            // Backpressure: do not let the batch grow without bound if the disk falls behind
+            while (pending.size() >= MAX_PENDING_BYTES && failure == null && !closed) {
+                synced.awaitUninterruptibly();
+            }
+            long lsn = ++lastLsn;
+            encode(lsn, record);
+            dataAvailable.signal();
+            return lsn;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the record with the given LSN is fsynced when running with
+     * ALWAYS durability; returns immediately in the other modes
+     */
+    public void awaitDurable(long lsn) {
+        if (durability != DurabilityMode.ALWAYS) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (syncedLsn < lsn && failure == null) {
+                dataAvailable.signal();
+                synced.awaitUninterruptibly();
+            }
+            if (syncedLsn < lsn) {
+                throw new UncheckedIOException("Write-ahead log failed", failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getLastLsn() {
+        lock.lock();
+        try {
+            return lastLsn;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deletes whole segments whose records all have an LSN at or below the given mark,
+     * e.g. because a snapshot now covers them. The segment being written is never deleted.
+     * @return the number of segments removed
+     */
+    public int truncateBefore(long lsn) throws IOException {
+        List<Path> segments = segments();
+        int deleted = 0;
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            // A segment ends right before the first LSN of the next one
+            if (firstLsn(segments.get(i + 1)) - 1 > lsn) {
+                break;
+            }
+            Files.deleteIfExists(segments.get(i));
+            deleted++;
+        }
+        return deleted;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            dataAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (syncer != null) {
+            try {
+                syncer.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (segment != null) {
+            segment.force(false);
+            segment.close();
+        }
+    }
+
+    private void syncLoop() {
+        while (true) {
+            ByteArrayOutputStream batch;
+            long batchLsn;
+            lock.lock();
+            try {
+                if (durability == DurabilityMode.INTERVAL) {
+                    // Appends signal dataAvailable too; keep sleeping until the interval is over
+                    long remaining = syncIntervalNanos;
+                    while (remaining > 0 && !closed) {
+                        remaining = dataAvailable.awaitNanos(remaining);
+                    }
+                } else {
+                    while (pending.size() == 0 && !closed) {
+                        dataAvailable.await();
+                    }
+                }
+                if (pending.size() == 0 && closed) {
+                    return;
+                }
+                batch = pending;
+                pending = spare;
+                batchLsn = lastLsn;
+            } catch (InterruptedException ex) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            try {
+                if (batch.size() > 0) {
+                    writeBatch(batch, batchLsn);
+                }
+            } catch (IOException ex) {
+                log.error("Write-ahead log write failed in {}", directory, ex);
+                error = ex;
+            }
+
+            lock.lock();
+            try {
+                batch.reset();
+                spare = batch;
+                if (error != null) {
+                    failure = error;
+                } else {
+                    syncedLsn = batchLsn;
+                }
+                synced.signalAll();
+                if (error != null) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void writeBatch(ByteArrayOutputStream batch, long batchLsn) throws IOException {
+        batch.writeTo(Channels.newOutputStream(segment));
+        segmentBytes += batch.size();
+        if (durability != DurabilityMode.OS) {
+            segment.force(false);
+        }
+        if (segmentBytes >= segmentSizeBytes) {
+            segment.force(false);
+            segment.close();
+            openSegment(batchLsn + 1);
+        }
+    }
+
+    private void openSegment(long firstLsn) throws IOException {
+        Path file = directory.resolve(segmentName(firstLsn));
+        segment = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        segmentBytes = segment.size();
+    }
+
+    private void encode(long lsn, WalRecord record) throws IOException {
+        scratch.reset();
+        scratchOut.writeLong(lsn);
+        if (record.type() == WalRecord.Type.PUT) {
+            scratchOut.writeByte(TYPE_PUT);
+            TaskCodec.write(scratchOut, record.task());
+        } else {
+            scratchOut.writeByte(TYPE_DELETE);
+            scratchOut.writeLong(record.id());
+        }
+        byte[] body = scratch.toByteArray();
+        crc.reset();
+        crc.update(body);
+
+        DataOutputStream out = new DataOutputStream(pending);
+        out.writeInt(body.length);
+        out.writeInt((int) crc.getValue());
+        out.write(body);
+    }
+
+    private WalRecord readRecord(DataInputStream in) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch (EOFException ex) {
+            return null;
+        }
+        try {
+            int expectedCrc = in.readInt();
+            if (length <= 0 || length > MAX_PENDING_BYTES) {
+                return null;
+            }
+            byte[] body = new byte[length];
+            in.readFully(body);
+            CRC32C check = new CRC32C();
+            check.update(body);
+            if ((int) check.getValue() != expectedCrc) {
+                return null;
+            }
+            DataInputStream bodyIn = new DataInputStream(new ByteArrayInputStream(body));
+            long lsn = bodyIn.readLong();
+            byte type = bodyIn.readByte();
+            if (type == TYPE_PUT) {
+                Task task = TaskCodec.read(bodyIn);
+                return new WalRecord(lsn, WalRecord.Type.PUT, task.getId(), task);
+            }
+            if (type == TYPE_DELETE) {
+                return new WalRecord(lsn, WalRecord.Type.DELETE, bodyIn.readLong(), null);
+            }
+            // Intact but unknown: written by another format, not torn
+            throw new IOException("Unknown write-ahead log record type " + type + " at LSN " + lsn);
+        } catch (EOFException ex) {
+            // Torn write at the end of the segment: the process died mid-append
+            return null;
+        }
+    }
+
+    /**
+     * Existing segment files, oldest first
+     */
+    List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long firstLsn(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    static String segmentName(long firstLsn) {
+        return String.format("%s%020d%s", SEGMENT_PREFIX, firstLsn, SEGMENT_SUFFIX);
+    }
+
+    /**
+     * Tracks how many bytes of a segment have been consumed, to find where a torn tail starts
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long position;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                position++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                position += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            position += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.buntu.taskmanagmentsystemspringbook.repository;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.ChangeBatch;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskChange;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded ring buffer of the latest task changes, numbered from 1
+ * Nothing locks: a writer reserves its sequence with one atomic increment and fills its slot,
+ * and head only moves over slots that are filled, so readers read head and then the slots
+ * behind it. A slot holding another sequence than expected has been overwritten, which turns
+ * the read into a resync.
+ * Tasks are kept in their compact form and only materialized for readers.
+ * Listeners run on the writing thread once the repository's write is done: keep them tiny.
+ */
+public class ChangeFeed {
+
+    private record Entry(long sequence, TaskChange.Type type, long taskId, CompactTask task) {
+    }
+
+    private final AtomicReferenceArray<Entry> ring;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong reserved = new AtomicLong();
+    // Every sequence up to head has its slot filled
+    private final AtomicLong head = new AtomicLong();
+
+    public ChangeFeed(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Change feed capacity must be positive");
+        }
+        this.ring = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Registers a callback run after every write that published a change
+     */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Sequence of the latest change, 0 before the first one
+     */
+    public long lastSequence() {
+        return head.get();
+    }
+
+    /**
+     * Called by the repository from inside the compute that applies the change,
+     * so changes to one task are published in the order they were applied
+     */
+    void publish(TaskChange.Type type, long taskId, CompactTask task) {
+        long sequence = reserved.incrementAndGet();
+        int slot = slot(sequence);
+        Entry entry = new Entry(sequence, type, taskId, task);
+        Entry current;
+        do {
+            current = ring.get(slot);
+            // A writer a whole ring further on already took the slot: this change is overwritten
+            if (current != null && current.sequence() > sequence) {
+                break;
+            }
+        } while (!ring.compareAndSet(slot, current, entry));
+        advanceHead();
+    }
+
+    /**
+     * Called by the repository once the compute has returned, outside any lock
+     */
+    void notifyListeners() {
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Up to limit changes with a sequence greater than since
+     * A since older than the buffer, or newer than the feed (e.g. from before a restart),
+     * returns an empty resync batch positioned at the latest change
+     */
+    public ChangeBatch since(long since, int limit) {
+        long last = head.get();
+        if (since > last || since < last - ring.length()) {
+            return new ChangeBatch(List.of(), last, true);
+        }
+        long end = Math.min(last, since + Math.max(limit, 1));
+        List<TaskChange> changes = new ArrayList<>((int) (end - since));
+        for (long sequence = since + 1; sequence <= end; sequence++) {
+            Entry entry = ring.get(slot(sequence));
+            if (entry == null || entry.sequence() != sequence) {
+                // Overwritten while reading: the reader fell behind after all
+                return new ChangeBatch(List.of(), head.get(), true);
+            }
+            changes.add(new TaskChange(sequence, entry.type(), entry.taskId(),
+                    entry.task() == null ? null : entry.task().toTask()));
+        }
+        return new ChangeBatch(changes, end, false);
+    }
+
+    /**
+     * Moves head over the slots filled in sequence order. A writer that finishes before an
+     * earlier one leaves head behind; the earlier one carries it past both when it finishes.
+     */
+    private void advanceHead() {
+        while (true) {
+            long last = head.get();
+            Entry next = ring.get(slot(last + 1));
+            if (next == null || next.sequence() <= last) {
+                return;
+            }
+            head.compareAndSet(last, last + 1);
+        }
+    }
+
+    private int slot(long sequence) {
+        return (int) (sequence % ring.length());
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.buntu.taskmanagmentsystemspringbook.repository;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskSort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Stored form of a task inside the repository
+ * Primitive id, epoch-micros timestamps, status and priority as ordinals
+ * and text as UTF-8 bytes, so one task costs three small objects instead of
+ * a Task with boxed id, three LocalDateTimes and two Strings
+ * Tasks are only materialized again when they leave the repository
+ */
+record CompactTask(long id, byte[] title, byte[] description, byte statusCode, byte priorityCode,
+                   long createdAt, long updatedAt, long dueDate, long version) {
+
+    private static final byte NONE = -1;
+    private static final byte[] EMPTY = new byte[0];
+    private static final Task.TaskStatus[] STATUSES = Task.TaskStatus.values();
+    private static final Task.TaskPriority[] PRIORITIES = Task.TaskPriority.values();
+
+    static CompactTask of(Task task) {
+        return new CompactTask(task.getId(),
+                encode(task.getTitle()),
+                encode(task.getDescription()),
+                task.getStatus() == null ? NONE : (byte) task.getStatus().ordinal(),
+                task.getPriority() == null ? NONE : (byte) task.getPriority().ordinal(),
+                SortKey.epochMicros(task.getCreatedAt()),
+                SortKey.epochMicros(task.getUpdatedAt()),
+                SortKey.epochMicros(task.getDueDate()),
+                task.getVersion() == null ? 0 : task.getVersion());
+    }
+
+    CompactTask withVersion(long newVersion) {
+        return new CompactTask(id, title, description, statusCode, priorityCode,
+                createdAt, updatedAt, dueDate, newVersion);
+    }
+
+    /**
+     * @return a new Task carrying this entry's values; callers may mutate it freely
+     */
+    Task toTask() {
+        return new Task(id, decode(title), decode(description), status(), priority(),
+                toDateTime(createdAt), toDateTime(updatedAt), toDateTime(dueDate), version);
+    }
+
+    String titleText() {
+        return decode(title);
+    }
+
+    String descriptionText() {
+        return decode(description);
+    }
+
+    Task.TaskStatus status() {
+        return statusCode == NONE ? null : STATUSES[statusCode];
+    }
+
+    Task.TaskPriority priority() {
+        return priorityCode == NONE ? null : PRIORITIES[priorityCode];
+    }
+
+    long sortValue(TaskSort sort) {
+        return switch (sort) {
+            case ID -> id;
+            case CREATED_AT -> createdAt;
+            case DUE_DATE -> dueDate;
+            case PRIORITY -> priorityCode == NONE ? SortKey.MISSING : priorityCode;
+        };
+    }
+
+    private static byte[] encode(String value) {
+        if (value == null) {
+            return null;
+        }
+        return value.isEmpty() ? EMPTY : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String decode(byte[] value) {
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+
+    private static LocalDateTime toDateTime(long epochMicros) {
+        if (epochMicros == SortKey.MISSING) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(epochMicros, 1_000_000L),
+                (int) Math.floorMod(epochMicros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -1,80 +1,692 @@
 package org.example.buntu.taskmanagmentsystemspringbook.repository;
 
+import org.example.buntu.taskmanagmentsystemspringbook.model.QueryResult;
 import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskChange;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskPage;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskQuery;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskSort;
+import org.example.buntu.taskmanagmentsystemspringbook.persistence.SnapshotStore;
+import org.example.buntu.taskmanagmentsystemspringbook.persistence.WalRecord;
+import org.example.buntu.taskmanagmentsystemspringbook.persistence.WriteAheadLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Repository;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * In-Memory Task Repository Implementation
  * Uses ConcurrentHashMap for thread-safe operations
- * @Repository annotation makes this a Spring-managed bean
+ * Keeps per-status and per-priority secondary indexes so that
+ * findByStatus / findByPriority only touch the matching tasks,
+ * plus per-status and per-priority counters for constant-time statistics
+ * and ordered skip-list indexes for keyset pagination
+ * An inverted index over title and description serves ranked keyword search,
+ * and a due-date index of open tasks serves overdue and due-soon lookups
+ * When a WriteAheadLog is configured every mutation is logged and the
+ * store is rebuilt on startup from the latest snapshot plus the log after it
+ * Tasks are stored as CompactTask values and materialized again on every read,
+ * so callers never share a stored instance
+ * Every write bumps the task's version inside the same compute that swaps the
+ * entry, which makes update a compare-and-swap without any global lock
+ * A global and a per-status modification sequence are bumped once each write
+ * is visible, so readers can tell cheaply whether a listing may have changed
+ * Live writes are also published, in apply order per task, to an optional ChangeFeed
+ * Also serves as one shard of a ShardedTaskRepository, issuing only the ids of its stride
+ * @Repository annotation makes this a Spring-managed bean; with tasks.shards > 1 the
+ * sharded store takes its place. Never lazy: recovery finishes before the first request.
  */
 @Repository
+@Lazy(false)
+@Qualifier("taskStore")
+@ConditionalOnExpression("${tasks.shards:1} <= 1")
 public class InMemoryTaskRepository implements TaskRepository {
 
-    private final Map<Long, Task> tasks = new ConcurrentHashMap<>();
-    private final AtomicLong idGenerator = new AtomicLong(1);
+    private static final long NOT_FOUND = -1;
+    // Cursor scope of pages read from openByDueDate
+    static final String OPEN_DUE_SCOPE = "openDue";
+
+    private final Map<Long, CompactTask> tasks = new ConcurrentHashMap<>();
+    private final AtomicLong idGenerator;
+    // Distance between the ids this store issues: 1 alone, the shard count as a shard
+    private final int idStride;
+
+    // Secondary indexes: enum value -> ids of the tasks currently indexed under it
+    private final Map<Task.TaskStatus, Set<Long>> statusIndex = new EnumMap<>(Task.TaskStatus.class);
+    private final Map<Task.TaskPriority, Set<Long>> priorityIndex = new EnumMap<>(Task.TaskPriority.class);
+
+    // Counters kept next to the indexes; LongAdder avoids contention on hot buckets
+    private final Map<Task.TaskStatus, LongAdder> statusCounts = new EnumMap<>(Task.TaskStatus.class);
+    private final Map<Task.TaskPriority, LongAdder> priorityCounts = new EnumMap<>(Task.TaskPriority.class);
+
+    // Ordered indexes backing keyset pagination, one per supported sort
+    private final Map<TaskSort, NavigableSet<SortKey>> orderedIndexes = new EnumMap<>(TaskSort.class);
+
+    // Open tasks (not completed or cancelled) that have a due date, by due date;
+    // overdue and due-soon lookups walk its head instead of every task
+    private final NavigableSet<SortKey> openByDueDate = new ConcurrentSkipListSet<>();
+
+    // Bumped after every write is visible: same sequence, same contents
+    private final AtomicLong modificationSequence = new AtomicLong();
+    private final Map<Task.TaskStatus, AtomicLong> statusSequences = new EnumMap<>(Task.TaskStatus.class);
+
+    // Full-text index over title and description
+    private final SearchIndex searchIndex = new SearchIndex();
+
+    // Composite queries over the indexes above
+    private final QueryPlanner queryPlanner = new QueryPlanner(tasks, statusIndex, statusCounts,
+            priorityIndex, priorityCounts, orderedIndexes);
+
+    // Null when running purely in memory
+    private final WriteAheadLog writeAheadLog;
+    private final SnapshotStore snapshotStore;
+    // Null when nobody follows changes
+    private final ChangeFeed changeFeed;
+    // Logged writers hold the read side; a snapshot takes the write side only to read its mark
+    private final ReadWriteLock snapshotBarrier = new ReentrantReadWriteLock();
 
     public InMemoryTaskRepository() {
-        // Initialize with sample data
-        initializeSampleData();
+        this(null, null, null);
+    }
+
+    public InMemoryTaskRepository(@Nullable WriteAheadLog writeAheadLog, @Nullable SnapshotStore snapshotStore) {
+        this(writeAheadLog, snapshotStore, null);
+    }
+
+    @Autowired
+    public InMemoryTaskRepository(@Nullable WriteAheadLog writeAheadLog, @Nullable SnapshotStore snapshotStore,
+                                  @Nullable ChangeFeed changeFeed) {
+        this(writeAheadLog, snapshotStore, changeFeed, 1, 1);
+    }
+
+    /**
+     * A shard: purely in memory, issuing the ids firstId, firstId + idStride, ...
+     */
+    InMemoryTaskRepository(@Nullable ChangeFeed changeFeed, long firstId, int idStride) {
+        this(null, null, changeFeed, firstId, idStride);
+    }
+
+    private InMemoryTaskRepository(WriteAheadLog writeAheadLog, SnapshotStore snapshotStore, ChangeFeed changeFeed,
+                                   long firstId, int idStride) {
+        this.writeAheadLog = writeAheadLog;
+        this.snapshotStore = snapshotStore;
+        this.changeFeed = changeFeed;
+        this.idGenerator = new AtomicLong(firstId);
+        this.idStride = idStride;
+        for (TaskSort sort : TaskSort.values()) {
+            orderedIndexes.put(sort, new ConcurrentSkipListSet<>());
+        }
+        for (Task.TaskStatus status : Task.TaskStatus.values()) {
+            statusIndex.put(status, ConcurrentHashMap.newKeySet());
+            statusCounts.put(status, new LongAdder());
+            statusSequences.put(status, new AtomicLong());
+        }
+        for (Task.TaskPriority priority : Task.TaskPriority.values()) {
+            priorityIndex.put(priority, ConcurrentHashMap.newKeySet());
+            priorityCounts.put(priority, new LongAdder());
+        }
+        if (writeAheadLog != null) {
+            recover();
+        }
     }
 
     @Override
     public List<Task> findAll() {
-        return new ArrayList<>(tasks.values());
+        return tasks.values().stream()
+                .map(CompactTask::toTask)
+                .collect(Collectors.toList());
     }
 
     @Override
     public Optional<Task> findById(Long id) {
-        return Optional.ofNullable(tasks.get(id));
+        CompactTask entry = tasks.get(id);
+        return Optional.ofNullable(entry == null ? null : entry.toTask());
     }
 
     @Override
     public Task save(Task task) {
         if (task.getId() == null) {
-            task.setId(idGenerator.getAndIncrement());
+            task.setId(idGenerator.getAndAdd(idStride));
         }
-        tasks.put(task.getId(), task);
+        awaitDurable(store(task, true));
         return task;
     }
 
+    @Override
+    public Optional<Task> update(Long id, Long expectedVersion, Consumer<Task> change) {
+        long[] lsn = new long[1];
+        Task[] updated = new Task[1];
+        CompactTask[] swapped = new CompactTask[2];
+        boolean logging = writeAheadLog != null;
+        if (logging) {
+            snapshotBarrier.readLock().lock();
+        }
+        try {
+            // The check, the change and the swap all run under the bin lock of this id;
+            // throwing leaves the stored entry untouched
+            tasks.computeIfPresent(id, (key, previous) -> {
+                if (expectedVersion != null && expectedVersion != previous.version()) {
+                    throw new VersionConflictException(key, expectedVersion, previous.version());
+                }
+                Task task = previous.toTask();
+                change.accept(task);
+                task.setId(key);
+                task.setVersion(previous.version() + 1);
+                if (logging) {
+                    lsn[0] = writeAheadLog.append(WalRecord.put(task));
+                }
+                CompactTask current = CompactTask.of(task);
+                reindex(key, previous, current);
+                if (changeFeed != null) {
+                    changeFeed.publish(TaskChange.Type.UPDATED, key, current);
+                }
+                updated[0] = task;
+                swapped[0] = previous;
+                swapped[1] = current;
+                return current;
+            });
+        } finally {
+            if (logging) {
+                snapshotBarrier.readLock().unlock();
+            }
+        }
+        if (updated[0] != null) {
+            modified(swapped[0], swapped[1]);
+            if (changeFeed != null) {
+                changeFeed.notifyListeners();
+            }
+        }
+        awaitDurable(lsn[0]);
+        return Optional.ofNullable(updated[0]);
+    }
+
+    @Override
+    public List<Task> saveAll(Collection<Task> batch) {
+        // Reserve one contiguous block of ids for the whole batch
+        long newTasks = batch.stream().filter(task -> task.getId() == null).count();
+        long nextId = idGenerator.getAndAdd(newTasks * idStride);
+
+        List<Task> saved = new ArrayList<>(batch.size());
+        long lastLsn = 0;
+        for (Task task : batch) {
+            if (task.getId() == null) {
+                task.setId(nextId);
+                nextId += idStride;
+            }
+            lastLsn = Math.max(lastLsn, store(task, true));
+            saved.add(task);
+        }
+        // One wait covers the whole batch: the log is synced in LSN order
+        awaitDurable(lastLsn);
+        return saved;
+    }
+
     @Override
     public boolean deleteById(Long id) {
-        return tasks.remove(id) != null;
+        long lsn = remove(id, true);
+        awaitDurable(lsn);
+        return lsn != NOT_FOUND;
+    }
+
+    @Override
+    public Set<Long> deleteAllById(Collection<Long> ids) {
+        Set<Long> removed = new HashSet<>();
+        long lastLsn = 0;
+        for (Long id : ids) {
+            if (id == null) {
+                continue;
+            }
+            long lsn = remove(id, true);
+            if (lsn != NOT_FOUND) {
+                removed.add(id);
+                lastLsn = Math.max(lastLsn, lsn);
+            }
+        }
+        awaitDurable(lastLsn);
+        return removed;
     }
 
     @Override
     public List<Task> findByStatus(Task.TaskStatus status) {
-        return tasks.values().stream()
-                .filter(task -> task.getStatus() == status)
-                .collect(Collectors.toList());
+        if (status == null) {
+            return new ArrayList<>();
+        }
+        return stream(status, null).collect(Collectors.toList());
     }
 
     @Override
     public List<Task> findByPriority(Task.TaskPriority priority) {
-        return tasks.values().stream()
-                .filter(task -> task.getPriority() == priority)
-                .collect(Collectors.toList());
+        if (priority == null) {
+            return new ArrayList<>();
+        }
+        return stream(null, priority).collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<Task> stream(Task.TaskStatus status, Task.TaskPriority priority) {
+        if (status == null && priority == null) {
+            return tasks.values().stream().map(CompactTask::toTask);
+        }
+        // Drive the stream from the smaller index and filter on the other criterion;
+        // the index may briefly lag a concurrent save, so re-check the live entry
+        Set<Long> candidates;
+        if (priority == null || (status != null && countByStatus(status) <= countByPriority(priority))) {
+            candidates = statusIndex.get(status);
+        } else {
+            candidates = priorityIndex.get(priority);
+        }
+        return candidates.stream()
+                .map(tasks::get)
+                .filter(entry -> entry != null
+                        && (status == null || entry.status() == status)
+                        && (priority == null || entry.priority() == priority))
+                .map(CompactTask::toTask);
     }
 
-    private void initializeSampleData() {
-        save(new Task("Setup Development Environment",
-                "Install Java, Maven, and IDE",
-                Task.TaskStatus.COMPLETED,
-                Task.TaskPriority.HIGH));
+    @Override
+    public TaskPage findPage(TaskSort sort, String cursor, int limit) {
+        NavigableSet<SortKey> index = orderedIndexes.get(sort);
+        // Seek past the cursor in O(log n), then walk only as far as the page needs
+        NavigableSet<SortKey> keys = cursor == null
+                ? index
+                : index.tailSet(SortKey.fromCursor(sort, cursor), false);
+        return page(keys, sort.getParam(), limit, (key, entry) -> entry.sortValue(sort) == key.value());
+    }
+
+    @Override
+    public TaskPage findByDueDate(LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        String scope = TaskSort.DUE_DATE.getParam();
+        NavigableSet<SortKey> keys = dueRange(orderedIndexes.get(TaskSort.DUE_DATE), scope, from, to, cursor);
+        return page(keys, scope, limit, (key, entry) -> entry.dueDate() == key.value());
+    }
+
+    @Override
+    public TaskPage findOpenByDueDate(LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        NavigableSet<SortKey> keys = dueRange(openByDueDate, OPEN_DUE_SCOPE, from, to, cursor);
+        return page(keys, OPEN_DUE_SCOPE, limit, (key, entry) -> isOpenWithDueDate(entry) && entry.dueDate() == key.value());
+    }
+
+    /**
+     * Keys due in [from, to) after the cursor; null bounds are open, but tasks
+     * without a due date (sorted last) are never included
+     */
+    private static NavigableSet<SortKey> dueRange(NavigableSet<SortKey> index, String scope,
+                                                  LocalDateTime from, LocalDateTime to, String cursor) {
+        SortKey lower = SortKey.lowerBound(from);
+        SortKey upper = SortKey.upperBound(to);
+        SortKey after = cursor == null ? null : SortKey.fromCursor(scope, cursor);
+        boolean resume = after != null && after.compareTo(lower) >= 0;
+        SortKey start = resume ? after : lower;
+        if (start.compareTo(upper) >= 0) {
+            return Collections.emptyNavigableSet();
+        }
+        return index.subSet(start, !resume, upper, false);
+    }
+
+    /**
+     * Materializes up to limit tasks from an ordered key range
+     * @param current rejects keys left behind by a concurrent reindex of the same task
+     */
+    private TaskPage page(NavigableSet<SortKey> keys, String scope, int limit,
+                          BiPredicate<SortKey, CompactTask> current) {
+        Iterator<SortKey> iterator = keys.iterator();
+        List<Task> page = new ArrayList<>(limit);
+        SortKey last = null;
+        while (iterator.hasNext() && page.size() < limit) {
+            SortKey key = iterator.next();
+            CompactTask entry = tasks.get(key.id());
+            if (entry != null && current.test(key, entry)) {
+                page.add(entry.toTask());
+                last = key;
+            }
+        }
+        String nextCursor = last != null && iterator.hasNext() ? last.toCursor(scope) : null;
+        return new TaskPage(page, nextCursor);
+    }
+
+    @Override
+    public TaskPage search(String query, String cursor, int limit) {
+        SortKey after = cursor == null ? null : SortKey.fromCursor(SearchIndex.CURSOR_SCOPE, cursor);
+        // One extra key tells whether another page follows
+        List<SortKey> ranked = searchIndex.search(query, after, limit + 1);
 
-        save(new Task("Learn Spring Boot",
-                "Complete Spring Boot tutorial",
-                Task.TaskStatus.IN_PROGRESS,
-                Task.TaskPriority.MEDIUM));
+        List<Task> page = new ArrayList<>(limit);
+        SortKey last = null;
+        for (SortKey key : ranked.subList(0, Math.min(limit, ranked.size()))) {
+            CompactTask entry = tasks.get(key.id());
+            // Skip tasks deleted since the index was read
+            if (entry != null) {
+                page.add(entry.toTask());
+            }
+            last = key;
+        }
+        String nextCursor = ranked.size() > limit ? last.toCursor(SearchIndex.CURSOR_SCOPE) : null;
+        return new TaskPage(page, nextCursor);
+    }
+
+    /**
+     * Up to limit search keys ranked after the given key, deleted tasks included;
+     * lets a sharded store rank the hits of all its shards together
+     */
+    List<SortKey> searchKeys(String query, SortKey after, int limit) {
+        return searchIndex.search(query, after, limit);
+    }
+
+    @Override
+    public QueryResult query(TaskQuery query, String cursor, int limit) {
+        return queryPlanner.run(query, cursor, limit);
+    }
+
+    @Override
+    public long count() {
+        return tasks.size();
+    }
+
+    @Override
+    public long modificationSequence() {
+        return modificationSequence.get();
+    }
+
+    @Override
+    public long modificationSequenceByStatus(Task.TaskStatus status) {
+        return status == null ? 0 : statusSequences.get(status).get();
+    }
+
+    @Override
+    public long countByStatus(Task.TaskStatus status) {
+        return status == null ? 0 : statusCounts.get(status).sum();
+    }
+
+    @Override
+    public long countByPriority(Task.TaskPriority priority) {
+        return priority == null ? 0 : priorityCounts.get(priority).sum();
+    }
+
+    /**
+     * Stores the task and, when logged, appends it to the write-ahead log
+     * Live writes get the next version of the entry they replace; replayed
+     * records keep the version they were logged with
+     * @return the log sequence number of the append, 0 when nothing was logged
+     */
+    private long store(Task task, boolean logged) {
+        long[] lsn = new long[1];
+        CompactTask[] swapped = new CompactTask[2];
+        boolean logging = logged && writeAheadLog != null;
+        // Encoded outside compute so the bin lock is held only for the swap
+        CompactTask current = CompactTask.of(task);
+        if (logging) {
+            snapshotBarrier.readLock().lock();
+        }
+        try {
+            // compute() serializes writers of the same id, so the index moves below
+            // always see the entry that was actually replaced, and log order matches apply order
+            tasks.compute(task.getId(), (id, previous) -> {
+                long version = logged
+                        ? (previous == null ? 0 : previous.version()) + 1
+                        : current.version();
+                task.setVersion(version);
+                if (logging) {
+                    // Append first: if logging fails the store is left untouched
+                    lsn[0] = writeAheadLog.append(WalRecord.put(task));
+                }
+                CompactTask versioned = current.withVersion(version);
+                reindex(id, previous, versioned);
+                // Replayed records were published by the run that wrote them
+                if (logged && changeFeed != null) {
+                    changeFeed.publish(previous == null ? TaskChange.Type.CREATED : TaskChange.Type.UPDATED,
+                            id, versioned);
+                }
+                swapped[0] = previous;
+                swapped[1] = versioned;
+                return versioned;
+            });
+        } finally {
+            if (logging) {
+                snapshotBarrier.readLock().unlock();
+            }
+        }
+        modified(swapped[0], swapped[1]);
+        if (logged && changeFeed != null) {
+            changeFeed.notifyListeners();
+        }
+        return lsn[0];
+    }
+
+    /**
+     * @return the log sequence number of the delete (0 when not logged), or NOT_FOUND
+     */
+    private long remove(Long id, boolean logged) {
+        long[] lsn = {NOT_FOUND};
+        CompactTask[] removed = new CompactTask[1];
+        boolean logging = logged && writeAheadLog != null;
+        if (logging) {
+            snapshotBarrier.readLock().lock();
+        }
+        try {
+            tasks.computeIfPresent(id, (key, previous) -> {
+                lsn[0] = logging ? writeAheadLog.append(WalRecord.delete(key)) : 0;
+                reindex(key, previous, null);
+                if (logged && changeFeed != null) {
+                    changeFeed.publish(TaskChange.Type.DELETED, key, null);
+                }
+                removed[0] = previous;
+                return null;
+            });
+        } finally {
+            if (logging) {
+                snapshotBarrier.readLock().unlock();
+            }
+        }
+        if (removed[0] != null) {
+            modified(removed[0], null);
+            if (logged && changeFeed != null) {
+                changeFeed.notifyListeners();
+            }
+        }
+        return lsn[0];
+    }
+
+    /**
+     * Bumps the global sequence and the sequences of the statuses the task left and entered.
+     * Called once the compute has returned: a reader that sees the new sequence also sees
+     * the write, so content read after a sequence is never older than that sequence.
+     */
+    private void modified(CompactTask previous, CompactTask current) {
+        Task.TaskStatus oldStatus = previous == null ? null : previous.status();
+        Task.TaskStatus newStatus = current == null ? null : current.status();
+        if (oldStatus != null) {
+            statusSequences.get(oldStatus).incrementAndGet();
+        }
+        if (newStatus != null && newStatus != oldStatus) {
+            statusSequences.get(newStatus).incrementAndGet();
+        }
+        modificationSequence.incrementAndGet();
+    }
+
+    private void awaitDurable(long lsn) {
+        if (lsn > 0 && writeAheadLog != null) {
+            writeAheadLog.awaitDurable(lsn);
+        }
+    }
+
+    /**
+     * Writes a snapshot of the current contents and drops the log segments it covers.
+     * Writers are only paused while the mark LSN is read: at that point every logged
+     * record up to the mark has been applied. The copy itself iterates the live map;
+     * changes that race with it have higher LSNs and are replayed on top on startup.
+     * @return the mark LSN of the snapshot
+     */
+    public long snapshot() throws IOException {
+        if (writeAheadLog == null || snapshotStore == null) {
+            throw new IllegalStateException("Snapshots need persistence to be enabled");
+        }
+        long mark;
+        long nextId;
+        snapshotBarrier.writeLock().lock();
+        try {
+            mark = writeAheadLog.getLastLsn();
+            // Ids handed out later are logged after the mark and seen by replay
+            nextId = idGenerator.get();
+        } finally {
+            snapshotBarrier.writeLock().unlock();
+        }
+        snapshotStore.write(new SnapshotStore.Header(mark, nextId),
+                tasks.values().stream().map(CompactTask::toTask).iterator());
+        writeAheadLog.truncateBefore(mark);
+        return mark;
+    }
+
+    /**
+     * Rebuilds the store from the latest snapshot and the log after it, then opens the log for appends
+     * Ids continue after the highest one ever issued, whether or not its task survived: the
+     * snapshot header and the ids of replayed puts and deletes, not just the stored tasks
+     */
+    private void recover() {
+        long[] highestId = new long[1];
+        try {
+            SnapshotStore.Header snapshot = snapshotStore == null ? new SnapshotStore.Header(0, 0) : loadSnapshot();
+            highestId[0] = snapshot.nextId() - 1;
+            writeAheadLog.replay(snapshot.markLsn(), record -> {
+                highestId[0] = Math.max(highestId[0], record.id());
+                apply(record);
+            });
+            writeAheadLog.start();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not recover tasks from the write-ahead log", ex);
+        }
+        long maxId = tasks.keySet().stream().mapToLong(Long::longValue).max().orElse(0);
+        idGenerator.set(Math.max(idGenerator.get(), Math.max(highestId[0], maxId) + 1));
+    }
+
+    /**
+     * Bulk-loads the latest snapshot into the still empty store.
+     * Snapshot entries are unique and nothing else can see the store yet, so the
+     * per-task compute is skipped and each ordered index is filled from pre-sorted
+     * keys, which keeps skip-list inserts cache friendly.
+     * @return the header of the snapshot, all zero when there is none
+     */
+    private SnapshotStore.Header loadSnapshot() throws IOException {
+        List<CompactTask> loaded = new ArrayList<>();
+        SnapshotStore.Header header = snapshotStore.load(task -> loaded.add(CompactTask.of(task)));
+        for (CompactTask entry : loaded) {
+            Long id = entry.id();
+            tasks.put(id, entry);
+            if (entry.status() != null) {
+                statusIndex.get(entry.status()).add(id);
+                statusCounts.get(entry.status()).increment();
+            }
+            if (entry.priority() != null) {
+                priorityIndex.get(entry.priority()).add(id);
+                priorityCounts.get(entry.priority()).increment();
+            }
+            searchIndex.update(id, null, entry);
+        }
+        for (TaskSort sort : TaskSort.values()) {
+            SortKey[] keys = new SortKey[loaded.size()];
+            for (int i = 0; i < keys.length; i++) {
+                CompactTask entry = loaded.get(i);
+                keys[i] = new SortKey(entry.sortValue(sort), entry.id());
+            }
+            Arrays.sort(keys);
+            orderedIndexes.get(sort).addAll(Arrays.asList(keys));
+        }
+        List<SortKey> openKeys = new ArrayList<>();
+        for (CompactTask entry : loaded) {
+            if (isOpenWithDueDate(entry)) {
+                openKeys.add(new SortKey(entry.dueDate(), entry.id()));
+            }
+        }
+        Collections.sort(openKeys);
+        openByDueDate.addAll(openKeys);
+        return header;
+    }
+
+    private void apply(WalRecord record) {
+        if (record.type() == WalRecord.Type.PUT) {
+            store(record.task(), false);
+        } else {
+            remove(record.id(), false);
+        }
+    }
+
+    /**
+     * Moves an id between index buckets, adjusts the matching counters and
+     * re-tokenizes the text when it changed.
+     * Must be called from inside a compute on the same key so updates for
+     * one task never interleave.
+     */
+    private void reindex(Long id, CompactTask previous, CompactTask current) {
+        Task.TaskStatus oldStatus = previous == null ? null : previous.status();
+        Task.TaskStatus newStatus = current == null ? null : current.status();
+        if (oldStatus != newStatus) {
+            if (oldStatus != null) {
+                statusIndex.get(oldStatus).remove(id);
+                statusCounts.get(oldStatus).decrement();
+            }
+            if (newStatus != null) {
+                statusIndex.get(newStatus).add(id);
+                statusCounts.get(newStatus).increment();
+            }
+        }
+
+        Task.TaskPriority oldPriority = previous == null ? null : previous.priority();
+        Task.TaskPriority newPriority = current == null ? null : current.priority();
+        if (oldPriority != newPriority) {
+            if (oldPriority != null) {
+                priorityIndex.get(oldPriority).remove(id);
+                priorityCounts.get(oldPriority).decrement();
+            }
+            if (newPriority != null) {
+                priorityIndex.get(newPriority).add(id);
+                priorityCounts.get(newPriority).increment();
+            }
+        }
+
+        for (TaskSort sort : TaskSort.values()) {
+            long oldValue = previous == null ? 0 : previous.sortValue(sort);
+            long newValue = current == null ? 0 : current.sortValue(sort);
+            if (previous != null && (current == null || oldValue != newValue)) {
+                orderedIndexes.get(sort).remove(new SortKey(oldValue, id));
+            }
+            if (current != null && (previous == null || oldValue != newValue)) {
+                orderedIndexes.get(sort).add(new SortKey(newValue, id));
+            }
+        }
+
+        SortKey oldOpenDue = isOpenWithDueDate(previous) ? new SortKey(previous.dueDate(), id) : null;
+        SortKey newOpenDue = isOpenWithDueDate(current) ? new SortKey(current.dueDate(), id) : null;
+        if (!Objects.equals(oldOpenDue, newOpenDue)) {
+            if (oldOpenDue != null) {
+                openByDueDate.remove(oldOpenDue);
+            }
+            if (newOpenDue != null) {
+                openByDueDate.add(newOpenDue);
+            }
+        }
+
+        searchIndex.update(id, previous, current);
+    }
 
-        save(new Task("Build REST API",
-                "Create task management REST endpoints",
-                Task.TaskStatus.TODO,
-                Task.TaskPriority.HIGH));
+    private static boolean isOpenWithDueDate(CompactTask entry) {
+        return entry != null
+                && entry.dueDate() != SortKey.MISSING
+                && entry.status() != Task.TaskStatus.COMPLETED
+                && entry.status() != Task.TaskStatus.CANCELLED;
     }
 }
@@ -0,0 +1,223 @@
+package org.example.buntu.taskmanagmentsystemspringbook.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.buntu.taskmanagmentsystemspringbook.model.QueryResult;
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskPage;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskQuery;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskSort;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Task repository decorator recording Micrometer metrics
+ * - tasks.repository.operations: timer per operation (tag operation)
+ * - tasks.repository.results: number of tasks returned by the list reads
+ * - tasks.repository.conflicts: updates rejected with a version conflict
+ * - tasks.store.size, tasks.store.status, tasks.store.priority: gauges read from the delegate's counters
+ * Every meter is registered up front, so recording is a clock read and a few adds, no registry lookup.
+ * Not timed: stream returns before the caller consumes it, and the counts and modification sequences
+ * are O(1) counter reads that cost far less than the timer itself.
+ */
+public class MeteredTaskRepository implements TaskRepository {
+
+    private final TaskRepository delegate;
+
+    private final Timer findAllTimer;
+    private final Timer findByIdTimer;
+    private final Timer saveTimer;
+    private final Timer saveAllTimer;
+    private final Timer updateTimer;
+    private final Timer deleteByIdTimer;
+    private final Timer deleteAllByIdTimer;
+    private final Timer findByStatusTimer;
+    private final Timer findByPriorityTimer;
+    private final Timer findPageTimer;
+    private final Timer searchTimer;
+    private final Timer findByDueDateTimer;
+    private final Timer findOpenByDueDateTimer;
+    private final Timer queryTimer;
+
+    private final DistributionSummary findAllResults;
+    private final DistributionSummary findByStatusResults;
+    private final DistributionSummary findByPriorityResults;
+    private final Counter conflicts;
+
+    public MeteredTaskRepository(TaskRepository delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+
+        findAllTimer = timer(registry, "findAll");
+        findByIdTimer = timer(registry, "findById");
+        saveTimer = timer(registry, "save");
+        saveAllTimer = timer(registry, "saveAll");
+        updateTimer = timer(registry, "update");
+        deleteByIdTimer = timer(registry, "deleteById");
+        deleteAllByIdTimer = timer(registry, "deleteAllById");
+        findByStatusTimer = timer(registry, "findByStatus");
+        findByPriorityTimer = timer(registry, "findByPriority");
+        findPageTimer = timer(registry, "findPage");
+        searchTimer = timer(registry, "search");
+        findByDueDateTimer = timer(registry, "findByDueDate");
+        findOpenByDueDateTimer = timer(registry, "findOpenByDueDate");
+        queryTimer = timer(registry, "query");
+
+        findAllResults = results(registry, "findAll");
+        findByStatusResults = results(registry, "findByStatus");
+        findByPriorityResults = results(registry, "findByPriority");
+        conflicts = Counter.builder("tasks.repository.conflicts")
+                .description("Updates rejected because the task changed since the expected version")
+                .register(registry);
+
+        Gauge.builder("tasks.store.size", delegate, TaskRepository::count)
+                .description("Tasks in the store")
+                .register(registry);
+        for (Task.TaskStatus status : Task.TaskStatus.values()) {
+            Gauge.builder("tasks.store.status", delegate, repository -> repository.countByStatus(status))
+                    .description("Tasks in the store per status")
+                    .tag("status", status.name())
+                    .register(registry);
+        }
+        for (Task.TaskPriority priority : Task.TaskPriority.values()) {
+            Gauge.builder("tasks.store.priority", delegate, repository -> repository.countByPriority(priority))
+                    .description("Tasks in the store per priority")
+                    .tag("priority", priority.name())
+                    .register(registry);
+        }
+    }
+
+    private static Timer timer(MeterRegistry registry, String operation) {
+        return Timer.builder("tasks.repository.operations")
+                .description("Time spent in task repository operations")
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    private static DistributionSummary results(MeterRegistry registry, String operation) {
+        return DistributionSummary.builder("tasks.repository.results")
+                .description("Tasks returned per repository read")
+                .baseUnit("tasks")
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    @Override
+    public List<Task> findAll() {
+        List<Task> tasks = findAllTimer.record(delegate::findAll);
+        findAllResults.record(tasks.size());
+        return tasks;
+    }
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        return findByIdTimer.record(() -> delegate.findById(id));
+    }
+
+    @Override
+    public Task save(Task task) {
+        return saveTimer.record(() -> delegate.save(task));
+    }
+
+    @Override
+    public List<Task> saveAll(Collection<Task> tasks) {
+        return saveAllTimer.record(() -> delegate.saveAll(tasks));
+    }
+
+    @Override
+    public Optional<Task> update(Long id, Long expectedVersion, Consumer<Task> change) {
+        try {
+            return updateTimer.record(() -> delegate.update(id, expectedVersion, change));
+        } catch (VersionConflictException ex) {
+            conflicts.increment();
+            throw ex;
+        }
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        return deleteByIdTimer.record(() -> delegate.deleteById(id));
+    }
+
+    @Override
+    public Set<Long> deleteAllById(Collection<Long> ids) {
+        return deleteAllByIdTimer.record(() -> delegate.deleteAllById(ids));
+    }
+
+    @Override
+    public List<Task> findByStatus(Task.TaskStatus status) {
+        List<Task> tasks = findByStatusTimer.record(() -> delegate.findByStatus(status));
+        findByStatusResults.record(tasks.size());
+        return tasks;
+    }
+
+    @Override
+    public List<Task> findByPriority(Task.TaskPriority priority) {
+        List<Task> tasks = findByPriorityTimer.record(() -> delegate.findByPriority(priority));
+        findByPriorityResults.record(tasks.size());
+        return tasks;
+    }
+
+    @Override
+    public Stream<Task> stream(Task.TaskStatus status, Task.TaskPriority priority) {
+        return delegate.stream(status, priority);
+    }
+
+    @Override
+    public TaskPage findPage(TaskSort sort, String cursor, int limit) {
+        return findPageTimer.record(() -> delegate.findPage(sort, cursor, limit));
+    }
+
+    @Override
+    public TaskPage search(String query, String cursor, int limit) {
+        return searchTimer.record(() -> delegate.search(query, cursor, limit));
+    }
+
+    @Override
+    public TaskPage findByDueDate(LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        return findByDueDateTimer.record(() -> delegate.findByDueDate(from, to, cursor, limit));
+    }
+
+    @Override
+    public TaskPage findOpenByDueDate(LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        return findOpenByDueDateTimer.record(() -> delegate.findOpenByDueDate(from, to, cursor, limit));
+    }
+
+    @Override
+    public QueryResult query(TaskQuery query, String cursor, int limit) {
+        return queryTimer.record(() -> delegate.query(query, cursor, limit));
+    }
+
+    @Override
+    public long count() {
+        return delegate.count();
+    }
+
+    @Override
+    public long countByStatus(Task.TaskStatus status) {
+        return delegate.countByStatus(status);
+    }
+
+    @Override
+    public long countByPriority(Task.TaskPriority priority) {
+        return delegate.countByPriority(priority);
+    }
+
+    @Override
+    public long modificationSequence() {
+        return delegate.modificationSequence();
+    }
+
+    @Override
+    public long modificationSequenceByStatus(Task.TaskStatus status) {
+        return delegate.modificationSequenceByStatus(status);
+    }
+}
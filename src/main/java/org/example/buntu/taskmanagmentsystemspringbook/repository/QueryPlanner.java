@@ -0,0 +1,208 @@
+package org.example.buntu.taskmanagmentsystemspringbook.repository;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.QueryPlan;
+import org.example.buntu.taskmanagmentsystemspringbook.model.QueryResult;
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskPage;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskQuery;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskSort;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Plans and runs composite queries over the repository's indexes
+ * Every applicable index is a candidate source: status and priority buckets
+ * (exact sizes from the counters) and due/created ranges of the ordered indexes
+ * (counted, but only up to the best size seen so far). The smallest source drives
+ * the query and the remaining criteria are checked on each candidate it yields.
+ * Only a query without any indexable criterion scans the whole store, in parallel.
+ * Results are ordered by id and paged with an id cursor.
+ */
+final class QueryPlanner {
+
+    static final String CURSOR_SCOPE = "query";
+    static final String PARALLEL_SCAN = "parallelScan";
+
+    private final Map<Long, CompactTask> tasks;
+    private final Map<Task.TaskStatus, Set<Long>> statusIndex;
+    private final Map<Task.TaskStatus, LongAdder> statusCounts;
+    private final Map<Task.TaskPriority, Set<Long>> priorityIndex;
+    private final Map<Task.TaskPriority, LongAdder> priorityCounts;
+    private final Map<TaskSort, NavigableSet<SortKey>> orderedIndexes;
+
+    QueryPlanner(Map<Long, CompactTask> tasks,
+                 Map<Task.TaskStatus, Set<Long>> statusIndex, Map<Task.TaskStatus, LongAdder> statusCounts,
+                 Map<Task.TaskPriority, Set<Long>> priorityIndex, Map<Task.TaskPriority, LongAdder> priorityCounts,
+                 Map<TaskSort, NavigableSet<SortKey>> orderedIndexes) {
+        this.tasks = tasks;
+        this.statusIndex = statusIndex;
+        this.statusCounts = statusCounts;
+        this.priorityIndex = priorityIndex;
+        this.priorityCounts = priorityCounts;
+        this.orderedIndexes = orderedIndexes;
+    }
+
+    /**
+     * A candidate source: one index restricted by one criterion
+     */
+    private record Source(String index, String criterion, long rows, Supplier<Stream<Long>> ids) {
+    }
+
+    QueryResult run(TaskQuery query, String cursor, int limit) {
+        long after = cursor == null ? Long.MIN_VALUE : SortKey.fromCursor(CURSOR_SCOPE, cursor).id();
+        Predicate<CompactTask> matches = matcher(query);
+
+        List<Source> sources = sources(query);
+        Map<String, Long> estimates = new LinkedHashMap<>();
+        Source driver = null;
+        for (Source source : sources) {
+            estimates.put(source.index(), source.rows());
+            if (driver == null || source.rows() < driver.rows()) {
+                driver = source;
+            }
+        }
+
+        // Keep the limit + 1 smallest matching ids; the extra one tells whether another page follows.
+        // A TreeSet also drops the duplicate a concurrent reindex can leave in a range or bucket union.
+        TreeSet<Long> ids = new TreeSet<>();
+        long examined;
+        if (driver == null) {
+            tasks.values().parallelStream()
+                    .filter(entry -> entry.id() > after && matches.test(entry))
+                    .map(CompactTask::id)
+                    .sorted()
+                    .limit(limit + 1)
+                    .forEachOrdered(ids::add);
+            examined = tasks.size();
+        } else {
+            examined = 0;
+            Iterator<Long> candidates = driver.ids().get().iterator();
+            while (candidates.hasNext()) {
+                Long id = candidates.next();
+                examined++;
+                if (id <= after || (ids.size() > limit && id > ids.last())) {
+                    continue;
+                }
+                CompactTask entry = tasks.get(id);
+                if (entry != null && matches.test(entry)) {
+                    ids.add(id);
+                    if (ids.size() > limit + 1) {
+                        ids.pollLast();
+                    }
+                }
+            }
+        }
+
+        List<Task> page = new ArrayList<>(limit);
+        long last = after;
+        for (Long id : ids) {
+            if (page.size() == limit) {
+                break;
+            }
+            CompactTask entry = tasks.get(id);
+            // Skip tasks deleted since they were matched
+            if (entry != null) {
+                page.add(entry.toTask());
+            }
+            last = id;
+        }
+        String nextCursor = ids.size() > limit ? new SortKey(last, last).toCursor(CURSOR_SCOPE) : null;
+
+        String access = driver == null ? PARALLEL_SCAN : driver.index();
+        long estimatedRows = driver == null ? tasks.size() : driver.rows();
+        List<String> filters = new ArrayList<>(criteria(query));
+        if (driver != null) {
+            filters.remove(driver.criterion());
+        }
+        QueryPlan plan = new QueryPlan(access, estimatedRows, estimates, filters, examined);
+        return new QueryResult(new TaskPage(page, nextCursor), plan);
+    }
+
+    private List<Source> sources(TaskQuery query) {
+        List<Source> sources = new ArrayList<>();
+        long best = tasks.size();
+        if (!query.statuses().isEmpty()) {
+            long rows = query.statuses().stream().mapToLong(status -> statusCounts.get(status).sum()).sum();
+            sources.add(new Source("statusIndex", "status", rows,
+                    () -> query.statuses().stream().flatMap(status -> statusIndex.get(status).stream())));
+            best = Math.min(best, rows);
+        }
+        if (!query.priorities().isEmpty()) {
+            long rows = query.priorities().stream().mapToLong(priority -> priorityCounts.get(priority).sum()).sum();
+            sources.add(new Source("priorityIndex", "priority", rows,
+                    () -> query.priorities().stream().flatMap(priority -> priorityIndex.get(priority).stream())));
+            best = Math.min(best, rows);
+        }
+        if (query.hasDueRange()) {
+            NavigableSet<SortKey> keys = range(TaskSort.DUE_DATE, query.dueFrom(), query.dueTo());
+            long rows = countUpTo(keys, best);
+            sources.add(new Source("dueDateIndex", "dueDate", rows, () -> keys.stream().map(SortKey::id)));
+            best = Math.min(best, rows);
+        }
+        if (query.hasCreatedRange()) {
+            NavigableSet<SortKey> keys = range(TaskSort.CREATED_AT, query.createdFrom(), query.createdTo());
+            long rows = countUpTo(keys, best);
+            sources.add(new Source("createdAtIndex", "createdAt", rows, () -> keys.stream().map(SortKey::id)));
+        }
+        return sources;
+    }
+
+    private NavigableSet<SortKey> range(TaskSort sort, LocalDateTime from, LocalDateTime to) {
+        SortKey lower = SortKey.lowerBound(from);
+        SortKey upper = SortKey.upperBound(to);
+        if (lower.compareTo(upper) >= 0) {
+            return Collections.emptyNavigableSet();
+        }
+        return orderedIndexes.get(sort).subSet(lower, true, upper, false);
+    }
+
+    /**
+     * Counting a skip-list range is linear, so stop once it cannot win anymore
+     */
+    private static long countUpTo(NavigableSet<SortKey> keys, long cap) {
+        long count = 0;
+        Iterator<SortKey> iterator = keys.iterator();
+        while (iterator.hasNext() && count <= cap) {
+            iterator.next();
+            count++;
+        }
+        return count;
+    }
+
+    private static List<String> criteria(TaskQuery query) {
+        List<String> criteria = new ArrayList<>();
+        if (!query.statuses().isEmpty()) {
+            criteria.add("status");
+        }
+        if (!query.priorities().isEmpty()) {
+            criteria.add("priority");
+        }
+        if (query.hasDueRange()) {
+            criteria.add("dueDate");
+        }
+        if (query.hasCreatedRange()) {
+            criteria.add("createdAt");
+        }
+        return criteria;
+    }
+
+    private static Predicate<CompactTask> matcher(TaskQuery query) {
+        Set<Task.TaskStatus> statuses = query.statuses();
+        Set<Task.TaskPriority> priorities = query.priorities();
+        boolean dueRange = query.hasDueRange();
+        long dueFrom = SortKey.lowerBound(query.dueFrom()).value();
+        long dueTo = SortKey.upperBound(query.dueTo()).value();
+        boolean createdRange = query.hasCreatedRange();
+        long createdFrom = SortKey.lowerBound(query.createdFrom()).value();
+        long createdTo = SortKey.upperBound(query.createdTo()).value();
+        return entry -> (statuses.isEmpty() || statuses.contains(entry.status()))
+                && (priorities.isEmpty() || priorities.contains(entry.priority()))
+                && (!dueRange || (entry.dueDate() >= dueFrom && entry.dueDate() < dueTo))
+                && (!createdRange || (entry.createdAt() >= createdFrom && entry.createdAt() < createdTo));
+    }
+}
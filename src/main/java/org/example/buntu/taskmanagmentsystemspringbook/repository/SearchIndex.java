@@ -0,0 +1,233 @@
+package org.example.buntu.taskmanagmentsystemspringbook.repository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Inverted index over task titles and descriptions
+ * Maps each lower-cased token to the ids of the tasks containing it, with a weight
+ * per task (title occurrences count triple); a sorted vocabulary makes prefix lookups a range scan
+ * Results are ranked by score, best first, ties broken by id, and are encoded as
+ * SortKey(-score, id) so search pages use the same keyset cursors as findPage
+ */
+final class SearchIndex {
+
+    static final String CURSOR_SCOPE = "search";
+
+    // Shorter query terms only match whole tokens, so "a" does not expand to half the vocabulary
+    static final int MIN_PREFIX_LENGTH = 2;
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    // A whole-token match ranks above a prefix match of the same term
+    private static final int EXACT_MATCH_BOOST = 2;
+
+    // token -> (task id -> weight); mutated only through compute so the vocabulary follows it exactly
+    private final Map<String, Map<Long, Integer>> postings = new ConcurrentHashMap<>();
+    private final NavigableSet<String> vocabulary = new ConcurrentSkipListSet<>();
+
+    /**
+     * Moves a task's postings from its previous text to its current text.
+     * Must be called from inside a compute on the task id, like the other index updates.
+     */
+    void update(Long id, CompactTask previous, CompactTask current) {
+        if (previous != null && current != null
+                && Arrays.equals(previous.title(), current.title())
+                && Arrays.equals(previous.description(), current.description())) {
+            // Status, priority and date changes do not touch the text
+            return;
+        }
+        Map<String, Integer> oldWeights = previous == null ? Map.of() : weights(previous);
+        Map<String, Integer> newWeights = current == null ? Map.of() : weights(current);
+        oldWeights.forEach((token, weight) -> {
+            if (!newWeights.containsKey(token)) {
+                removePosting(token, id);
+            }
+        });
+        newWeights.forEach((token, weight) -> {
+            if (!weight.equals(oldWeights.get(token))) {
+                addPosting(token, id, weight);
+            }
+        });
+    }
+
+    /**
+     * @return up to limit keys ranked after the given key, best first
+     * @throws IllegalArgumentException if the query has no searchable characters
+     */
+    List<SortKey> search(String query, SortKey after, int limit) {
+        Set<String> terms = tokenize(query, 1).keySet();
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search query must contain letters or digits");
+        }
+        // Intersect starting from the rarest term so the candidate set only shrinks
+        List<List<Expansion>> expanded = new ArrayList<>();
+        for (String term : terms) {
+            expanded.add(expand(term));
+        }
+        expanded.sort(Comparator.comparingLong(SearchIndex::postingCount));
+
+        // Bounded max-heap: keeps the limit smallest keys, i.e. the best-ranked ones
+        PriorityQueue<SortKey> best = new PriorityQueue<>(limit + 1, Comparator.reverseOrder());
+        if (expanded.size() == 1 && expanded.get(0).size() == 1) {
+            // One whole token: its weights are the final scores, no need to accumulate them first
+            Expansion only = expanded.get(0).get(0);
+            for (Map.Entry<Long, Integer> posting : only.ids().entrySet()) {
+                offer(best, limit, after, posting.getValue() * only.boost(), posting.getKey());
+            }
+        } else {
+            Map<Long, Integer> scores = null;
+            for (List<Expansion> expansions : expanded) {
+                scores = match(expansions, scores);
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            for (Map.Entry<Long, Integer> scored : scores.entrySet()) {
+                offer(best, limit, after, scored.getValue(), scored.getKey());
+            }
+        }
+        List<SortKey> ranked = new ArrayList<>(best);
+        Collections.sort(ranked);
+        return ranked;
+    }
+
+    /**
+     * Adds the hit to the heap if it ranks after the cursor and among the best seen so far;
+     * the cheap comparisons come first because most hits of a common term are rejected
+     */
+    private static void offer(PriorityQueue<SortKey> best, int limit, SortKey after, int score, long id) {
+        long value = -score;
+        if (after != null && (value < after.value() || value == after.value() && id <= after.id())) {
+            return;
+        }
+        if (best.size() == limit) {
+            SortKey worst = best.peek();
+            if (value > worst.value() || value == worst.value() && id > worst.id()) {
+                return;
+            }
+        }
+        best.add(new SortKey(value, id));
+        if (best.size() > limit) {
+            best.poll();
+        }
+    }
+
+    /**
+     * One vocabulary token matched by a query term, with its postings
+     */
+    private record Expansion(Map<Long, Integer> ids, int boost) {
+    }
+
+    private List<Expansion> expand(String term) {
+        Collection<String> tokens = term.length() < MIN_PREFIX_LENGTH
+                ? List.of(term)
+                : vocabulary.subSet(term, true, term + Character.MAX_VALUE, false);
+        List<Expansion> expansions = new ArrayList<>();
+        for (String token : tokens) {
+            Map<Long, Integer> ids = postings.get(token);
+            // Null when the token was removed after the vocabulary scan
+            if (ids != null) {
+                expansions.add(new Expansion(ids, token.equals(term) ? EXACT_MATCH_BOOST : 1));
+            }
+        }
+        return expansions;
+    }
+
+    private static long postingCount(List<Expansion> expansions) {
+        long count = 0;
+        for (Expansion expansion : expansions) {
+            count += expansion.ids().size();
+        }
+        return count;
+    }
+
+    /**
+     * Scores every task matching one term; when candidates is given, only those
+     * tasks are kept and their previous score is carried over (AND semantics)
+     */
+    private static Map<Long, Integer> match(List<Expansion> expansions, Map<Long, Integer> candidates) {
+        Map<Long, Integer> scores = new HashMap<>();
+        if (candidates != null && (long) candidates.size() * expansions.size() < postingCount(expansions)) {
+            // Few candidates left: probing them is cheaper than scanning the postings
+            for (Map.Entry<Long, Integer> candidate : candidates.entrySet()) {
+                int score = 0;
+                for (Expansion expansion : expansions) {
+                    Integer weight = expansion.ids().get(candidate.getKey());
+                    if (weight != null) {
+                        score += weight * expansion.boost();
+                    }
+                }
+                if (score > 0) {
+                    scores.put(candidate.getKey(), candidate.getValue() + score);
+                }
+            }
+            return scores;
+        }
+        for (Expansion expansion : expansions) {
+            for (Map.Entry<Long, Integer> posting : expansion.ids().entrySet()) {
+                Long id = posting.getKey();
+                if (candidates == null || candidates.containsKey(id)) {
+                    scores.merge(id, posting.getValue() * expansion.boost(), Integer::sum);
+                }
+            }
+        }
+        if (candidates != null) {
+            scores.replaceAll((id, score) -> score + candidates.get(id));
+        }
+        return scores;
+    }
+
+    private void addPosting(String token, Long id, int weight) {
+        postings.compute(token, (key, ids) -> {
+            if (ids == null) {
+                // Most tokens are rare; start with the smallest table instead of the default 16 slots
+                ids = new ConcurrentHashMap<>(1);
+                vocabulary.add(key);
+            }
+            ids.put(id, weight);
+            return ids;
+        });
+    }
+
+    private void removePosting(String token, Long id) {
+        postings.computeIfPresent(token, (key, ids) -> {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                vocabulary.remove(key);
+                return null;
+            }
+            return ids;
+        });
+    }
+
+    private static Map<String, Integer> weights(CompactTask task) {
+        Map<String, Integer> weights = tokenize(task.titleText(), TITLE_WEIGHT);
+        tokenize(task.descriptionText(), DESCRIPTION_WEIGHT).forEach(
+                (token, weight) -> weights.merge(token, weight, Integer::sum));
+        return weights;
+    }
+
+    /**
+     * Splits on anything that is not a letter or digit and lower-cases the tokens
+     * @return token -> weight times the number of occurrences
+     */
+    static Map<String, Integer> tokenize(String text, int weight) {
+        Map<String, Integer> tokens = new LinkedHashMap<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean inWord = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                tokens.merge(text.substring(start, i).toLowerCase(Locale.ROOT), weight, Integer::sum);
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
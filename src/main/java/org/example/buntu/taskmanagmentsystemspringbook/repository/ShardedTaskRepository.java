@@ -0,0 +1,337 @@
+package org.example.buntu.taskmanagmentsystemspringbook.repository;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.QueryPlan;
+import org.example.buntu.taskmanagmentsystemspringbook.model.QueryResult;
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskPage;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskQuery;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskSort;
+import org.springframework.lang.Nullable;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Task repository partitioned over N in-memory shards
+ * Shard i issues the ids i + 1, i + 1 + N, i + 1 + 2N, ..., so every id routes to its shard
+ * with a modulo and the shards never share an id generator. New tasks go to a random shard.
+ * Single-task reads and writes touch one shard only. Scans and paged reads run on every shard
+ * at once: the calling thread takes the first shard and a dedicated ForkJoin pool the others;
+ * the per-shard results are then merged in id order (pages: in the order of their sort key).
+ * Counts and modification sequences are sums of the shards' counters, too cheap to fork for.
+ * stream() walks the shards one after another and is not ordered.
+ * A composite query's plan adds up the shard plans; access lists every index a shard chose.
+ * Purely in memory: the write-ahead log and snapshots belong to the single InMemoryTaskRepository.
+ */
+public class ShardedTaskRepository implements TaskRepository, AutoCloseable {
+
+    private final List<InMemoryTaskRepository> shards;
+    private final ForkJoinPool pool;
+
+    /**
+     * @param changeFeed shared by all shards, null when nobody follows changes
+     */
+    public ShardedTaskRepository(int shardCount, @Nullable ChangeFeed changeFeed) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        List<InMemoryTaskRepository> created = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            created.add(new InMemoryTaskRepository(changeFeed, i + 1, shardCount));
+        }
+        this.shards = List.copyOf(created);
+        // The calling thread scans one shard itself
+        this.pool = new ForkJoinPool(Math.max(1, Math.min(shardCount - 1, Runtime.getRuntime().availableProcessors())));
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    @Override
+    public List<Task> findAll() {
+        return scan(null, null);
+    }
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        return shard(id).findById(id);
+    }
+
+    @Override
+    public Task save(Task task) {
+        return (task.getId() == null ? randomShard() : shard(task.getId())).save(task);
+    }
+
+    @Override
+    public List<Task> saveAll(Collection<Task> tasks) {
+        // New tasks are dealt round-robin from a random shard, so a big batch spreads evenly
+        Map<InMemoryTaskRepository, List<Task>> batches = new LinkedHashMap<>();
+        int next = ThreadLocalRandom.current().nextInt(shards.size());
+        for (Task task : tasks) {
+            InMemoryTaskRepository shard = task.getId() == null
+                    ? shards.get(next++ % shards.size())
+                    : shard(task.getId());
+            batches.computeIfAbsent(shard, key -> new ArrayList<>()).add(task);
+        }
+        // Each shard sets the ids in place
+        batches.forEach(InMemoryTaskRepository::saveAll);
+        return new ArrayList<>(tasks);
+    }
+
+    @Override
+    public Optional<Task> update(Long id, Long expectedVersion, Consumer<Task> change) {
+        return shard(id).update(id, expectedVersion, change);
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        return shard(id).deleteById(id);
+    }
+
+    @Override
+    public Set<Long> deleteAllById(Collection<Long> ids) {
+        Map<InMemoryTaskRepository, List<Long>> batches = new LinkedHashMap<>();
+        for (Long id : ids) {
+            if (id != null) {
+                batches.computeIfAbsent(shard(id), key -> new ArrayList<>()).add(id);
+            }
+        }
+        Set<Long> removed = new HashSet<>();
+        batches.forEach((shard, batch) -> removed.addAll(shard.deleteAllById(batch)));
+        return removed;
+    }
+
+    @Override
+    public List<Task> findByStatus(Task.TaskStatus status) {
+        if (status == null) {
+            return new ArrayList<>();
+        }
+        return scan(status, null);
+    }
+
+    @Override
+    public List<Task> findByPriority(Task.TaskPriority priority) {
+        if (priority == null) {
+            return new ArrayList<>();
+        }
+        return scan(null, priority);
+    }
+
+    @Override
+    public Stream<Task> stream(Task.TaskStatus status, Task.TaskPriority priority) {
+        return shards.stream().flatMap(shard -> shard.stream(status, priority));
+    }
+
+    @Override
+    public TaskPage findPage(TaskSort sort, String cursor, int limit) {
+        List<TaskPage> pages = scatter(shard -> shard.findPage(sort, cursor, limit));
+        return merge(pages, task -> new SortKey(SortKey.valueOf(sort, task), task.getId()), sort.getParam(), limit);
+    }
+
+    @Override
+    public TaskPage search(String query, String cursor, int limit) {
+        SortKey after = cursor == null ? null : SortKey.fromCursor(SearchIndex.CURSOR_SCOPE, cursor);
+        // Scores only depend on the task itself, so the shards' rankings merge into the global one
+        List<SortKey> ranked = new ArrayList<>();
+        scatter(shard -> shard.searchKeys(query, after, limit + 1)).forEach(ranked::addAll);
+        Collections.sort(ranked);
+
+        List<Task> page = new ArrayList<>(limit);
+        SortKey last = null;
+        for (SortKey key : ranked.subList(0, Math.min(limit, ranked.size()))) {
+            // Skip tasks deleted since the index was read
+            findById(key.id()).ifPresent(page::add);
+            last = key;
+        }
+        String nextCursor = ranked.size() > limit ? last.toCursor(SearchIndex.CURSOR_SCOPE) : null;
+        return new TaskPage(page, nextCursor);
+    }
+
+    @Override
+    public TaskPage findByDueDate(LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        List<TaskPage> pages = scatter(shard -> shard.findByDueDate(from, to, cursor, limit));
+        return merge(pages, ShardedTaskRepository::dueKey, TaskSort.DUE_DATE.getParam(), limit);
+    }
+
+    @Override
+    public TaskPage findOpenByDueDate(LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        List<TaskPage> pages = scatter(shard -> shard.findOpenByDueDate(from, to, cursor, limit));
+        return merge(pages, ShardedTaskRepository::dueKey, InMemoryTaskRepository.OPEN_DUE_SCOPE, limit);
+    }
+
+    @Override
+    public QueryResult query(TaskQuery query, String cursor, int limit) {
+        List<QueryResult> results = scatter(shard -> shard.query(query, cursor, limit));
+        // Same cursor format as QueryPlanner: the id as both value and tie-breaker
+        TaskPage page = merge(results.stream().map(QueryResult::page).toList(),
+                task -> new SortKey(task.getId(), task.getId()), QueryPlanner.CURSOR_SCOPE, limit);
+        return new QueryResult(page, mergePlans(results.stream().map(QueryResult::plan).toList()));
+    }
+
+    @Override
+    public long count() {
+        long count = 0;
+        for (InMemoryTaskRepository shard : shards) {
+            count += shard.count();
+        }
+        return count;
+    }
+
+    @Override
+    public long countByStatus(Task.TaskStatus status) {
+        long count = 0;
+        for (InMemoryTaskRepository shard : shards) {
+            count += shard.countByStatus(status);
+        }
+        return count;
+    }
+
+    @Override
+    public long countByPriority(Task.TaskPriority priority) {
+        long count = 0;
+        for (InMemoryTaskRepository shard : shards) {
+            count += shard.countByPriority(priority);
+        }
+        return count;
+    }
+
+    /**
+     * Sum of the shard sequences: each only grows, so a write to any shard changes the sum
+     */
+    @Override
+    public long modificationSequence() {
+        long sequence = 0;
+        for (InMemoryTaskRepository shard : shards) {
+            sequence += shard.modificationSequence();
+        }
+        return sequence;
+    }
+
+    @Override
+    public long modificationSequenceByStatus(Task.TaskStatus status) {
+        long sequence = 0;
+        for (InMemoryTaskRepository shard : shards) {
+            sequence += shard.modificationSequenceByStatus(status);
+        }
+        return sequence;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private InMemoryTaskRepository shard(Long id) {
+        return shards.get((int) Math.floorMod(id - 1, (long) shards.size()));
+    }
+
+    private InMemoryTaskRepository randomShard() {
+        return shards.get(ThreadLocalRandom.current().nextInt(shards.size()));
+    }
+
+    /**
+     * Tasks matching the optional filters (null = any) from every shard, ordered by id
+     */
+    private List<Task> scan(Task.TaskStatus status, Task.TaskPriority priority) {
+        return mergeById(scatter(shard -> shard.stream(status, priority)
+                .sorted(Comparator.comparing(Task::getId))
+                .toList()));
+    }
+
+    /**
+     * Runs the operation on every shard in parallel and returns the results in shard order
+     */
+    private <T> List<T> scatter(Function<InMemoryTaskRepository, T> operation) {
+        List<CompletableFuture<T>> forked = new ArrayList<>(shards.size() - 1);
+        for (InMemoryTaskRepository shard : shards.subList(1, shards.size())) {
+            forked.add(CompletableFuture.supplyAsync(() -> operation.apply(shard), pool));
+        }
+        List<T> results = new ArrayList<>(shards.size());
+        results.add(operation.apply(shards.get(0)));
+        for (CompletableFuture<T> result : forked) {
+            try {
+                results.add(result.join());
+            } catch (CompletionException ex) {
+                // Surface e.g. an invalid cursor the same way the single store does
+                if (ex.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw ex;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * k-way merge of lists that are each sorted by id; shards are few, so a linear pick beats a heap
+     */
+    static List<Task> mergeById(List<List<Task>> sorted) {
+        int total = 0;
+        for (List<Task> tasks : sorted) {
+            total += tasks.size();
+        }
+        List<Task> merged = new ArrayList<>(total);
+        int[] positions = new int[sorted.size()];
+        for (int n = 0; n < total; n++) {
+            int min = -1;
+            long minId = Long.MAX_VALUE;
+            for (int s = 0; s < positions.length; s++) {
+                List<Task> tasks = sorted.get(s);
+                if (positions[s] < tasks.size() && (min < 0 || tasks.get(positions[s]).getId() < minId)) {
+                    min = s;
+                    minId = tasks.get(positions[s]).getId();
+                }
+            }
+            merged.add(sorted.get(min).get(positions[min]++));
+        }
+        return merged;
+    }
+
+    /**
+     * Combines the first page of every shard into the first limit tasks overall;
+     * the cursor is the last returned key, which every shard can seek past
+     */
+    private static TaskPage merge(List<TaskPage> pages, Function<Task, SortKey> key, String scope, int limit) {
+        List<Task> merged = new ArrayList<>();
+        boolean more = false;
+        for (TaskPage page : pages) {
+            merged.addAll(page.tasks());
+            more |= page.nextCursor() != null;
+        }
+        merged.sort(Comparator.comparing(key));
+        if (merged.size() > limit) {
+            merged = new ArrayList<>(merged.subList(0, limit));
+            more = true;
+        }
+        String nextCursor = more && !merged.isEmpty() ? key.apply(merged.get(merged.size() - 1)).toCursor(scope) : null;
+        return new TaskPage(merged, nextCursor);
+    }
+
+    private static SortKey dueKey(Task task) {
+        return new SortKey(SortKey.valueOf(TaskSort.DUE_DATE, task), task.getId());
+    }
+
+    private static QueryPlan mergePlans(List<QueryPlan> plans) {
+        Set<String> access = new LinkedHashSet<>();
+        Map<String, Long> estimates = new LinkedHashMap<>();
+        Set<String> filters = new LinkedHashSet<>();
+        long estimatedRows = 0;
+        long examinedRows = 0;
+        for (QueryPlan plan : plans) {
+            access.add(plan.access());
+            plan.estimates().forEach((index, rows) -> estimates.merge(index, rows, Long::sum));
+            filters.addAll(plan.filters());
+            estimatedRows += plan.estimatedRows();
+            examinedRows += plan.examinedRows();
+        }
+        return new QueryPlan(String.join(",", access), estimatedRows, estimates, List.copyOf(filters), examinedRows);
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.buntu.taskmanagmentsystemspringbook.repository;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskSort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Entry of an ordered index: the sort value followed by the task id as tie-breaker
+ * Also encodes/decodes the opaque cursor tokens handed out for keyset pagination
+ */
+record SortKey(long value, long id) implements Comparable<SortKey> {
+
+    // Tasks without a due date sort after every dated task
+    static final long MISSING = Long.MAX_VALUE;
+
+    @Override
+    public int compareTo(SortKey other) {
+        int byValue = Long.compare(value, other.value);
+        return byValue != 0 ? byValue : Long.compare(id, other.id);
+    }
+
+    static long valueOf(TaskSort sort, Task task) {
+        return switch (sort) {
+            case ID -> task.getId();
+            case CREATED_AT -> epochMicros(task.getCreatedAt());
+            case DUE_DATE -> epochMicros(task.getDueDate());
+            case PRIORITY -> task.getPriority() == null ? MISSING : task.getPriority().ordinal();
+        };
+    }
+
+    static long epochMicros(LocalDateTime time) {
+        if (time == null) {
+            return MISSING;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    /**
+     * First possible key at or after the given time; null means unbounded
+     */
+    static SortKey lowerBound(LocalDateTime from) {
+        // Long.MIN_VALUE ids place the bound before every task at that instant
+        return new SortKey(from == null ? Long.MIN_VALUE : epochMicros(from), Long.MIN_VALUE);
+    }
+
+    /**
+     * Exclusive bound before the given time; null means unbounded, except that
+     * tasks without a value (sorted last as MISSING) always stay outside
+     */
+    static SortKey upperBound(LocalDateTime to) {
+        return new SortKey(to == null ? MISSING : epochMicros(to), Long.MIN_VALUE);
+    }
+
+    /**
+     * Cursor format: base64url("sortParam:value:id"), so a cursor from one sort order
+     * cannot be replayed against another
+     */
+    String toCursor(TaskSort sort) {
+        return toCursor(sort.getParam());
+    }
+
+    static SortKey fromCursor(TaskSort sort, String cursor) {
+        return fromCursor(sort.getParam(), cursor);
+    }
+
+    /**
+     * @param scope what the key orders, e.g. a sort param or "search"
+     */
+    String toCursor(String scope) {
+        String raw = scope + ":" + value + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static SortKey fromCursor(String scope, String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3 || !parts[0].equals(scope)) {
+                throw new IllegalArgumentException("Cursor does not match sort: " + scope);
+            }
+            return new SortKey(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException ex) {
+            // NumberFormatException and Base64 errors are IllegalArgumentExceptions too
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, ex);
+        }
+    }
+}
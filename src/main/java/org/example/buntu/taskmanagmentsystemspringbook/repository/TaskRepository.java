@@ -1,9 +1,18 @@
 package org.example.buntu.taskmanagmentsystemspringbook.repository;
 
 // TaskRepository.java (Interface)
+import org.example.buntu.taskmanagmentsystemspringbook.model.QueryResult;
 import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskPage;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskQuery;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskSort;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Task Repository Interface
@@ -13,7 +22,56 @@ public interface TaskRepository {
     List<Task> findAll();
     Optional<Task> findById(Long id);
     Task save(Task task);
+    List<Task> saveAll(Collection<Task> tasks);
+    /**
+     * Applies change to a copy of the stored task and swaps it in atomically,
+     * bumping the version; no other write to the task can interleave
+     * @param expectedVersion the version the caller based the change on, null to accept any
+     * @return the updated task, empty when there is no task with this id
+     * @throws VersionConflictException if the stored version differs from expectedVersion
+     */
+    Optional<Task> update(Long id, Long expectedVersion, Consumer<Task> change);
     boolean deleteById(Long id);
+    /**
+     * Deletes every existing task in ids and returns the ids that were actually removed
+     */
+    Set<Long> deleteAllById(Collection<Long> ids);
     List<Task> findByStatus(Task.TaskStatus status);
     List<Task> findByPriority(Task.TaskPriority priority);
+    /**
+     * Lazily streams tasks matching the optional filters (null = any)
+     * without copying them into a list first
+     */
+    Stream<Task> stream(Task.TaskStatus status, Task.TaskPriority priority);
+    TaskPage findPage(TaskSort sort, String cursor, int limit);
+    /**
+     * Ranked keyword search over title and description; every query term must
+     * match a whole word or, from two characters on, the start of one
+     */
+    TaskPage search(String query, String cursor, int limit);
+    /**
+     * Tasks due in [from, to), earliest first; a null bound is open,
+     * tasks without a due date are never returned
+     */
+    TaskPage findByDueDate(LocalDateTime from, LocalDateTime to, String cursor, int limit);
+    /**
+     * Like findByDueDate, restricted to tasks that are neither completed nor cancelled
+     */
+    TaskPage findOpenByDueDate(LocalDateTime from, LocalDateTime to, String cursor, int limit);
+    /**
+     * Tasks matching every given criterion, ordered by id, plus the plan used to find them
+     */
+    QueryResult query(TaskQuery query, String cursor, int limit);
+    long count();
+    long countByStatus(Task.TaskStatus status);
+    long countByPriority(Task.TaskPriority priority);
+    /**
+     * Incremented after every save, update and delete has become visible;
+     * the same value on two reads means nothing was written in between
+     */
+    long modificationSequence();
+    /**
+     * Like modificationSequence, counting only writes to tasks that had or now have this status
+     */
+    long modificationSequenceByStatus(Task.TaskStatus status);
 }
\ No newline at end of file
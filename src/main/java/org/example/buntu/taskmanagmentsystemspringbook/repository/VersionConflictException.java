@@ -0,0 +1,31 @@
+package org.example.buntu.taskmanagmentsystemspringbook.repository;
+
+/**
+ * Thrown when a conditional update names a version the task no longer has
+ * Conflicts are an expected outcome under contention, so no stack trace is captured
+ */
+public class VersionConflictException extends RuntimeException {
+
+    private final long id;
+    private final long expectedVersion;
+    private final long currentVersion;
+
+    public VersionConflictException(long id, long expectedVersion, long currentVersion) {
+        super("Task " + id + " is at version " + currentVersion + ", not " + expectedVersion, null, false, false);
+        this.id = id;
+        this.expectedVersion = expectedVersion;
+        this.currentVersion = currentVersion;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+}
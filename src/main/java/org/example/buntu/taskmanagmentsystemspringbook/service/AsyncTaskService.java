@@ -0,0 +1,24 @@
+package org.example.buntu.taskmanagmentsystemspringbook.service;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.BatchItemResult;
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskPatch;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous variant of the TaskService write operations
+ * These are the calls that block on I/O when persistence is enabled (appending to
+ * the write-ahead log and, with ALWAYS durability, waiting for the fsync); the
+ * futures complete on the application task executor instead of the caller's thread
+ * Failures complete the future exceptionally with the TaskService exception
+ */
+public interface AsyncTaskService {
+    CompletableFuture<Task> createTask(Task task);
+    CompletableFuture<Task> updateTask(Long id, Task task, Long expectedVersion);
+    CompletableFuture<Task> patchTask(Long id, TaskPatch patch, Long expectedVersion);
+    CompletableFuture<Boolean> deleteTask(Long id);
+    CompletableFuture<List<BatchItemResult>> createTasks(List<Task> tasks);
+    CompletableFuture<List<BatchItemResult>> updateTasks(List<Task> tasks);
+    CompletableFuture<List<BatchItemResult>> deleteTasks(List<Long> ids);
+}
@@ -0,0 +1,65 @@
+package org.example.buntu.taskmanagmentsystemspringbook.service;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.BatchItemResult;
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskPatch;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Async Task Service Implementation
+ * Runs each TaskService call on Spring Boot's application task executor, which
+ * hands out a virtual thread per call when spring.threads.virtual.enabled=true
+ * and uses the bounded spring.task.execution.pool otherwise
+ */
+@Service
+public class AsyncTaskServiceImpl implements AsyncTaskService {
+
+    private final TaskService taskService;
+    private final Executor executor;
+
+    @Autowired
+    public AsyncTaskServiceImpl(TaskService taskService, @Qualifier("applicationTaskExecutor") Executor executor) {
+        this.taskService = taskService;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Task> createTask(Task task) {
+        return CompletableFuture.supplyAsync(() -> taskService.createTask(task), executor);
+    }
+
+    @Override
+    public CompletableFuture<Task> updateTask(Long id, Task task, Long expectedVersion) {
+        return CompletableFuture.supplyAsync(() -> taskService.updateTask(id, task, expectedVersion), executor);
+    }
+
+    @Override
+    public CompletableFuture<Task> patchTask(Long id, TaskPatch patch, Long expectedVersion) {
+        return CompletableFuture.supplyAsync(() -> taskService.patchTask(id, patch, expectedVersion), executor);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> deleteTask(Long id) {
+        return CompletableFuture.supplyAsync(() -> taskService.deleteTask(id), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<BatchItemResult>> createTasks(List<Task> tasks) {
+        return CompletableFuture.supplyAsync(() -> taskService.createTasks(tasks), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<BatchItemResult>> updateTasks(List<Task> tasks) {
+        return CompletableFuture.supplyAsync(() -> taskService.updateTasks(tasks), executor);
+    }
+
+    @Override
+    public CompletableFuture<List<BatchItemResult>> deleteTasks(List<Long> ids) {
+        return CompletableFuture.supplyAsync(() -> taskService.deleteTasks(ids), executor);
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.buntu.taskmanagmentsystemspringbook.service;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.ChangeBatch;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Task Change Service Interface
+ * Follows the change feed without polling: long-poll waiters and streaming
+ * subscribers hold no thread while nothing changes
+ */
+public interface TaskChangeService {
+    long getLastSequence();
+    /**
+     * Changes after since, at most limit, without waiting
+     */
+    ChangeBatch getChanges(long since, int limit);
+    /**
+     * Completes as soon as there is a change after since (or a resync is needed),
+     * or with an empty batch once timeout has passed
+     */
+    CompletableFuture<ChangeBatch> awaitChanges(long since, int limit, Duration timeout);
+    /**
+     * Delivers every change after since to listener, batch by batch and never concurrently,
+     * until the subscription is cancelled or the listener throws
+     */
+    Subscription subscribe(long since, ChangeListener listener);
+
+    @FunctionalInterface
+    interface ChangeListener {
+        void onChanges(ChangeBatch batch) throws Exception;
+    }
+
+    interface Subscription {
+        void cancel();
+    }
+}
@@ -0,0 +1,160 @@
+package org.example.buntu.taskmanagmentsystemspringbook.service;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.ChangeBatch;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.ChangeFeed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Task Change Service Implementation
+ * Waiters and subscribers are plain objects in concurrent sets. A publish on the feed only
+ * schedules one dispatch on the application task executor (repeated publishes coalesce);
+ * the dispatch completes the waiters behind the feed and starts a delivery for each
+ * subscriber behind it, so a slow subscriber never holds up the others or the writer.
+ */
+@Service
+public class TaskChangeServiceImpl implements TaskChangeService {
+
+    static final int MAX_BATCH_SIZE = 1000;
+
+    private final ChangeFeed changeFeed;
+    private final Executor executor;
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
+
+    @Autowired
+    public TaskChangeServiceImpl(ChangeFeed changeFeed, @Qualifier("applicationTaskExecutor") Executor executor) {
+        this.changeFeed = changeFeed;
+        this.executor = executor;
+        changeFeed.addListener(this::changed);
+    }
+
+    @Override
+    public long getLastSequence() {
+        return changeFeed.lastSequence();
+    }
+
+    @Override
+    public ChangeBatch getChanges(long since, int limit) {
+        return changeFeed.since(since, batchSize(limit));
+    }
+
+    @Override
+    public CompletableFuture<ChangeBatch> awaitChanges(long since, int limit, Duration timeout) {
+        ChangeBatch batch = getChanges(since, limit);
+        if (!batch.changes().isEmpty() || batch.resync()) {
+            return CompletableFuture.completedFuture(batch);
+        }
+        Waiter waiter = new Waiter(since, batchSize(limit), new CompletableFuture<>());
+        waiters.add(waiter);
+        waiter.future()
+                .completeOnTimeout(new ChangeBatch(List.of(), since, false), timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> waiters.remove(waiter));
+        // A change published between the read above and add() found no waiter to wake
+        if (changeFeed.lastSequence() != since) {
+            wake(waiter);
+        }
+        return waiter.future();
+    }
+
+    @Override
+    public Subscription subscribe(long since, ChangeListener listener) {
+        Subscriber subscriber = new Subscriber(since, listener);
+        subscribers.add(subscriber);
+        subscriber.schedule();
+        return subscriber;
+    }
+
+    /**
+     * Runs on the writing thread right after the repository's write: only schedules the dispatch
+     */
+    private void changed() {
+        if ((!waiters.isEmpty() || !subscribers.isEmpty()) && dispatchScheduled.compareAndSet(false, true)) {
+            executor.execute(this::dispatch);
+        }
+    }
+
+    private void dispatch() {
+        // Cleared first: a publish from here on schedules another dispatch
+        dispatchScheduled.set(false);
+        long last = changeFeed.lastSequence();
+        for (Waiter waiter : waiters) {
+            if (waiter.since() != last) {
+                wake(waiter);
+            }
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.cursor != last) {
+                subscriber.schedule();
+            }
+        }
+    }
+
+    private void wake(Waiter waiter) {
+        // Removal decides who completes the waiter when dispatch and registration race
+        if (waiters.remove(waiter)) {
+            waiter.future().complete(changeFeed.since(waiter.since(), waiter.limit()));
+        }
+    }
+
+    private static int batchSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_BATCH_SIZE));
+    }
+
+    private record Waiter(long since, int limit, CompletableFuture<ChangeBatch> future) {
+    }
+
+    private final class Subscriber implements Subscription {
+
+        private final ChangeListener listener;
+        private final AtomicBoolean delivering = new AtomicBoolean();
+        private volatile long cursor;
+
+        Subscriber(long since, ChangeListener listener) {
+            this.cursor = since;
+            this.listener = listener;
+        }
+
+        void schedule() {
+            if (delivering.compareAndSet(false, true)) {
+                executor.execute(this::deliver);
+            }
+        }
+
+        private void deliver() {
+            try {
+                do {
+                    while (isActive() && cursor != changeFeed.lastSequence()) {
+                        ChangeBatch batch = changeFeed.since(cursor, MAX_BATCH_SIZE);
+                        listener.onChanges(batch);
+                        cursor = batch.lastSequence();
+                    }
+                    delivering.set(false);
+                    // Re-check: a dispatch that ran while this delivery was finishing skipped scheduling
+                } while (isActive() && cursor != changeFeed.lastSequence() && delivering.compareAndSet(false, true));
+            } catch (Exception ex) {
+                cancel();
+            }
+        }
+
+        private boolean isActive() {
+            return subscribers.contains(this);
+        }
+
+        @Override
+        public void cancel() {
+            subscribers.remove(this);
+        }
+    }
+}
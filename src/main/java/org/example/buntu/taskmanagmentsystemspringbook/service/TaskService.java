@@ -1,7 +1,17 @@
 package org.example.buntu.taskmanagmentsystemspringbook.service;
 
+import org.example.buntu.taskmanagmentsystemspringbook.model.AnalyticsResponse;
+import org.example.buntu.taskmanagmentsystemspringbook.model.BatchItemResult;
+import org.example.buntu.taskmanagmentsystemspringbook.model.QueryResult;
 import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskPage;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskPatch;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskQuery;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskSort;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Task Service Interface
@@ -9,11 +19,40 @@ import java.util.List;
  */
 public interface TaskService {
     List<Task> getAllTasks();
+    TaskPage getTaskPage(TaskSort sort, String cursor, int limit);
+    TaskPage searchTasks(String query, String cursor, int limit);
+    TaskPage getTasksDueBetween(LocalDateTime from, LocalDateTime to, String cursor, int limit);
+    TaskPage getOverdueTasks(String cursor, int limit);
+    QueryResult queryTasks(TaskQuery query, String cursor, int limit);
     Task getTaskById(Long id);
     Task createTask(Task task);
     Task updateTask(Long id, Task task);
+    /**
+     * Replaces the task's fields only if it is still at expectedVersion (null = any version)
+     */
+    Task updateTask(Long id, Task task, Long expectedVersion);
+    Task patchTask(Long id, TaskPatch patch, Long expectedVersion);
     boolean deleteTask(Long id);
+    List<BatchItemResult> createTasks(List<Task> tasks);
+    List<BatchItemResult> updateTasks(List<Task> tasks);
+    List<BatchItemResult> deleteTasks(List<Long> ids);
     List<Task> getTasksByStatus(Task.TaskStatus status);
     List<Task> getTasksByPriority(Task.TaskPriority priority);
+    Stream<Task> streamTasks(Task.TaskStatus status, Task.TaskPriority priority);
     long getTaskCount();
+    long getTaskCountByStatus(Task.TaskStatus status);
+    long getTaskCountByPriority(Task.TaskPriority priority);
+    /**
+     * Changes whenever any task is written; see TaskRepository.modificationSequence
+     */
+    long getModificationSequence();
+    /**
+     * Changes whenever a task with this status, before or after the write, is written
+     */
+    long getModificationSequenceByStatus(Task.TaskStatus status);
+    /**
+     * Tasks created and completed per step and time in status over the last window, from
+     * buckets kept as tasks are written: constant time whatever the number of tasks
+     */
+    AnalyticsResponse getAnalytics(Duration window, Duration step);
 }
\ No newline at end of file
@@ -1,29 +1,61 @@
 package org.example.buntu.taskmanagmentsystemspringbook.service;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.example.buntu.taskmanagmentsystemspringbook.analytics.TaskAnalytics;
+import org.example.buntu.taskmanagmentsystemspringbook.model.AnalyticsResponse;
+import org.example.buntu.taskmanagmentsystemspringbook.model.BatchItemResult;
+import org.example.buntu.taskmanagmentsystemspringbook.model.QueryResult;
 import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskPage;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskPatch;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskQuery;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskSort;
 import org.example.buntu.taskmanagmentsystemspringbook.repository.TaskRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Task Service Implementation
  * Contains business logic for task operations
+ * Creates, status changes and deletes are also recorded in TaskAnalytics
  * @Service annotation makes this a Spring-managed service bean
  */
 @Service
 public class TaskServiceImpl implements TaskService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_BATCH_SIZE = 1000;
+
     private final TaskRepository taskRepository;
+    private final Validator validator;
+    private final TaskAnalytics analytics;
+
+    public TaskServiceImpl(TaskRepository taskRepository, Validator validator) {
+        this(taskRepository, validator, new TaskAnalytics());
+    }
 
     /**
      * Constructor-based Dependency Injection
-     * Spring will automatically inject TaskRepository implementation
+     * Spring will automatically inject TaskRepository implementation,
+     * the Bean Validation validator used for batch items and the analytics
      */
     @Autowired
-    public TaskServiceImpl(TaskRepository taskRepository) {
+    public TaskServiceImpl(TaskRepository taskRepository, Validator validator, TaskAnalytics analytics) {
         this.taskRepository = taskRepository;
+        this.validator = validator;
+        this.analytics = analytics;
     }
 
     @Override
@@ -31,6 +63,38 @@ public class TaskServiceImpl implements TaskService {
         return taskRepository.findAll();
     }
 
+    @Override
+    public TaskPage getTaskPage(TaskSort sort, String cursor, int limit) {
+        return taskRepository.findPage(sort == null ? TaskSort.ID : sort, cursor, pageSize(limit));
+    }
+
+    @Override
+    public TaskPage searchTasks(String query, String cursor, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        return taskRepository.search(query, cursor, pageSize(limit));
+    }
+
+    @Override
+    public TaskPage getTasksDueBetween(LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        checkRange("from", from, "to", to);
+        return taskRepository.findByDueDate(from, to, cursor, pageSize(limit));
+    }
+
+    @Override
+    public TaskPage getOverdueTasks(String cursor, int limit) {
+        // Business logic: overdue = still open and due before now
+        return taskRepository.findOpenByDueDate(null, LocalDateTime.now(), cursor, pageSize(limit));
+    }
+
+    @Override
+    public QueryResult queryTasks(TaskQuery query, String cursor, int limit) {
+        checkRange("dueFrom", query.dueFrom(), "dueTo", query.dueTo());
+        checkRange("createdFrom", query.createdFrom(), "createdTo", query.createdTo());
+        return taskRepository.query(query, cursor, pageSize(limit));
+    }
+
     @Override
     public Task getTaskById(Long id) {
         return taskRepository.findById(id)
@@ -40,39 +104,115 @@ public class TaskServiceImpl implements TaskService {
     @Override
     public Task createTask(Task task) {
         // Business logic: validate and set defaults
-        if (task.getStatus() == null) {
-            task.setStatus(Task.TaskStatus.TODO);
-        }
-        if (task.getPriority() == null) {
-            task.setPriority(Task.TaskPriority.MEDIUM);
-        }
-        task.setCreatedAt(LocalDateTime.now());
-        task.setUpdatedAt(LocalDateTime.now());
-
-        return taskRepository.save(task);
+        applyDefaults(task);
+        Task saved = taskRepository.save(task);
+        analytics.recordCreated(saved);
+        return saved;
     }
 
     @Override
     public Task updateTask(Long id, Task updatedTask) {
-        Task existingTask = getTaskById(id);
+        return updateTask(id, updatedTask, null);
+    }
 
-        // Update fields
-        existingTask.setTitle(updatedTask.getTitle());
-        existingTask.setDescription(updatedTask.getDescription());
-        existingTask.setStatus(updatedTask.getStatus());
-        existingTask.setPriority(updatedTask.getPriority());
-        existingTask.setDueDate(updatedTask.getDueDate());
-        existingTask.setUpdatedAt(LocalDateTime.now());
+    @Override
+    public Task updateTask(Long id, Task updatedTask, Long expectedVersion) {
+        // The change runs on the repository's private copy inside its atomic swap
+        return update(id, expectedVersion, existingTask -> applyUpdate(existingTask, updatedTask))
+                .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + id));
+    }
 
-        return taskRepository.save(existingTask);
+    @Override
+    public Task patchTask(Long id, TaskPatch patch, Long expectedVersion) {
+        if (patch.isEmpty()) {
+            throw new IllegalArgumentException("Patch must change at least one field");
+        }
+        if (patch.title() != null && patch.title().isBlank()) {
+            throw new IllegalArgumentException("Title must not be blank");
+        }
+        return update(id, expectedVersion, existingTask -> applyPatch(existingTask, patch))
+                .orElseThrow(() -> new TaskNotFoundException("Task not found with id: " + id));
     }
 
     @Override
     public boolean deleteTask(Long id) {
-        if (taskRepository.findById(id).isEmpty()) {
+        // deleteById reports whether the task existed, no separate lookup needed
+        if (!taskRepository.deleteById(id)) {
             throw new TaskNotFoundException("Task not found with id: " + id);
         }
-        return taskRepository.deleteById(id);
+        analytics.recordDeleted(id);
+        return true;
+    }
+
+    @Override
+    public List<BatchItemResult> createTasks(List<Task> tasks) {
+        checkBatchSize(tasks.size());
+        BatchItemResult[] results = new BatchItemResult[tasks.size()];
+
+        // Validate everything first, then store the valid items in one repository call
+        List<Task> valid = new ArrayList<>(tasks.size());
+        List<Integer> validIndexes = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            String error = validate(task);
+            if (error != null) {
+                results[i] = BatchItemResult.failure(i, null, error);
+                continue;
+            }
+            // Ids are always assigned by the repository on create
+            task.setId(null);
+            applyDefaults(task);
+            valid.add(task);
+            validIndexes.add(i);
+        }
+
+        List<Task> saved = taskRepository.saveAll(valid);
+        for (int i = 0; i < saved.size(); i++) {
+            analytics.recordCreated(saved.get(i));
+            results[validIndexes.get(i)] = BatchItemResult.success(validIndexes.get(i), saved.get(i));
+        }
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public List<BatchItemResult> updateTasks(List<Task> tasks) {
+        checkBatchSize(tasks.size());
+        List<BatchItemResult> results = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (task == null || task.getId() == null) {
+                results.add(BatchItemResult.failure(i, null, "Task id is required"));
+                continue;
+            }
+            String error = validate(task);
+            if (error != null) {
+                results.add(BatchItemResult.failure(i, task.getId(), error));
+                continue;
+            }
+            // Same atomic swap as a single PUT: a task deleted meanwhile is reported, never re-created
+            Optional<Task> updated = update(task.getId(), null, existingTask -> applyUpdate(existingTask, task));
+            int index = i;
+            results.add(updated
+                    .map(saved -> BatchItemResult.success(index, saved))
+                    .orElseGet(() -> BatchItemResult.failure(index, task.getId(), "Task not found with id: " + task.getId())));
+        }
+        return results;
+    }
+
+    @Override
+    public List<BatchItemResult> deleteTasks(List<Long> ids) {
+        checkBatchSize(ids.size());
+        Set<Long> removed = taskRepository.deleteAllById(ids);
+        removed.forEach(analytics::recordDeleted);
+
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            results.add(id != null && removed.contains(id)
+                    ? BatchItemResult.deleted(i, id)
+                    : BatchItemResult.failure(i, id, "Task not found with id: " + id));
+        }
+        return results;
     }
 
     @Override
@@ -85,17 +225,139 @@ public class TaskServiceImpl implements TaskService {
         return taskRepository.findByPriority(priority);
     }
 
+    @Override
+    public Stream<Task> streamTasks(Task.TaskStatus status, Task.TaskPriority priority) {
+        return taskRepository.stream(status, priority);
+    }
+
     @Override
     public long getTaskCount() {
-        return taskRepository.findAll().size();
+        return taskRepository.count();
+    }
+
+    @Override
+    public long getTaskCountByStatus(Task.TaskStatus status) {
+        return taskRepository.countByStatus(status);
+    }
+
+    @Override
+    public long getTaskCountByPriority(Task.TaskPriority priority) {
+        return taskRepository.countByPriority(priority);
+    }
+
+    @Override
+    public long getModificationSequence() {
+        return taskRepository.modificationSequence();
+    }
+
+    @Override
+    public long getModificationSequenceByStatus(Task.TaskStatus status) {
+        return taskRepository.modificationSequenceByStatus(status);
+    }
+
+    @Override
+    public AnalyticsResponse getAnalytics(Duration window, Duration step) {
+        return analytics.query(window, step);
+    }
+
+    /**
+     * Runs change inside the repository's atomic swap and records the status it replaced
+     */
+    private Optional<Task> update(Long id, Long expectedVersion, Consumer<Task> change) {
+        Task.TaskStatus[] previousStatus = new Task.TaskStatus[1];
+        Long[] previousVersion = new Long[1];
+        Optional<Task> updated = taskRepository.update(id, expectedVersion, existingTask -> {
+            previousStatus[0] = existingTask.getStatus();
+            previousVersion[0] = existingTask.getVersion();
+            change.accept(existingTask);
+        });
+        updated.ifPresent(task -> analytics.recordUpdated(previousStatus[0], previousVersion[0], task));
+        return updated;
+    }
+
+    /**
+     * Business logic: keep pages bounded whatever the client asks for
+     */
+    public static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private static void checkRange(String fromName, LocalDateTime from, String toName, LocalDateTime to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("'" + fromName + "' must not be after '" + toName + "'");
+        }
+    }
+
+    private void applyDefaults(Task task) {
+        if (task.getStatus() == null) {
+            task.setStatus(Task.TaskStatus.TODO);
+        }
+        if (task.getPriority() == null) {
+            task.setPriority(Task.TaskPriority.MEDIUM);
+        }
+        task.setCreatedAt(LocalDateTime.now());
+        task.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private void applyUpdate(Task existingTask, Task updatedTask) {
+        existingTask.setTitle(updatedTask.getTitle());
+        existingTask.setDescription(updatedTask.getDescription());
+        existingTask.setStatus(updatedTask.getStatus());
+        existingTask.setPriority(updatedTask.getPriority());
+        existingTask.setDueDate(updatedTask.getDueDate());
+        existingTask.setUpdatedAt(LocalDateTime.now());
+    }
+
+    private void applyPatch(Task existingTask, TaskPatch patch) {
+        if (patch.title() != null) {
+            existingTask.setTitle(patch.title());
+        }
+        if (patch.description() != null) {
+            existingTask.setDescription(patch.description());
+        }
+        if (patch.status() != null) {
+            existingTask.setStatus(patch.status());
+        }
+        if (patch.priority() != null) {
+            existingTask.setPriority(patch.priority());
+        }
+        if (patch.dueDate() != null) {
+            existingTask.setDueDate(patch.dueDate());
+        }
+        existingTask.setUpdatedAt(LocalDateTime.now());
+    }
+
+    /**
+     * Bean Validation for batch items, which cannot use @Valid per element
+     * without failing the whole request; returns null when the task is valid
+     */
+    private String validate(Task task) {
+        if (task == null) {
+            return "Task is required";
+        }
+        Set<ConstraintViolation<Task>> violations = validator.validate(task);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private void checkBatchSize(int size) {
+        if (size > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch size " + size + " exceeds the maximum of " + MAX_BATCH_SIZE);
+        }
     }
 
     /**
      * Custom Exception for Task Not Found scenarios
+     * An expected outcome answered with 404, not a failure: thrown without capturing a stack trace
      */
     public static class TaskNotFoundException extends RuntimeException {
         public TaskNotFoundException(String message) {
-            super(message);
+            super(message, null, false, false);
         }
     }
 }
\ No newline at end of file
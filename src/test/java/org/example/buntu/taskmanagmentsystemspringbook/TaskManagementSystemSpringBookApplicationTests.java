@@ -1,13 +1,40 @@
 package org.example.buntu.taskmanagmentsystemspringbook;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
 class TaskManagementSystemSpringBookApplicationTests {
 
+    @Autowired
+    private MockMvc mockMvc;
+
     @Test
     void contextLoads() {
     }
 
+    @Test
+    void prometheusEndpoint_exposesTaskMetrics() throws Exception {
+        mockMvc.perform(get("/tasks/stats")).andExpect(status().isOk());
+        mockMvc.perform(get("/tasks/999999")).andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")))
+                .andExpect(content().string(containsString("uri=\"/tasks/stats\"")))
+                .andExpect(content().string(containsString("tasks_repository_operations_seconds_bucket{")))
+                .andExpect(content().string(containsString("tasks_store_status{status=\"TODO\"}")))
+                .andExpect(content().string(containsString("tasks_errors_total{exception=\"TaskNotFoundException\"}")));
+    }
 }
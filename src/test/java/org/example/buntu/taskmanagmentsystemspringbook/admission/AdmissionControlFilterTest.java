@@ -0,0 +1,234 @@
+package org.example.buntu.taskmanagmentsystemspringbook.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch finish = new CountDownLatch(1);
+    private AdmissionProperties properties;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AdmissionProperties();
+        properties.setPoint(new AdmissionProperties.Limit(1, 1, 5000));
+        properties.setScan(new AdmissionProperties.Limit(1, 4, 5000));
+        properties.setBulk(new AdmissionProperties.Limit(1, 0, 5000));
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        finish.countDown();
+        executor.close();
+    }
+
+    @Test
+    void requestClass_byPath() {
+        assertEquals(RequestClass.POINT, RequestClass.of("/tasks/42"));
+        assertEquals(RequestClass.POINT, RequestClass.of("/tasks/create"));
+        assertEquals(RequestClass.SCAN, RequestClass.of("/tasks/all"));
+        assertEquals(RequestClass.SCAN, RequestClass.of("/tasks/status/TODO"));
+        assertEquals(RequestClass.BULK, RequestClass.of("/tasks/batch"));
+        assertEquals(RequestClass.BULK, RequestClass.of("/tasks/export"));
+        assertNull(RequestClass.of("/tasks/changes"));
+        assertNull(RequestClass.of("/actuator/health"));
+    }
+
+    @Test
+    void fullClass_rejectsWith503AndRetryAfter() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, objectMapper, registry);
+        CountDownLatch started = new CountDownLatch(1);
+        Future<MockHttpServletResponse> held = executor.submit(() -> perform(filter, "GET", "/tasks/export", blocking(started)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected = perform(filter, "GET", "/tasks/export", (request, response) -> fail("admitted"));
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertEquals(503, objectMapper.readTree(rejected.getContentAsString()).path("code").asInt());
+        // Other classes have their own capacity
+        assertEquals(200, perform(filter, "GET", "/tasks/7", (request, response) -> { }).getStatus());
+        finish.countDown();
+        assertEquals(200, held.get(5, TimeUnit.SECONDS).getStatus());
+        assertEquals(200, perform(filter, "GET", "/tasks/export", (request, response) -> { }).getStatus());
+        assertEquals(1.0, registry.counter("tasks.admission.rejected", "class", "BULK", "reason", "queue").count());
+    }
+
+    @Test
+    void pathVariants_classifiedLikeTheHandlerTheyReach() throws Exception {
+        properties.setScan(new AdmissionProperties.Limit(1, 0, 5000));
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, objectMapper, registry);
+        CountDownLatch started = new CountDownLatch(1);
+        Future<MockHttpServletResponse> held = executor.submit(() -> perform(filter, "GET", "/tasks/all", blocking(started)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        for (String path : List.of("/tasks/all;x=1", "/tasks;x=1/all", "/tasks/%61ll", "//tasks//all", "/tasks/all/")) {
+            assertEquals(503, perform(filter, "GET", path, (request, response) -> fail("admitted")).getStatus(), path);
+        }
+        assertEquals(200, perform(filter, "GET", "/tasks/7;x=1", (request, response) -> { }).getStatus());
+        finish.countDown();
+        assertEquals(200, held.get(5, TimeUnit.SECONDS).getStatus());
+    }
+
+    @Test
+    void queuedRequest_admittedWhenAPermitFrees() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, objectMapper, registry);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.submit(() -> perform(filter, "GET", "/tasks/all", blocking(started)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Future<MockHttpServletResponse> queued = executor.submit(() -> perform(filter, "GET", "/tasks/all",
+                (request, response) -> { }));
+        awaitQueued("SCAN", 1);
+        finish.countDown();
+
+        assertEquals(200, queued.get(5, TimeUnit.SECONDS).getStatus());
+    }
+
+    @Test
+    void scans_shedWhilePointRequestsQueue() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, objectMapper, registry);
+        CountDownLatch started = new CountDownLatch(2);
+        executor.submit(() -> perform(filter, "GET", "/tasks/1", blocking(started)));
+        executor.submit(() -> perform(filter, "GET", "/tasks/all", blocking(started)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.submit(() -> perform(filter, "GET", "/tasks/2", (request, response) -> { }));
+        awaitQueued("POINT", 1);
+
+        // The scan queue has room, but a point request is waiting
+        MockHttpServletResponse shed = perform(filter, "GET", "/tasks/stats", (request, response) -> fail("admitted"));
+
+        assertEquals(503, shed.getStatus());
+        assertEquals(1.0, registry.counter("tasks.admission.rejected", "class", "SCAN", "reason", "shed").count());
+        assertEquals(0, registry.get("tasks.admission.queued").tag("class", "SCAN").gauge().value());
+    }
+
+    @Test
+    void asyncRequest_holdsPermitUntilComplete() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, objectMapper, registry);
+        MockHttpServletRequest request = request("POST", "/tasks/batch");
+        request.setAsyncSupported(true);
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertEquals(503, perform(filter, "POST", "/tasks/batch", (req, res) -> fail("admitted")).getStatus());
+        request.getAsyncContext().complete();
+        assertEquals(200, perform(filter, "POST", "/tasks/batch", (req, res) -> { }).getStatus());
+    }
+
+    @Test
+    void clientRateLimit_429WhenBucketEmpty() throws Exception {
+        properties.getClientRateLimit().setEnabled(true);
+        properties.getClientRateLimit().setRequestsPerSecond(0.5);
+        properties.getClientRateLimit().setBurst(2);
+        properties.getClientRateLimit().setTrustedProxies(List.of("10.0.0.1"));
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, objectMapper, registry);
+
+        assertEquals(200, performAs(filter, "a").getStatus());
+        assertEquals(200, performAs(filter, "a").getStatus());
+        MockHttpServletResponse limited = performAs(filter, "a");
+        assertEquals(429, limited.getStatus());
+        assertTrue(Integer.parseInt(limited.getHeader("Retry-After")) >= 1);
+        assertEquals(200, performAs(filter, "b").getStatus());
+    }
+
+    @Test
+    void clientRateLimit_ignoresClientHeaderFromUntrustedAddresses() throws Exception {
+        properties.getClientRateLimit().setEnabled(true);
+        properties.getClientRateLimit().setRequestsPerSecond(0.5);
+        properties.getClientRateLimit().setBurst(2);
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, objectMapper, registry);
+
+        // A new id on every request does not get a new bucket
+        assertEquals(200, performFrom(filter, "203.0.113.9", "first").getStatus());
+        assertEquals(200, performFrom(filter, "203.0.113.9", "second").getStatus());
+        assertEquals(429, performFrom(filter, "203.0.113.9", "third").getStatus());
+        assertEquals(200, performFrom(filter, "203.0.113.10", "first").getStatus());
+    }
+
+    @Test
+    void clientRateLimit_newClientsDoNotResetActiveOnes() throws Exception {
+        properties.getClientRateLimit().setEnabled(true);
+        properties.getClientRateLimit().setRequestsPerSecond(0.001);
+        properties.getClientRateLimit().setBurst(1);
+        properties.getClientRateLimit().setMaxClients(8);
+        AdmissionControlFilter filter = new AdmissionControlFilter(properties, objectMapper, registry);
+
+        assertEquals(200, performFrom(filter, "203.0.113.1", null).getStatus());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(200, performFrom(filter, "198.51.100." + i, null).getStatus());
+            assertEquals(429, performFrom(filter, "203.0.113.1", null).getStatus(), "reset after " + i + " new clients");
+        }
+    }
+
+    private MockHttpServletResponse performAs(AdmissionControlFilter filter, String client) throws Exception {
+        return performFrom(filter, "10.0.0.1", client);
+    }
+
+    private MockHttpServletResponse performFrom(AdmissionControlFilter filter, String address, String client)
+            throws Exception {
+        MockHttpServletRequest request = request("GET", "/tasks/1");
+        request.setRemoteAddr(address);
+        if (client != null) {
+            request.addHeader("X-Client-Id", client);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> { });
+        return response;
+    }
+
+    private static MockHttpServletResponse perform(AdmissionControlFilter filter, String method, String path,
+                                                   FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, path), response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api" + path);
+        request.setContextPath("/api");
+        return request;
+    }
+
+    /**
+     * A handler that signals it is running, then blocks until the test finishes
+     */
+    private FilterChain blocking(CountDownLatch started) {
+        return (request, response) -> {
+            started.countDown();
+            try {
+                finish.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    private void awaitQueued(String requestClass, int expected) throws Exception {
+        CompletableFuture<Void> queued = CompletableFuture.runAsync(() -> {
+            while (registry.get("tasks.admission.queued").tag("class", requestClass).gauge().value() < expected) {
+                Thread.onSpinWait();
+            }
+        }, executor);
+        queued.get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,167 @@
+package org.example.buntu.taskmanagmentsystemspringbook.analytics;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.AnalyticsResponse;
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskAnalyticsTest {
+
+    private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+    // A whole hour, so the series lines up with T0
+    private static final long T0 = Instant.parse("2031-03-03T12:00:00Z").toEpochMilli();
+
+    private TaskAnalytics analytics;
+    private long nextId;
+
+    @BeforeEach
+    void setUp() {
+        // 5-minute buckets for 3 hours
+        analytics = new TaskAnalytics(5 * MINUTE, 36);
+    }
+
+    @Test
+    void countsCreatedAndCompletedPerStep() {
+        Task first = create(T0 + 2 * MINUTE);
+        Task second = create(T0 + 20 * MINUTE);
+        create(T0 + HOUR + MINUTE);
+        change(first, Task.TaskStatus.COMPLETED, T0 + HOUR + 5 * MINUTE);
+        change(second, Task.TaskStatus.CANCELLED, T0 + HOUR + 6 * MINUTE);
+
+        AnalyticsResponse response = analytics.query(Duration.ofHours(2), Duration.ofHours(1), T0 + HOUR + 30 * MINUTE);
+
+        assertEquals(dateTime(T0), response.from());
+        assertEquals(dateTime(T0 + 2 * HOUR), response.to());
+        assertEquals(3, response.created());
+        assertEquals(1, response.completed());
+        assertEquals(1, response.cancelled());
+        assertEquals(0, response.started());
+        assertEquals(2, response.series().size());
+        assertEquals(new AnalyticsResponse.Point(dateTime(T0), 2, 0), response.series().get(0));
+        assertEquals(new AnalyticsResponse.Point(dateTime(T0 + HOUR), 1, 1), response.series().get(1));
+
+        // The last hour only
+        AnalyticsResponse lastHour = analytics.query(Duration.ofHours(1), Duration.ofMinutes(5), T0 + HOUR + 30 * MINUTE);
+        assertEquals(1, lastHour.created());
+        assertEquals(12, lastHour.series().size());
+    }
+
+    @Test
+    void measuresTimeInStatusAndLeadTime() {
+        Task task = create(T0);
+        change(task, Task.TaskStatus.IN_PROGRESS, T0 + 10 * MINUTE);
+        change(task, Task.TaskStatus.COMPLETED, T0 + 70 * MINUTE);
+
+        AnalyticsResponse response = analytics.query(Duration.ofHours(2), Duration.ofHours(1), T0 + 80 * MINUTE);
+
+        AnalyticsResponse.DurationSummary todo = response.timeInStatus().get(Task.TaskStatus.TODO);
+        assertEquals(1, todo.count());
+        assertEquals(600.0, todo.meanSeconds());
+        assertWithinBin(600, todo.p50Seconds());
+        AnalyticsResponse.DurationSummary inProgress = response.timeInStatus().get(Task.TaskStatus.IN_PROGRESS);
+        assertEquals(3600.0, inProgress.meanSeconds());
+        assertWithinBin(3600, inProgress.p99Seconds());
+        assertEquals(4200.0, response.leadTime().meanSeconds());
+        assertEquals(1, response.started());
+    }
+
+    @Test
+    void percentilesFollowTheDistribution() {
+        for (int i = 0; i < 100; i++) {
+            Task task = create(T0);
+            // 90 quick ones, 10 slow ones
+            change(task, Task.TaskStatus.IN_PROGRESS, T0 + (i < 90 ? 1 : 40) * MINUTE);
+        }
+
+        AnalyticsResponse.DurationSummary todo = analytics.query(Duration.ofHours(1), Duration.ofHours(1), T0 + 50 * MINUTE)
+                .timeInStatus().get(Task.TaskStatus.TODO);
+
+        assertEquals(100, todo.count());
+        assertWithinBin(60, todo.p50Seconds());
+        assertWithinBin(60, todo.p90Seconds());
+        assertWithinBin(2400, todo.p99Seconds());
+    }
+
+    @Test
+    void tasksFromBeforeStartCountOnlyWhenUnchangedSinceCreated() {
+        Task untouched = task(T0);
+        untouched.setStatus(Task.TaskStatus.COMPLETED);
+        analytics.recordUpdated(Task.TaskStatus.TODO, 1L, untouched, T0 + 30 * MINUTE);
+        Task edited = task(T0);
+        edited.setStatus(Task.TaskStatus.COMPLETED);
+        analytics.recordUpdated(Task.TaskStatus.IN_PROGRESS, 4L, edited, T0 + 30 * MINUTE);
+
+        AnalyticsResponse response = analytics.query(Duration.ofHours(1), Duration.ofHours(1), T0 + 40 * MINUTE);
+
+        assertEquals(1800.0, response.timeInStatus().get(Task.TaskStatus.TODO).meanSeconds());
+        assertEquals(0, response.timeInStatus().get(Task.TaskStatus.IN_PROGRESS).count());
+        // Lead time only needs createdAt
+        assertEquals(2, response.leadTime().count());
+        assertEquals(2, response.completed());
+    }
+
+    @Test
+    void bucketsAreReusedAfterTheRetention() {
+        create(T0);
+        create(T0 + 3 * HOUR);
+
+        AnalyticsResponse response = analytics.query(Duration.ofHours(3), Duration.ofHours(1), T0 + 3 * HOUR);
+
+        // T0 shares its slot with T0 + 3h, and is older than the window anyway
+        assertEquals(1, response.created());
+        assertEquals(1, response.series().get(2).created());
+    }
+
+    @Test
+    void rejectsWindowsTheBucketsCannotAnswer() {
+        assertThrows(IllegalArgumentException.class,
+                () -> analytics.query(Duration.ofHours(1), Duration.ofMinutes(7), T0));
+        assertThrows(IllegalArgumentException.class,
+                () -> analytics.query(Duration.ofMinutes(50), Duration.ofMinutes(15), T0));
+        assertThrows(IllegalArgumentException.class,
+                () -> analytics.query(Duration.ofHours(4), Duration.ofHours(1), T0));
+        assertEquals(Duration.ofHours(3), analytics.getRetention());
+    }
+
+    private Task create(long now) {
+        Task task = task(now);
+        analytics.recordCreated(task, now);
+        return task;
+    }
+
+    private Task task(long createdAt) {
+        Task task = new Task("Task", "desc", Task.TaskStatus.TODO, Task.TaskPriority.MEDIUM);
+        task.setId(++nextId);
+        task.setCreatedAt(dateTime(createdAt));
+        task.setVersion(1L);
+        return task;
+    }
+
+    private void change(Task task, Task.TaskStatus status, long now) {
+        Task.TaskStatus previousStatus = task.getStatus();
+        Long previousVersion = task.getVersion();
+        task.setStatus(status);
+        task.setVersion(previousVersion + 1);
+        analytics.recordUpdated(previousStatus, previousVersion, task, now);
+    }
+
+    private static LocalDateTime dateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Percentiles are reported as the upper bound of their bin, a quarter of a doubling wide
+     */
+    private static void assertWithinBin(double expectedSeconds, double actualSeconds) {
+        assertTrue(actualSeconds >= expectedSeconds && actualSeconds <= expectedSeconds * Math.pow(2, 0.25),
+                actualSeconds + " should be within one bin above " + expectedSeconds);
+    }
+}
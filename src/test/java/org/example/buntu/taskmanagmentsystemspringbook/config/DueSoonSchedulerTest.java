@@ -0,0 +1,59 @@
+package org.example.buntu.taskmanagmentsystemspringbook.config;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskDueSoonEvent;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.InMemoryTaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DueSoonSchedulerTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2031, 3, 3, 12, 0);
+
+    private InMemoryTaskRepository repository;
+    private List<TaskDueSoonEvent> events;
+    private DueSoonScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryTaskRepository();
+        events = new ArrayList<>();
+        scheduler = new DueSoonScheduler(repository, event -> events.add((TaskDueSoonEvent) event), 3_600_000);
+    }
+
+    @Test
+    void announcesOpenTasksInsideWindowOnce() {
+        Task soon = save("Soon", Task.TaskStatus.TODO, NOW.plusMinutes(30));
+        save("Done", Task.TaskStatus.COMPLETED, NOW.plusMinutes(10));
+        save("Later", Task.TaskStatus.TODO, NOW.plusHours(2));
+        save("Already late", Task.TaskStatus.TODO, NOW.minusMinutes(5));
+
+        assertEquals(1, scheduler.publishDueSoon(NOW));
+        assertEquals(soon.getId(), events.get(0).task().getId());
+        assertEquals(0, scheduler.publishDueSoon(NOW.plusMinutes(1)));
+    }
+
+    @Test
+    void announcesAgainWhenDueDateMoves() {
+        Task task = save("Moving", Task.TaskStatus.TODO, NOW.plusMinutes(30));
+        scheduler.publishDueSoon(NOW);
+
+        task.setDueDate(NOW.plusMinutes(45));
+        repository.save(task);
+
+        assertEquals(1, scheduler.publishDueSoon(NOW.plusMinutes(1)));
+        assertEquals(NOW.plusMinutes(45), events.get(1).dueDate());
+    }
+
+    private Task save(String title, Task.TaskStatus status, LocalDateTime dueDate) {
+        Task task = new Task(title, "desc", status, Task.TaskPriority.MEDIUM);
+        task.setDueDate(dueDate);
+        return repository.save(task);
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.buntu.taskmanagmentsystemspringbook.config;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.InMemoryTaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SampleDataLoaderTest {
+
+    private InMemoryTaskRepository repository;
+    private MockEnvironment environment;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryTaskRepository();
+        environment = new MockEnvironment();
+    }
+
+    @Test
+    void seedsOnlyWithProfile() throws Exception {
+        new SampleDataLoader(repository, environment).run(new DefaultApplicationArguments());
+        assertEquals(0, repository.count());
+
+        environment.setActiveProfiles(SampleDataLoader.PROFILE);
+        new SampleDataLoader(repository, environment).run(new DefaultApplicationArguments());
+        assertEquals(SampleDataLoader.sampleTasks().size(), repository.count());
+    }
+
+    @Test
+    void leavesExistingDataAlone() throws Exception {
+        repository.save(new Task("Recovered", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        environment.setActiveProfiles(SampleDataLoader.PROFILE);
+
+        new SampleDataLoader(repository, environment).run(new DefaultApplicationArguments());
+
+        assertEquals(1, repository.count());
+    }
+}
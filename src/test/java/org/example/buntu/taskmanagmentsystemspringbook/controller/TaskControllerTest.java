@@ -1,7 +1,25 @@
 package org.example.buntu.taskmanagmentsystemspringbook.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.buntu.taskmanagmentsystemspringbook.analytics.TaskAnalytics;
+import org.example.buntu.taskmanagmentsystemspringbook.config.BinaryFormatConfiguration;
+import org.example.buntu.taskmanagmentsystemspringbook.model.BatchItemResult;
+import org.example.buntu.taskmanagmentsystemspringbook.model.ChangeBatch;
+import org.example.buntu.taskmanagmentsystemspringbook.model.QueryPlan;
+import org.example.buntu.taskmanagmentsystemspringbook.model.QueryResult;
 import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskChange;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskPage;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskPatch;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskQuery;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskSort;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.VersionConflictException;
+import org.example.buntu.taskmanagmentsystemspringbook.service.AsyncTaskService;
+import org.example.buntu.taskmanagmentsystemspringbook.service.AsyncTaskServiceImpl;
+import org.example.buntu.taskmanagmentsystemspringbook.service.TaskChangeService;
 import org.example.buntu.taskmanagmentsystemspringbook.service.TaskService;
 import org.example.buntu.taskmanagmentsystemspringbook.service.TaskServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,27 +27,48 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TaskController.class)
-@Import(TaskControllerTest.TestConfig.class)
+@Import({TaskControllerTest.TestConfig.class, BinaryFormatConfiguration.class})
 class TaskControllerTest {
 
+    // The controller and its response cache outlive each test, so every test starts at a new sequence
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -39,19 +78,47 @@ class TaskControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private TaskChangeService taskChangeService;
+
     private Task testTask;
     private List<Task> taskList;
 
-    @Configuration
+    @TestConfiguration
     static class TestConfig {
         @Bean
         public TaskService taskService() {
             return Mockito.mock(TaskService.class);
         }
+
+        @Bean
+        public AsyncTaskService asyncTaskService(TaskService taskService) {
+            // Runs inline on the request thread; the request still goes through async dispatch
+            return new AsyncTaskServiceImpl(taskService, Runnable::run);
+        }
+
+        @Bean
+        public TaskChangeService taskChangeService() {
+            return Mockito.mock(TaskChangeService.class);
+        }
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
     }
 
     @BeforeEach
     void setUp() {
+        // The mock is a shared singleton bean, so clear stubbing left by other tests
+        Mockito.reset(taskService, taskChangeService);
+        long sequence = SEQUENCE.addAndGet(1000);
+        when(taskService.getModificationSequence()).thenReturn(sequence);
+        when(taskService.getModificationSequenceByStatus(any())).thenReturn(sequence);
+
         testTask = new Task();
         testTask.setId(1L);
         testTask.setTitle("Test Task");
@@ -59,6 +126,7 @@ class TaskControllerTest {
         testTask.setStatus(Task.TaskStatus.TODO);
         testTask.setPriority(Task.TaskPriority.MEDIUM);
         testTask.setDueDate(LocalDate.now().plusDays(7).atStartOfDay());
+        testTask.setVersion(3L);
 
         Task task2 = new Task();
         task2.setId(2L);
@@ -71,31 +139,138 @@ class TaskControllerTest {
 
     @Test
     void getAllTasks() throws Exception {
-        when(taskService.getAllTasks()).thenReturn(taskList);
+        when(taskService.getTaskPage(TaskSort.ID, null, TaskServiceImpl.DEFAULT_PAGE_SIZE))
+                .thenReturn(new TaskPage(taskList, null));
 
-        mockMvc.perform(get("/api/tasks"))
+        mockMvc.perform(get("/tasks/all"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.tasks", hasSize(2)))
                 .andExpect(jsonPath("$.count", is(2)))
                 .andExpect(jsonPath("$.status", is("success")))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist())
                 .andExpect(jsonPath("$.tasks[0].id", is(1)))
                 .andExpect(jsonPath("$.tasks[0].title", is("Test Task")))
                 .andExpect(jsonPath("$.tasks[1].id", is(2)))
                 .andExpect(jsonPath("$.tasks[1].title", is("Another Task")));
 
-        verify(taskService, times(1)).getAllTasks();
+        verify(taskService, times(1)).getTaskPage(TaskSort.ID, null, TaskServiceImpl.DEFAULT_PAGE_SIZE);
+        verify(taskService, never()).getAllTasks();
+    }
+
+    @Test
+    void getAllTasks_withCursorAndSort() throws Exception {
+        when(taskService.getTaskPage(TaskSort.DUE_DATE, "abc", 1))
+                .thenReturn(new TaskPage(List.of(testTask), "next"));
+
+        mockMvc.perform(get("/tasks/all").param("limit", "1").param("sort", "dueDate").param("after", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks", hasSize(1)))
+                .andExpect(jsonPath("$.count", is(1)))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
+    }
+
+    @Test
+    void getAllTasks_unknownSort() throws Exception {
+        mockMvc.perform(get("/tasks/all").param("sort", "title"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is("error")))
+                .andExpect(jsonPath("$.code", is(400)));
+    }
+
+    @Test
+    void searchTasks() throws Exception {
+        when(taskService.searchTasks("test ta", null, 10))
+                .thenReturn(new TaskPage(List.of(testTask), "next"));
+
+        mockMvc.perform(get("/tasks/search").param("q", "test ta").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks", hasSize(1)))
+                .andExpect(jsonPath("$.tasks[0].title", is("Test Task")))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
+    }
+
+    @Test
+    void searchTasks_missingQuery() throws Exception {
+        when(taskService.searchTasks(null, null, TaskServiceImpl.DEFAULT_PAGE_SIZE))
+                .thenThrow(new IllegalArgumentException("Search query is required"));
+
+        mockMvc.perform(get("/tasks/search"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code", is(400)));
+    }
+
+    @Test
+    void getTasksDue() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2031, 3, 3, 0, 0);
+        when(taskService.getTasksDueBetween(from, null, null, TaskServiceImpl.DEFAULT_PAGE_SIZE))
+                .thenReturn(new TaskPage(List.of(testTask), null));
+
+        mockMvc.perform(get("/tasks/due").param("from", "2031-03-03T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks", hasSize(1)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void getTasksDue_malformedDate() throws Exception {
+        mockMvc.perform(get("/tasks/due").param("to", "next tuesday"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code", is(400)));
+    }
+
+    @Test
+    void getOverdueTasks() throws Exception {
+        when(taskService.getOverdueTasks("abc", 5)).thenReturn(new TaskPage(List.of(testTask), "next"));
+
+        mockMvc.perform(get("/tasks/overdue").param("limit", "5").param("after", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks[0].title", is("Test Task")))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
+    }
+
+    @Test
+    void queryTasks_withExplain() throws Exception {
+        TaskQuery query = new TaskQuery(Set.of(Task.TaskStatus.TODO),
+                Set.of(Task.TaskPriority.HIGH, Task.TaskPriority.URGENT),
+                null, LocalDateTime.of(2031, 3, 7, 0, 0), null, null);
+        QueryPlan plan = new QueryPlan("priorityIndex", 12, Map.of("statusIndex", 40L, "priorityIndex", 12L),
+                List.of("status", "dueDate"), 12);
+        when(taskService.queryTasks(query, null, TaskServiceImpl.DEFAULT_PAGE_SIZE))
+                .thenReturn(new QueryResult(new TaskPage(List.of(testTask), null), plan));
+
+        mockMvc.perform(get("/tasks/query")
+                        .param("status", "TODO")
+                        .param("priority", "HIGH,URGENT")
+                        .param("dueTo", "2031-03-07T00:00:00")
+                        .param("explain", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks", hasSize(1)))
+                .andExpect(jsonPath("$.plan.access", is("priorityIndex")))
+                .andExpect(jsonPath("$.plan.filters", hasSize(2)));
+
+        mockMvc.perform(get("/tasks/query").param("status", "TODO").param("priority", "HIGH,URGENT")
+                        .param("dueTo", "2031-03-07T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.plan").doesNotExist());
+    }
+
+    @Test
+    void queryTasks_unknownStatus() throws Exception {
+        mockMvc.perform(get("/tasks/query").param("status", "DONE"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
     void getTaskById() throws Exception {
         when(taskService.getTaskById(1L)).thenReturn(testTask);
 
-        mockMvc.perform(get("/api/tasks/1"))
+        mockMvc.perform(get("/tasks/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.title", is("Test Task")))
                 .andExpect(jsonPath("$.description", is("Test Description")))
-                .andExpect(jsonPath("$.status", is("TODO")));
+                .andExpect(jsonPath("$.status", is("TODO")))
+                .andExpect(header().string("ETag", "\"3\""));
 
         verify(taskService, times(1)).getTaskById(1L);
     }
@@ -104,19 +279,22 @@ class TaskControllerTest {
     void getTaskById_NotFound() throws Exception {
         when(taskService.getTaskById(99L))
                 .thenThrow(new TaskServiceImpl.TaskNotFoundException("Task not found with id: 99"));
+        double before = meterRegistry.counter("tasks.errors", "exception", "TaskNotFoundException").count();
 
-        mockMvc.perform(get("/api/tasks/99"))
+        mockMvc.perform(get("/tasks/99"))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.status", is("error")))
                 .andExpect(jsonPath("$.error", containsString("Task not found")))
                 .andExpect(jsonPath("$.code", is(404)));
+
+        assertEquals(before + 1, meterRegistry.counter("tasks.errors", "exception", "TaskNotFoundException").count());
     }
 
     @Test
     void createTask() throws Exception {
         when(taskService.createTask(any(Task.class))).thenReturn(testTask);
 
-        mockMvc.perform(post("/api/tasks")
+        mockMvc.perform(post("/tasks/create")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(testTask)))
                 .andExpect(status().isCreated())
@@ -128,19 +306,85 @@ class TaskControllerTest {
         verify(taskService, times(1)).createTask(any(Task.class));
     }
 
+    @Test
+    void createTask_cborRequestAndResponse() throws Exception {
+        when(taskService.createTask(any(Task.class))).thenReturn(testTask);
+        ObjectMapper cbor = BodyFormat.CBOR.mapper(objectMapper);
+
+        byte[] body = mockMvc.perform(post("/tasks/create")
+                .contentType(MediaType.APPLICATION_CBOR)
+                .accept(MediaType.APPLICATION_CBOR)
+                .content(cbor.writeValueAsBytes(testTask)))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode response = cbor.readTree(body);
+        assertEquals("Test Task", response.at("/task/title").asText());
+        assertEquals(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(testTask.getDueDate()),
+                response.at("/task/dueDate").asText());
+        ArgumentCaptor<Task> received = ArgumentCaptor.forClass(Task.class);
+        verify(taskService).createTask(received.capture());
+        assertEquals(testTask.getDueDate(), received.getValue().getDueDate());
+    }
+
     @Test
     void updateTask() throws Exception {
-        when(taskService.updateTask(eq(1L), any(Task.class))).thenReturn(testTask);
+        when(taskService.updateTask(eq(1L), any(Task.class), isNull())).thenReturn(testTask);
 
-        mockMvc.perform(put("/api/tasks/1")
+        mockMvc.perform(put("/tasks/1")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(testTask)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.task.id", is(1)))
                 .andExpect(jsonPath("$.message", is("Task updated successfully")))
+                .andExpect(jsonPath("$.status", is("success")))
+                .andExpect(header().string("ETag", "\"3\""));
+
+        verify(taskService, times(1)).updateTask(eq(1L), any(Task.class), isNull());
+    }
+
+    @Test
+    void updateTask_ifMatchConflict() throws Exception {
+        when(taskService.updateTask(eq(1L), any(Task.class), eq(2L)))
+                .thenThrow(new VersionConflictException(1L, 2L, 3L));
+
+        mockMvc.perform(put("/tasks/1")
+                .header("If-Match", "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testTask)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.code", is(412)))
+                .andExpect(jsonPath("$.currentVersion", is(3)))
+                .andExpect(header().string("ETag", "\"3\""));
+    }
+
+    @Test
+    void updateTask_malformedIfMatch() throws Exception {
+        mockMvc.perform(put("/tasks/1")
+                .header("If-Match", "W/\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testTask)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code", is(400)));
+
+        verify(taskService, never()).updateTask(anyLong(), any(Task.class), any());
+    }
+
+    @Test
+    void patchTask() throws Exception {
+        TaskPatch patch = new TaskPatch(null, null, Task.TaskStatus.IN_PROGRESS, null, null);
+        when(taskService.patchTask(1L, patch, 3L)).thenReturn(testTask);
+
+        mockMvc.perform(patch("/tasks/1")
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\":\"IN_PROGRESS\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.task.id", is(1)))
                 .andExpect(jsonPath("$.status", is("success")));
 
-        verify(taskService, times(1)).updateTask(eq(1L), any(Task.class));
+        verify(taskService, times(1)).patchTask(1L, patch, 3L);
     }
 
     @Test
@@ -149,7 +393,7 @@ class TaskControllerTest {
         // If deleteTask returns a boolean or other value, mock that return
         when(taskService.deleteTask(1L)).thenReturn(true);
 
-        mockMvc.perform(delete("/api/tasks/1"))
+        mockMvc.perform(delete("/tasks/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message", is("Task deleted successfully")))
                 .andExpect(jsonPath("$.status", is("success")));
@@ -157,12 +401,73 @@ class TaskControllerTest {
         verify(taskService, times(1)).deleteTask(1L);
     }
 
+    @Test
+    void createTasks_batch() throws Exception {
+        when(taskService.createTasks(anyList())).thenReturn(List.of(
+                BatchItemResult.success(0, testTask),
+                BatchItemResult.failure(1, null, "title: Title is required")));
+
+        MvcResult started = mockMvc.perform(post("/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(testTask, new Task()))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results", hasSize(2)))
+                .andExpect(jsonPath("$.results[0].status", is("success")))
+                .andExpect(jsonPath("$.results[0].task.id", is(1)))
+                .andExpect(jsonPath("$.results[1].status", is("error")))
+                .andExpect(jsonPath("$.results[1].error", is("title: Title is required")))
+                .andExpect(jsonPath("$.succeeded", is(1)))
+                .andExpect(jsonPath("$.failed", is(1)))
+                .andExpect(jsonPath("$.status", is("partial")));
+    }
+
+    @Test
+    void deleteTasks_batch() throws Exception {
+        when(taskService.deleteTasks(List.of(1L, 2L))).thenReturn(List.of(
+                BatchItemResult.deleted(0, 1L),
+                BatchItemResult.deleted(1, 2L)));
+
+        MvcResult started = mockMvc.perform(delete("/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[1, 2]"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[1].id", is(2)))
+                .andExpect(jsonPath("$.results[1].task").doesNotExist())
+                .andExpect(jsonPath("$.status", is("success")));
+
+        verify(taskService, times(1)).deleteTasks(List.of(1L, 2L));
+    }
+
+    @Test
+    void updateTasks_batchTooLarge() throws Exception {
+        when(taskService.updateTasks(anyList()))
+                .thenThrow(new IllegalArgumentException("Batch size 1001 exceeds the maximum of 1000"));
+
+        MvcResult started = mockMvc.perform(put("/tasks/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(testTask))))
+                .andReturn();
+
+        // The failed future reaches the same exception handlers as a synchronous call
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code", is(400)));
+    }
+
     @Test
     void getTasksByStatus() throws Exception {
         List<Task> todoTasks = List.of(testTask);
         when(taskService.getTasksByStatus(Task.TaskStatus.TODO)).thenReturn(todoTasks);
 
-        mockMvc.perform(get("/api/tasks/status/TODO"))
+        mockMvc.perform(get("/tasks/status/TODO"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(1)))
@@ -171,12 +476,250 @@ class TaskControllerTest {
         verify(taskService, times(1)).getTasksByStatus(Task.TaskStatus.TODO);
     }
 
+    @Test
+    void getAllTasks_repeatedRequestServedFromCache() throws Exception {
+        when(taskService.getTaskPage(TaskSort.ID, null, TaskServiceImpl.DEFAULT_PAGE_SIZE))
+                .thenReturn(new TaskPage(taskList, null));
+
+        String eTag = mockMvc.perform(get("/tasks/all"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/tasks/all"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(jsonPath("$.tasks", hasSize(2)));
+
+        verify(taskService, times(1)).getTaskPage(TaskSort.ID, null, TaskServiceImpl.DEFAULT_PAGE_SIZE);
+    }
+
+    @Test
+    void getAllTasks_ifNoneMatch_notModifiedUntilSequenceMoves() throws Exception {
+        when(taskService.getTaskPage(TaskSort.ID, null, TaskServiceImpl.DEFAULT_PAGE_SIZE))
+                .thenReturn(new TaskPage(taskList, null));
+        String eTag = mockMvc.perform(get("/tasks/all"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/tasks/all").header("If-None-Match", "\"other\", " + eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""));
+        verify(taskService, times(1)).getTaskPage(any(), any(), anyInt());
+
+        // A write moves the sequence: the old ETag no longer matches and the page is read again
+        when(taskService.getModificationSequence()).thenReturn(SEQUENCE.incrementAndGet());
+        mockMvc.perform(get("/tasks/all").header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(eTag)))
+                .andExpect(jsonPath("$.count", is(2)));
+        verify(taskService, times(2)).getTaskPage(any(), any(), anyInt());
+    }
+
+    @Test
+    void getAllTasks_eachFormatCachedWithItsOwnETag() throws Exception {
+        when(taskService.getTaskPage(TaskSort.ID, null, TaskServiceImpl.DEFAULT_PAGE_SIZE))
+                .thenReturn(new TaskPage(taskList, null));
+        MediaType smile = BodyFormat.SMILE.mediaType();
+
+        MvcResult json = mockMvc.perform(get("/tasks/all"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().stringValues("Vary", hasItem("Accept, Accept-Encoding")))
+                .andReturn();
+        MvcResult binary = mockMvc.perform(get("/tasks/all").accept(smile))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(smile))
+                .andReturn();
+
+        String jsonETag = json.getResponse().getHeader("ETag");
+        String smileETag = binary.getResponse().getHeader("ETag");
+        assertFalse(jsonETag.equals(smileETag));
+        assertEquals(objectMapper.readTree(json.getResponse().getContentAsByteArray()),
+                BodyFormat.SMILE.mapper(objectMapper).readTree(binary.getResponse().getContentAsByteArray()));
+        // Each representation only revalidates against its own ETag
+        mockMvc.perform(get("/tasks/all").accept(smile).header("If-None-Match", smileETag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/tasks/all").header("If-None-Match", smileETag))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+        verify(taskService, times(2)).getTaskPage(any(), any(), anyInt());
+    }
+
+    @Test
+    void getAllTasks_fieldsProjection() throws Exception {
+        when(taskService.getTaskPage(TaskSort.ID, null, TaskServiceImpl.DEFAULT_PAGE_SIZE))
+                .thenReturn(new TaskPage(taskList, null));
+
+        String full = mockMvc.perform(get("/tasks/all"))
+                .andReturn().getResponse().getHeader("ETag");
+        String projected = mockMvc.perform(get("/tasks/all").param("fields", "id,title,status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count", is(2)))
+                .andExpect(jsonPath("$.tasks[0].id", is(1)))
+                .andExpect(jsonPath("$.tasks[0].title", is("Test Task")))
+                .andExpect(jsonPath("$.tasks[0].status", is("TODO")))
+                .andExpect(jsonPath("$.tasks[0].description").doesNotExist())
+                .andExpect(jsonPath("$.tasks[0].dueDate").doesNotExist())
+                .andReturn().getResponse().getHeader("ETag");
+
+        assertFalse(full.equals(projected));
+        mockMvc.perform(get("/tasks/all").param("fields", "status,title,id").header("If-None-Match", projected))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void getAllTasks_largeBodyGzippedOnceForClientsAcceptingIt() throws Exception {
+        List<Task> tasks = new ArrayList<>();
+        for (long id = 1; id <= 40; id++) {
+            Task task = new Task("Task " + id, "Imported by the nightly job", Task.TaskStatus.TODO, Task.TaskPriority.LOW);
+            task.setId(id);
+            tasks.add(task);
+        }
+        when(taskService.getTaskPage(TaskSort.ID, null, TaskServiceImpl.DEFAULT_PAGE_SIZE))
+                .thenReturn(new TaskPage(tasks, null));
+
+        MvcResult plain = mockMvc.perform(get("/tasks/all"))
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andReturn();
+        MvcResult gzipped = mockMvc.perform(get("/tasks/all").header("Accept-Encoding", "br;q=1, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", containsString("-gzip")))
+                .andReturn();
+
+        byte[] body = gzipped.getResponse().getContentAsByteArray();
+        assertTrue(body.length < plain.getResponse().getContentAsByteArray().length);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals(plain.getResponse().getContentAsString(), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        mockMvc.perform(get("/tasks/all").header("Accept-Encoding", "gzip;q=0"))
+                .andExpect(header().doesNotExist("Content-Encoding"));
+        verify(taskService, times(1)).getTaskPage(any(), any(), anyInt());
+    }
+
+    @Test
+    void getTasksByPriority_fieldsProjection() throws Exception {
+        when(taskService.getTasksByPriority(Task.TaskPriority.HIGH)).thenReturn(List.of(taskList.get(1)));
+
+        mockMvc.perform(get("/tasks/priority/HIGH").param("fields", "id,priority"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(2)))
+                .andExpect(jsonPath("$[0].priority", is("HIGH")))
+                .andExpect(jsonPath("$[0].title").doesNotExist());
+        mockMvc.perform(get("/tasks/priority/HIGH"))
+                .andExpect(jsonPath("$[0].title", is("Another Task")));
+    }
+
+    @Test
+    void searchTasks_unknownField() throws Exception {
+        mockMvc.perform(get("/tasks/search").param("q", "test").param("fields", "id,owner"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code", is(400)));
+
+        verify(taskService, never()).searchTasks(any(), any(), anyInt());
+    }
+
+    @Test
+    void bodyFormat_negotiate() {
+        assertEquals(BodyFormat.JSON, BodyFormat.negotiate(null));
+        assertEquals(BodyFormat.JSON, BodyFormat.negotiate("*/*"));
+        assertEquals(BodyFormat.JSON, BodyFormat.negotiate("text/html, application/*;q=0.9"));
+        assertEquals(BodyFormat.CBOR, BodyFormat.negotiate("application/cbor"));
+        assertEquals(BodyFormat.SMILE, BodyFormat.negotiate("application/json;q=0.5, application/x-jackson-smile"));
+        assertEquals(BodyFormat.JSON, BodyFormat.negotiate("application/cbor;q=0.5, application/json"));
+        assertEquals(BodyFormat.JSON, BodyFormat.negotiate("text/plain"));
+        assertEquals(BodyFormat.JSON, BodyFormat.negotiate("not a media type"));
+    }
+
+    @Test
+    void getTasksByStatus_usesSequenceOfThatStatus() throws Exception {
+        when(taskService.getTasksByStatus(Task.TaskStatus.TODO)).thenReturn(List.of(testTask));
+        String eTag = mockMvc.perform(get("/tasks/status/TODO"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Writes elsewhere move only the global sequence
+        when(taskService.getModificationSequence()).thenReturn(SEQUENCE.incrementAndGet());
+        mockMvc.perform(get("/tasks/status/TODO").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        when(taskService.getModificationSequenceByStatus(Task.TaskStatus.TODO)).thenReturn(SEQUENCE.incrementAndGet());
+        mockMvc.perform(get("/tasks/status/TODO").header("If-None-Match", eTag))
+                .andExpect(status().isOk());
+        verify(taskService, times(2)).getTasksByStatus(Task.TaskStatus.TODO);
+    }
+
+    @Test
+    void getTaskStats_ifNoneMatch_skipsCounters() throws Exception {
+        String eTag = mockMvc.perform(get("/tasks/stats"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/tasks/stats").header("If-None-Match", "W/" + eTag))
+                .andExpect(status().isNotModified());
+
+        verify(taskService, times(1)).getTaskCount();
+    }
+
+    @Test
+    void getAllTasks_cursorCrawlKeepsStatsCached() throws Exception {
+        when(taskService.getTaskPage(any(), any(), anyInt())).thenReturn(new TaskPage(taskList, "next"));
+        mockMvc.perform(get("/tasks/stats")).andExpect(status().isOk());
+
+        for (int page = 0; page < TaskController.RESPONSE_CACHE_ENTRIES + 44; page++) {
+            mockMvc.perform(get("/tasks/all").param("after", "c" + page).param("limit", "" + (page % 7 + 1)))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/tasks/stats")).andExpect(status().isOk());
+
+        verify(taskService, times(1)).getTaskCount();
+    }
+
+    @Test
+    void getAllTasks_limitsAboveMaximumShareOneCacheEntry() throws Exception {
+        when(taskService.getTaskPage(TaskSort.ID, null, TaskServiceImpl.MAX_PAGE_SIZE))
+                .thenReturn(new TaskPage(taskList, null));
+
+        mockMvc.perform(get("/tasks/all").param("limit", "" + TaskServiceImpl.MAX_PAGE_SIZE))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/tasks/all").param("limit", "50000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count", is(2)));
+
+        verify(taskService, times(1)).getTaskPage(TaskSort.ID, null, TaskServiceImpl.MAX_PAGE_SIZE);
+    }
+
+    @Test
+    void getTaskAnalytics_parsesWindowAndStep() throws Exception {
+        when(taskService.getAnalytics(Duration.ofHours(2), Duration.ofHours(1)))
+                .thenReturn(new TaskAnalytics().query(Duration.ofHours(2), Duration.ofHours(1)));
+        when(taskService.getAnalytics(Duration.ofHours(2), Duration.ofMinutes(7)))
+                .thenThrow(new IllegalArgumentException("'step' must be a positive multiple of PT5M"));
+
+        mockMvc.perform(get("/tasks/analytics").param("window", "PT2H").param("step", "PT1H"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.step", is("PT1H")))
+                .andExpect(jsonPath("$.series", hasSize(2)))
+                .andExpect(jsonPath("$.created", is(0)))
+                .andExpect(jsonPath("$.timeInStatus.IN_PROGRESS.count", is(0)));
+        mockMvc.perform(get("/tasks/analytics").param("window", "PT2H").param("step", "PT7M"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void noneMatchFails() {
+        assertTrue(TaskController.noneMatchFails("\"a-1\"", "\"a-1\""));
+        assertTrue(TaskController.noneMatchFails("*", "\"a-1\""));
+        assertTrue(TaskController.noneMatchFails("\"x\", W/\"a-1\"", "\"a-1\""));
+        assertFalse(TaskController.noneMatchFails(null, "\"a-1\""));
+        assertFalse(TaskController.noneMatchFails("\"a-2\"", "\"a-1\""));
+    }
+
     @Test
     void getTasksByPriority() throws Exception {
         List<Task> mediumPriorityTasks = List.of(testTask);
         when(taskService.getTasksByPriority(Task.TaskPriority.MEDIUM)).thenReturn(mediumPriorityTasks);
 
-        mockMvc.perform(get("/api/tasks/priority/MEDIUM"))
+        mockMvc.perform(get("/tasks/priority/MEDIUM"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(1)))
@@ -185,24 +728,109 @@ class TaskControllerTest {
         verify(taskService, times(1)).getTasksByPriority(Task.TaskPriority.MEDIUM);
     }
 
+    @Test
+    void exportTasks() throws Exception {
+        when(taskService.streamTasks(Task.TaskStatus.TODO, null)).thenReturn(taskList.stream());
+
+        MvcResult result = mockMvc.perform(get("/tasks/export").param("status", "TODO"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"));
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readValue(lines[0], Task.class).getId());
+        assertEquals("Another Task", objectMapper.readValue(lines[1], Task.class).getTitle());
+        verify(taskService, times(1)).streamTasks(Task.TaskStatus.TODO, null);
+    }
+
+    @Test
+    void getChanges_longPoll() throws Exception {
+        ChangeBatch batch = new ChangeBatch(List.of(new TaskChange(8, TaskChange.Type.UPDATED, 1L, testTask),
+                new TaskChange(9, TaskChange.Type.DELETED, 2L, null)), 9, false);
+        when(taskChangeService.awaitChanges(7L, 100, Duration.ofSeconds(25)))
+                .thenReturn(CompletableFuture.completedFuture(batch));
+
+        MvcResult started = mockMvc.perform(get("/tasks/changes").param("since", "7"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count", is(2)))
+                .andExpect(jsonPath("$.lastSequence", is(9)))
+                .andExpect(jsonPath("$.resync", is(false)))
+                .andExpect(jsonPath("$.changes[0].type", is("UPDATED")))
+                .andExpect(jsonPath("$.changes[0].task.title", is("Test Task")))
+                .andExpect(jsonPath("$.changes[1].taskId", is(2)))
+                .andExpect(jsonPath("$.changes[1].task").doesNotExist());
+    }
+
+    @Test
+    void getChanges_withoutSince_waitsFromLatestAndCapsTimeout() throws Exception {
+        when(taskChangeService.getLastSequence()).thenReturn(42L);
+        when(taskChangeService.awaitChanges(anyLong(), anyInt(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new ChangeBatch(List.of(), 42, false)));
+
+        MvcResult started = mockMvc.perform(get("/tasks/changes").param("timeout", "3600"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(jsonPath("$.count", is(0)));
+
+        verify(taskChangeService).awaitChanges(42L, 100, Duration.ofSeconds(TaskController.MAX_LONG_POLL_SECONDS));
+    }
+
+    @Test
+    void streamChanges_sendsChangeAndResyncEvents() throws Exception {
+        ArgumentCaptor<TaskChangeService.ChangeListener> listener =
+                ArgumentCaptor.forClass(TaskChangeService.ChangeListener.class);
+        when(taskChangeService.subscribe(eq(5L), listener.capture())).thenReturn(() -> { });
+
+        MvcResult started = mockMvc.perform(get("/tasks/changes")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Last-Event-ID", "5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        listener.getValue().onChanges(new ChangeBatch(
+                List.of(new TaskChange(6, TaskChange.Type.CREATED, 1L, testTask)), 6, false));
+        listener.getValue().onChanges(new ChangeBatch(List.of(), 20, true));
+
+        String stream = started.getResponse().getContentAsString();
+        assertTrue(stream.contains("event:change\nid:6\ndata:{"), stream);
+        assertTrue(stream.contains("\"title\":\"Test Task\""), stream);
+        assertTrue(stream.contains("event:resync\nid:20\ndata:{\"lastSequence\":20}"), stream);
+    }
+
     @Test
     void getTaskStats() throws Exception {
         when(taskService.getTaskCount()).thenReturn(5L);
-        when(taskService.getTasksByStatus(Task.TaskStatus.TODO)).thenReturn(Arrays.asList(testTask));
-        when(taskService.getTasksByStatus(Task.TaskStatus.IN_PROGRESS)).thenReturn(Arrays.asList(taskList.get(1)));
-        when(taskService.getTasksByStatus(Task.TaskStatus.COMPLETED)).thenReturn(Arrays.asList());
-
-        mockMvc.perform(get("/api/tasks/stats"))
+        when(taskService.getTaskCountByStatus(Task.TaskStatus.TODO)).thenReturn(1L);
+        when(taskService.getTaskCountByStatus(Task.TaskStatus.IN_PROGRESS)).thenReturn(1L);
+        when(taskService.getTaskCountByStatus(Task.TaskStatus.COMPLETED)).thenReturn(0L);
+        when(taskService.getTaskCountByStatus(Task.TaskStatus.CANCELLED)).thenReturn(3L);
+        when(taskService.getTaskCountByPriority(Task.TaskPriority.MEDIUM)).thenReturn(4L);
+        when(taskService.getTaskCountByPriority(Task.TaskPriority.HIGH)).thenReturn(1L);
+
+        mockMvc.perform(get("/tasks/stats"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.totalTasks", is(5)))
                 .andExpect(jsonPath("$.todoTasks", is(1)))
                 .andExpect(jsonPath("$.inProgressTasks", is(1)))
-                .andExpect(jsonPath("$.completedTasks", is(0)));
+                .andExpect(jsonPath("$.completedTasks", is(0)))
+                .andExpect(jsonPath("$.cancelledTasks", is(3)))
+                .andExpect(jsonPath("$.lowPriorityTasks", is(0)))
+                .andExpect(jsonPath("$.mediumPriorityTasks", is(4)))
+                .andExpect(jsonPath("$.highPriorityTasks", is(1)))
+                .andExpect(jsonPath("$.urgentPriorityTasks", is(0)));
 
         verify(taskService, times(1)).getTaskCount();
-        verify(taskService, times(1)).getTasksByStatus(Task.TaskStatus.TODO);
-        verify(taskService, times(1)).getTasksByStatus(Task.TaskStatus.IN_PROGRESS);
-        verify(taskService, times(1)).getTasksByStatus(Task.TaskStatus.COMPLETED);
+        verify(taskService, never()).getTasksByStatus(any());
+        verify(taskService, never()).getAllTasks();
     }
 
     @Test
@@ -210,7 +838,7 @@ class TaskControllerTest {
         when(taskService.getTaskById(anyLong()))
                 .thenThrow(new TaskServiceImpl.TaskNotFoundException("Task not found with id: 999"));
 
-        mockMvc.perform(get("/api/tasks/999"))
+        mockMvc.perform(get("/tasks/999"))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.error", containsString("Task not found")))
                 .andExpect(jsonPath("$.status", is("error")))
@@ -222,7 +850,7 @@ class TaskControllerTest {
         when(taskService.getTaskById(anyLong()))
                 .thenThrow(new RuntimeException("Something went wrong"));
 
-        mockMvc.perform(get("/api/tasks/1"))
+        mockMvc.perform(get("/tasks/1"))
                 .andExpect(status().isInternalServerError())
                 .andExpect(jsonPath("$.error", is("Internal server error")))
                 .andExpect(jsonPath("$.message", containsString("Something went wrong")))
@@ -0,0 +1,89 @@
+package org.example.buntu.taskmanagmentsystemspringbook.model;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskJsonSerializerTest {
+
+    private final JsonMapper objectMapper = springMapper();
+    // The same mapper ignoring @JsonSerialize, i.e. the reflective bean serializer
+    private final JsonMapper beanMapper = objectMapper.rebuild().disable(MapperFeature.USE_ANNOTATIONS).build();
+
+    @Test
+    void serialize_matchesBeanSerializer() throws Exception {
+        Task full = new Task("Write \"docs\"", "Line one\nline two", Task.TaskStatus.IN_PROGRESS, Task.TaskPriority.URGENT);
+        full.setId(42L);
+        full.setVersion(3L);
+        full.setDueDate(LocalDateTime.of(2030, 12, 31, 23, 59, 59, 120_000_000));
+
+        Task sparse = new Task();
+        sparse.setTitle("No dates");
+        sparse.setStatus(null);
+        sparse.setPriority(null);
+        sparse.setCreatedAt(null);
+        sparse.setUpdatedAt(LocalDateTime.of(2024, 2, 3, 4, 5));
+
+        for (Task task : new Task[]{full, sparse}) {
+            assertEquals(beanMapper.writeValueAsString(task), objectMapper.writeValueAsString(task));
+            assertEquals(beanMapper.readTree(beanMapper.writeValueAsString(task)),
+                    objectMapper.readTree(objectMapper.writeValueAsString(task)));
+        }
+    }
+
+    @Test
+    void serialize_datesAsTimestampsFallsBackToDefault() throws Exception {
+        Task task = new Task("Timestamps", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW);
+        JsonMapper timestamps = objectMapper.rebuild().enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+        assertEquals(timestamps.rebuild().disable(MapperFeature.USE_ANNOTATIONS).build().writeValueAsString(task),
+                timestamps.writeValueAsString(task));
+    }
+
+    @Test
+    void serialize_writesOnlyProjectedFields() throws Exception {
+        Task task = new Task("Board card", "A long description", Task.TaskStatus.TODO, Task.TaskPriority.HIGH);
+        task.setId(7L);
+
+        String json = objectMapper.writer(TaskFields.parse(" status, id ,title,id")).writeValueAsString(task);
+
+        // Declaration order, whatever the order asked for
+        assertEquals("{\"id\":7,\"title\":\"Board card\",\"status\":\"TODO\"}", json);
+        assertNull(TaskFields.parse(" "));
+        assertEquals(TaskFields.parse("title,id").key(), TaskFields.parse("id,title").key());
+        assertThrows(IllegalArgumentException.class, () -> TaskFields.parse("id,owner"));
+    }
+
+    @Test
+    void formatIso_matchesIsoLocalDateTime() {
+        LocalDateTime[] values = {
+                LocalDateTime.of(2024, 1, 1, 0, 0),
+                LocalDateTime.of(2024, 6, 15, 8, 30, 5),
+                LocalDateTime.of(999, 9, 9, 9, 9, 9, 1),
+                LocalDateTime.of(2024, 6, 15, 8, 30, 5, 100_000_000),
+                LocalDateTime.of(2024, 6, 15, 8, 30, 5, 123_456_789),
+                LocalDateTime.of(9999, 12, 31, 23, 59, 59, 999_999_000)
+        };
+        char[] buffer = new char[29];
+        for (LocalDateTime value : values) {
+            assertEquals(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value),
+                    new String(buffer, 0, TaskJsonSerializer.formatIso(value, buffer)));
+        }
+    }
+
+    /**
+     * A JsonMapper set up the way Spring Boot sets up its ObjectMapper
+     */
+    private static JsonMapper springMapper() {
+        JsonMapper mapper = JsonMapper.builder().build();
+        Jackson2ObjectMapperBuilder.json().configure(mapper);
+        return mapper;
+    }
+}
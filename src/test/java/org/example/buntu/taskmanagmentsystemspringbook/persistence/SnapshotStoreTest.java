@@ -0,0 +1,115 @@
+package org.example.buntu.taskmanagmentsystemspringbook.persistence;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.InMemoryTaskRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void snapshotRoundTrip() throws Exception {
+        SnapshotStore snapshots = new SnapshotStore(directory);
+        List<Task> tasks = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            Task task = new Task("Task " + id, id % 2 == 0 ? null : "desc " + id,
+                    Task.TaskStatus.TODO, Task.TaskPriority.HIGH);
+            task.setId(id);
+            task.setVersion(id % 7);
+            tasks.add(task);
+        }
+        assertEquals(1000, snapshots.write(new SnapshotStore.Header(42, 1005), tasks.iterator()));
+
+        List<Task> loaded = new ArrayList<>();
+        assertEquals(new SnapshotStore.Header(42, 1005), snapshots.load(loaded::add));
+        assertEquals(1000, loaded.size());
+        assertEquals("Task 1000", loaded.get(999).getTitle());
+        assertNull(loaded.get(999).getDescription());
+        assertEquals(1000 % 7, loaded.get(999).getVersion());
+        assertEquals(tasks.get(0).getCreatedAt().withNano(tasks.get(0).getCreatedAt().getNano() / 1000 * 1000),
+                loaded.get(0).getCreatedAt());
+    }
+
+    @Test
+    void restartUsesSnapshotPlusLogTailAndTruncatesCoveredSegments() throws Exception {
+        Map<Long, Task.TaskStatus> expected;
+        try (WriteAheadLog wal = new WriteAheadLog(directory, DurabilityMode.OS, 10, 4096)) {
+            InMemoryTaskRepository repository = new InMemoryTaskRepository(wal, new SnapshotStore(directory));
+            for (int i = 0; i < 500; i++) {
+                repository.save(new Task("Before " + i, "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+            }
+
+            // A writer keeps changing tasks while the snapshot is being taken
+            AtomicBoolean running = new AtomicBoolean(true);
+            Thread writer = new Thread(() -> {
+                long id = 1;
+                while (running.get()) {
+                    repository.findById(id).ifPresent(task -> {
+                        task.setStatus(Task.TaskStatus.IN_PROGRESS);
+                        repository.save(task);
+                    });
+                    id = id % 500 + 1;
+                }
+            });
+            writer.start();
+            repository.snapshot();
+            running.set(false);
+            writer.join();
+
+            repository.deleteById(2L);
+            repository.save(new Task("After", "desc", Task.TaskStatus.CANCELLED, Task.TaskPriority.URGENT));
+            expected = repository.findAll().stream().collect(Collectors.toMap(Task::getId, Task::getStatus));
+        }
+
+        try (var files = Files.list(directory)) {
+            List<String> names = files.map(file -> file.getFileName().toString()).toList();
+            assertEquals(1, names.stream().filter(name -> name.startsWith("snapshot-")).count());
+            // Segments fully covered by the snapshot are gone, only the tail remains
+            assertTrue(names.stream().filter(name -> name.startsWith("wal-")).count() < 10);
+        }
+
+        try (WriteAheadLog wal = new WriteAheadLog(directory, DurabilityMode.OS, 10, 4096)) {
+            InMemoryTaskRepository recovered = new InMemoryTaskRepository(wal, new SnapshotStore(directory));
+            assertEquals(expected, recovered.findAll().stream()
+                    .collect(Collectors.toMap(Task::getId, Task::getStatus)));
+            assertEquals(1, recovered.countByStatus(Task.TaskStatus.CANCELLED));
+        }
+    }
+
+    @Test
+    void idsOfDeletedTasksAreNotReissuedAfterRestart() throws Exception {
+        try (WriteAheadLog wal = new WriteAheadLog(directory, DurabilityMode.OS, 10, 4096)) {
+            InMemoryTaskRepository repository = new InMemoryTaskRepository(wal, new SnapshotStore(directory));
+            for (int i = 0; i < 3; i++) {
+                repository.save(new Task("Task " + i, "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+            }
+            repository.deleteById(3L);
+            repository.snapshot();
+        }
+        // Everything is in the snapshot: without the log, only its header knows id 3 was issued
+        try (var files = Files.list(directory)) {
+            for (Path file : files.filter(file -> file.getFileName().toString().startsWith("wal-")).toList()) {
+                Files.delete(file);
+            }
+        }
+
+        try (WriteAheadLog wal = new WriteAheadLog(directory, DurabilityMode.OS, 10, 4096)) {
+            InMemoryTaskRepository recovered = new InMemoryTaskRepository(wal, new SnapshotStore(directory));
+            assertEquals(2, recovered.count());
+            assertEquals(4L, recovered.save(new Task("New", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW)).getId());
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package org.example.buntu.taskmanagmentsystemspringbook.persistence;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.InMemoryTaskRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replayReturnsRecordsInLsnOrder() throws Exception {
+        Task task = new Task("Persist me", null, Task.TaskStatus.IN_PROGRESS, Task.TaskPriority.URGENT);
+        task.setId(7L);
+        task.setDueDate(LocalDateTime.of(2031, 5, 6, 7, 8, 9, 123_456_000));
+
+        try (WriteAheadLog wal = open(DurabilityMode.ALWAYS, 1024 * 1024)) {
+            wal.start();
+            wal.awaitDurable(wal.append(WalRecord.put(task)));
+            wal.awaitDurable(wal.append(WalRecord.delete(3L)));
+        }
+
+        List<WalRecord> replayed = new ArrayList<>();
+        try (WriteAheadLog wal = open(DurabilityMode.ALWAYS, 1024 * 1024)) {
+            assertEquals(2, wal.replay(0, replayed::add));
+        }
+        assertEquals(2, replayed.size());
+        WalRecord put = replayed.get(0);
+        assertEquals(WalRecord.Type.PUT, put.type());
+        assertEquals(1, put.lsn());
+        assertEquals(7L, put.task().getId());
+        assertEquals("Persist me", put.task().getTitle());
+        assertNull(put.task().getDescription());
+        assertEquals(Task.TaskStatus.IN_PROGRESS, put.task().getStatus());
+        assertEquals(Task.TaskPriority.URGENT, put.task().getPriority());
+        assertEquals(task.getDueDate(), put.task().getDueDate());
+        assertEquals(new WalRecord(2, WalRecord.Type.DELETE, 3L, null), replayed.get(1));
+    }
+
+    @Test
+    void tornTailIsTruncatedAndLaterAppendsSurvive() throws Exception {
+        try (WriteAheadLog wal = open(DurabilityMode.ALWAYS, 1024 * 1024)) {
+            wal.start();
+            wal.awaitDurable(wal.append(WalRecord.delete(1L)));
+        }
+        Path segment = Files.list(directory).findFirst().orElseThrow();
+        // Half-written frame: length says 100 bytes but the process died after 3
+        Files.write(segment, new byte[]{0, 0, 0, 100, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (WriteAheadLog wal = open(DurabilityMode.ALWAYS, 1024 * 1024)) {
+            assertEquals(1, wal.replay(0, record -> { }));
+            wal.start();
+            wal.awaitDurable(wal.append(WalRecord.delete(2L)));
+        }
+
+        List<Long> deleted = new ArrayList<>();
+        try (WriteAheadLog wal = open(DurabilityMode.ALWAYS, 1024 * 1024)) {
+            wal.replay(0, record -> deleted.add(record.id()));
+        }
+        assertEquals(List.of(1L, 2L), deleted);
+    }
+
+    @Test
+    void segmentsRollAndReplayFromMark() throws Exception {
+        try (WriteAheadLog wal = open(DurabilityMode.OS, 256)) {
+            wal.start();
+            for (long id = 1; id <= 200; id++) {
+                wal.append(WalRecord.delete(id));
+            }
+        }
+        assertTrue(Files.list(directory).count() > 1);
+
+        List<Long> replayed = new ArrayList<>();
+        try (WriteAheadLog wal = open(DurabilityMode.OS, 256)) {
+            assertEquals(200, wal.replay(150, record -> replayed.add(record.lsn())));
+        }
+        assertEquals(50, replayed.size());
+        assertEquals(151L, replayed.get(0));
+    }
+
+    @Test
+    void corruptionBeforeTheLastSegmentFailsReplay() throws Exception {
+        try (WriteAheadLog wal = open(DurabilityMode.OS, 256)) {
+            wal.start();
+            for (long id = 1; id <= 200; id++) {
+                wal.append(WalRecord.delete(id));
+            }
+        }
+        Path first = Files.list(directory).sorted().findFirst().orElseThrow();
+        byte[] bytes = Files.readAllBytes(first);
+        // Bit rot in the middle of an older segment
+        bytes[bytes.length / 2] ^= 0x7f;
+        Files.write(first, bytes);
+
+        List<Long> replayed = new ArrayList<>();
+        try (WriteAheadLog wal = open(DurabilityMode.OS, 256)) {
+            assertThrows(IOException.class, () -> wal.replay(0, record -> replayed.add(record.lsn())));
+        }
+        // Nothing past the corruption is applied, not even the later segments, and the file is left as it was
+        assertFalse(replayed.isEmpty());
+        assertEquals(replayed.size(), replayed.get(replayed.size() - 1));
+        assertTrue(replayed.size() < 200);
+        assertEquals(bytes.length, Files.size(first));
+    }
+
+    @Test
+    void repositoryRecoversStateAndIdsAfterRestart() throws Exception {
+        long deletedId;
+        long keptId;
+        try (WriteAheadLog wal = open(DurabilityMode.ALWAYS, 1024 * 1024)) {
+            InMemoryTaskRepository repository = new InMemoryTaskRepository(wal, null);
+            Task deleted = repository.save(new Task("Deleted", "desc", Task.TaskStatus.TODO, Task.TaskPriority.HIGH));
+            deletedId = deleted.getId();
+            Task kept = repository.save(new Task("Kept", "desc", Task.TaskStatus.TODO, Task.TaskPriority.HIGH));
+            keptId = kept.getId();
+            kept.setStatus(Task.TaskStatus.COMPLETED);
+            repository.save(kept);
+            repository.deleteById(deletedId);
+
+            // Concurrent writers all wait for durability and share fsyncs
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            for (int i = 0; i < 400; i++) {
+                int n = i;
+                executor.submit(() -> repository.save(
+                        new Task("Bulk " + n, "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW)));
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+
+        try (WriteAheadLog wal = open(DurabilityMode.ALWAYS, 1024 * 1024)) {
+            InMemoryTaskRepository recovered = new InMemoryTaskRepository(wal, null);
+            // 1 kept + 400 bulk
+            assertEquals(401, recovered.count());
+            assertTrue(recovered.findById(deletedId).isEmpty());
+            assertEquals(Task.TaskStatus.COMPLETED, recovered.findById(keptId).orElseThrow().getStatus());
+            assertEquals(2L, recovered.findById(keptId).orElseThrow().getVersion());
+            assertEquals(400, recovered.countByPriority(Task.TaskPriority.LOW));
+            assertEquals(keptId + 401, recovered.save(new Task()).getId());
+        }
+    }
+
+    @Test
+    void idOfDeletedHighestTaskIsNotReissuedAfterRestart() throws Exception {
+        try (WriteAheadLog wal = open(DurabilityMode.ALWAYS, 1024 * 1024)) {
+            InMemoryTaskRepository repository = new InMemoryTaskRepository(wal, null);
+            repository.save(new Task("Kept", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+            Task deleted = repository.save(new Task("Deleted", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+            repository.deleteById(deleted.getId());
+        }
+
+        try (WriteAheadLog wal = open(DurabilityMode.ALWAYS, 1024 * 1024)) {
+            InMemoryTaskRepository recovered = new InMemoryTaskRepository(wal, null);
+            Task created = recovered.save(new Task("New", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+            assertEquals(3L, created.getId());
+        }
+    }
+
+    private WriteAheadLog open(DurabilityMode durability, long segmentSize) throws Exception {
+        return new WriteAheadLog(directory, durability, 10, segmentSize);
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.buntu.taskmanagmentsystemspringbook.repository;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.ChangeBatch;
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskChange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeFeedTest {
+
+    private ChangeFeed feed;
+    private InMemoryTaskRepository repository;
+    private long start;
+
+    @BeforeEach
+    void setUp() {
+        feed = new ChangeFeed(8);
+        repository = new InMemoryTaskRepository(null, null, feed);
+        start = feed.lastSequence();
+    }
+
+    @Test
+    void writes_arePublishedInOrder() {
+        Task task = repository.save(new Task("Followed", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        repository.update(task.getId(), null, t -> t.setStatus(Task.TaskStatus.IN_PROGRESS));
+        repository.deleteById(task.getId());
+        repository.deleteById(task.getId());
+
+        ChangeBatch batch = feed.since(start, 10);
+        assertFalse(batch.resync());
+        assertEquals(start + 3, batch.lastSequence());
+        List<TaskChange> changes = batch.changes();
+        assertEquals(List.of(TaskChange.Type.CREATED, TaskChange.Type.UPDATED, TaskChange.Type.DELETED),
+                changes.stream().map(TaskChange::type).toList());
+        assertEquals(List.of(start + 1, start + 2, start + 3), changes.stream().map(TaskChange::sequence).toList());
+        assertEquals(Task.TaskStatus.IN_PROGRESS, changes.get(1).task().getStatus());
+        assertEquals(2L, changes.get(1).task().getVersion());
+        assertEquals(task.getId(), changes.get(2).taskId());
+        assertNull(changes.get(2).task());
+    }
+
+    @Test
+    void since_pagesWithLimit() {
+        for (int i = 0; i < 3; i++) {
+            repository.save(new Task("Paged " + i, "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        }
+
+        ChangeBatch first = feed.since(start, 2);
+        assertEquals(2, first.changes().size());
+        ChangeBatch rest = feed.since(first.lastSequence(), 2);
+        assertEquals(1, rest.changes().size());
+        assertEquals("Paged 2", rest.changes().get(0).task().getTitle());
+
+        ChangeBatch caughtUp = feed.since(rest.lastSequence(), 2);
+        assertTrue(caughtUp.changes().isEmpty());
+        assertFalse(caughtUp.resync());
+        assertEquals(rest.lastSequence(), caughtUp.lastSequence());
+    }
+
+    @Test
+    void readerBehindTheBuffer_getsResync() {
+        for (int i = 0; i < 10; i++) {
+            repository.save(new Task("Overflow " + i, "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        }
+
+        ChangeBatch batch = feed.since(start, 100);
+        assertTrue(batch.resync());
+        assertTrue(batch.changes().isEmpty());
+        assertEquals(feed.lastSequence(), batch.lastSequence());
+
+        // The last capacity changes are still there
+        assertEquals(8, feed.since(feed.lastSequence() - 8, 100).changes().size());
+    }
+
+    @Test
+    void concurrentWriters_leaveNoGapsBehindHead() throws Exception {
+        ChangeFeed wide = new ChangeFeed(10_000);
+        InMemoryTaskRepository shared = new InMemoryTaskRepository(null, null, wide);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 4000; i++) {
+            int n = i;
+            executor.submit(() -> shared.save(new Task("Concurrent " + n, "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW)));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(4000, wide.lastSequence());
+        ChangeBatch batch = wide.since(0, 5000);
+        assertFalse(batch.resync());
+        assertEquals(4000, batch.changes().size());
+        assertEquals(4000, batch.changes().stream().map(TaskChange::taskId).distinct().count());
+    }
+
+    @Test
+    void listeners_runOnceTheWriteIsVisible() {
+        Task task = repository.save(new Task("Watched", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        List<Long> versionsSeen = new ArrayList<>();
+        feed.addListener(() -> versionsSeen.add(repository.findById(task.getId()).map(Task::getVersion).orElse(0L)));
+
+        repository.update(task.getId(), null, t -> t.setStatus(Task.TaskStatus.IN_PROGRESS));
+        repository.deleteById(task.getId());
+
+        // Inside the compute the listener would still have read version 1, then 2
+        assertEquals(List.of(2L, 0L), versionsSeen);
+    }
+
+    @Test
+    void sequenceFromTheFuture_getsResync() {
+        ChangeBatch batch = feed.since(feed.lastSequence() + 100, 10);
+        assertTrue(batch.resync());
+        assertEquals(feed.lastSequence(), batch.lastSequence());
+    }
+}
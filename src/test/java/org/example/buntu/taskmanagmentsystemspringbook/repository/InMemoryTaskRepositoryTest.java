@@ -0,0 +1,515 @@
+package org.example.buntu.taskmanagmentsystemspringbook.repository;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.QueryResult;
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskPage;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskQuery;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskSort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryTaskRepositoryTest {
+
+    private InMemoryTaskRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryTaskRepository();
+    }
+
+    @Test
+    void findById_returnsDetachedCopyWithAllFields() {
+        Task task = new Task("Copy me", "Ünïcödé description", Task.TaskStatus.IN_PROGRESS, Task.TaskPriority.HIGH);
+        task.setDueDate(LocalDateTime.of(2031, 5, 6, 7, 8, 9, 123_456_000));
+        repository.save(task);
+
+        Task found = repository.findById(task.getId()).orElseThrow();
+        assertNotSame(task, found);
+        assertEquals(task.getTitle(), found.getTitle());
+        assertEquals(task.getDescription(), found.getDescription());
+        assertEquals(task.getStatus(), found.getStatus());
+        assertEquals(task.getPriority(), found.getPriority());
+        assertEquals(task.getCreatedAt().withNano(task.getCreatedAt().getNano() / 1_000 * 1_000), found.getCreatedAt());
+        assertEquals(task.getDueDate(), found.getDueDate());
+
+        // Mutating a returned task does not touch the stored one until it is saved
+        found.setTitle("Changed");
+        assertEquals("Copy me", repository.findById(task.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    void findByStatus_followsStatusChange() {
+        Task task = repository.save(new Task("Index me", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+
+        task.setStatus(Task.TaskStatus.IN_PROGRESS);
+        repository.save(task);
+
+        assertFalse(ids(repository.findByStatus(Task.TaskStatus.TODO)).contains(task.getId()));
+        assertTrue(ids(repository.findByStatus(Task.TaskStatus.IN_PROGRESS)).contains(task.getId()));
+    }
+
+    @Test
+    void findByPriority_followsPriorityChange() {
+        Task task = repository.save(new Task("Index me", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+
+        Task replacement = new Task("Index me", "desc", Task.TaskStatus.TODO, Task.TaskPriority.URGENT);
+        replacement.setId(task.getId());
+        repository.save(replacement);
+
+        assertFalse(ids(repository.findByPriority(Task.TaskPriority.LOW)).contains(task.getId()));
+        assertTrue(ids(repository.findByPriority(Task.TaskPriority.URGENT)).contains(task.getId()));
+    }
+
+    @Test
+    void deleteById_removesFromIndexes() {
+        Task task = repository.save(new Task("Delete me", "desc", Task.TaskStatus.CANCELLED, Task.TaskPriority.URGENT));
+
+        assertTrue(repository.deleteById(task.getId()));
+        assertFalse(repository.deleteById(task.getId()));
+
+        assertTrue(repository.findByStatus(Task.TaskStatus.CANCELLED).isEmpty());
+        assertTrue(repository.findByPriority(Task.TaskPriority.URGENT).isEmpty());
+    }
+
+    @Test
+    void saveAll_reservesOneBlockOfIds() {
+        Task existing = repository.save(new Task("Existing", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        existing.setTitle("Existing renamed");
+
+        List<Task> saved = repository.saveAll(List.of(
+                new Task("A", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW),
+                existing,
+                new Task("B", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW)));
+
+        assertEquals(existing.getId() + 1, saved.get(0).getId());
+        assertEquals(existing.getId(), saved.get(1).getId());
+        assertEquals(existing.getId() + 2, saved.get(2).getId());
+        assertEquals("Existing renamed", repository.findById(existing.getId()).orElseThrow().getTitle());
+        assertEquals(existing.getId() + 3, repository.save(new Task()).getId());
+    }
+
+    @Test
+    void deleteAllById_returnsRemovedIds() {
+        for (int i = 1; i <= 3; i++) {
+            repository.save(new Task("Task " + i, "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        }
+
+        assertEquals(Set.of(1L, 3L), repository.deleteAllById(List.of(1L, 3L, 99L)));
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    void stream_appliesStatusAndPriorityFilters() {
+        Task match = repository.save(new Task("Match", "desc", Task.TaskStatus.CANCELLED, Task.TaskPriority.URGENT));
+        repository.save(new Task("Wrong priority", "desc", Task.TaskStatus.CANCELLED, Task.TaskPriority.LOW));
+        repository.save(new Task("Wrong status", "desc", Task.TaskStatus.TODO, Task.TaskPriority.URGENT));
+
+        List<Task> both = repository.stream(Task.TaskStatus.CANCELLED, Task.TaskPriority.URGENT).toList();
+        assertEquals(Set.of(match.getId()), ids(both));
+        assertEquals(2, repository.stream(Task.TaskStatus.CANCELLED, null).count());
+        assertEquals(repository.count(), repository.stream(null, null).count());
+    }
+
+    @Test
+    void counters_trackSaveStatusChangeAndDelete() {
+        long todoBefore = repository.countByStatus(Task.TaskStatus.TODO);
+        long urgentBefore = repository.countByPriority(Task.TaskPriority.URGENT);
+        long totalBefore = repository.count();
+
+        Task task = repository.save(new Task("Count me", "desc", Task.TaskStatus.TODO, Task.TaskPriority.URGENT));
+        assertEquals(totalBefore + 1, repository.count());
+        assertEquals(todoBefore + 1, repository.countByStatus(Task.TaskStatus.TODO));
+        assertEquals(urgentBefore + 1, repository.countByPriority(Task.TaskPriority.URGENT));
+
+        task.setStatus(Task.TaskStatus.CANCELLED);
+        repository.save(task);
+        assertEquals(todoBefore, repository.countByStatus(Task.TaskStatus.TODO));
+        assertEquals(1, repository.countByStatus(Task.TaskStatus.CANCELLED));
+
+        repository.deleteById(task.getId());
+        assertEquals(totalBefore, repository.count());
+        assertEquals(0, repository.countByStatus(Task.TaskStatus.CANCELLED));
+        assertEquals(urgentBefore, repository.countByPriority(Task.TaskPriority.URGENT));
+    }
+
+    @Test
+    void findPage_walksEverySortOrderWithoutGapsOrDuplicates() {
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 9, 0);
+        Task.TaskPriority[] priorities = Task.TaskPriority.values();
+        for (int i = 0; i < 40; i++) {
+            Task task = new Task("Task " + i, "desc", Task.TaskStatus.TODO, priorities[i % priorities.length]);
+            // Every third task has no due date and must sort last
+            task.setDueDate(i % 3 == 0 ? null : base.minusHours(i));
+            repository.save(task);
+        }
+        List<Task> all = repository.findAll();
+
+        for (TaskSort sort : TaskSort.values()) {
+            List<Task> walked = new ArrayList<>();
+            String cursor = null;
+            do {
+                TaskPage page = repository.findPage(sort, cursor, 7);
+                assertTrue(page.tasks().size() <= 7);
+                walked.addAll(page.tasks());
+                cursor = page.nextCursor();
+            } while (cursor != null);
+
+            assertEquals(all.size(), walked.size(), "page walk size for " + sort);
+            assertEquals(ids(all), ids(walked), "page walk ids for " + sort);
+            List<Task> expected = new ArrayList<>(walked);
+            expected.sort(Comparator.comparingLong((Task task) -> SortKey.valueOf(sort, task))
+                    .thenComparingLong(Task::getId));
+            assertEquals(expected, walked, "page order for " + sort);
+        }
+    }
+
+    @Test
+    void findPage_reflectsDueDateChange() {
+        repository.save(new Task("Stay", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        Task task = repository.save(new Task("Move me", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        task.setDueDate(LocalDateTime.of(2000, 1, 1, 0, 0));
+        repository.save(task);
+
+        TaskPage first = repository.findPage(TaskSort.DUE_DATE, null, 1);
+        assertEquals(task.getId(), first.tasks().get(0).getId());
+        assertNotNull(first.nextCursor());
+    }
+
+    @Test
+    void findPage_rejectsCursorFromAnotherSort() {
+        repository.save(new Task("First", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        repository.save(new Task("Second", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        String cursor = repository.findPage(TaskSort.ID, null, 1).nextCursor();
+        assertThrows(IllegalArgumentException.class, () -> repository.findPage(TaskSort.DUE_DATE, cursor, 1));
+        assertThrows(IllegalArgumentException.class, () -> repository.findPage(TaskSort.ID, "not-a-cursor", 1));
+    }
+
+    @Test
+    void findByDueDate_pagesThroughHalfOpenRange() {
+        LocalDateTime monday = LocalDateTime.of(2031, 3, 3, 0, 0);
+        List<Long> expected = new ArrayList<>();
+        for (int day = -2; day < 10; day++) {
+            Task task = new Task("Day " + day, "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW);
+            task.setDueDate(monday.plusDays(day).plusHours(9));
+            repository.save(task);
+            if (day >= 0 && day < 7) {
+                expected.add(task.getId());
+            }
+        }
+        repository.save(new Task("No due date", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            TaskPage page = repository.findByDueDate(monday, monday.plusDays(7), cursor, 3);
+            page.tasks().forEach(task -> walked.add(task.getId()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(expected, walked);
+        // Open upper bound still leaves out tasks without a due date
+        assertEquals(12, repository.findByDueDate(null, null, null, 100).tasks().size());
+    }
+
+    @Test
+    void findOpenByDueDate_followsStatusAndDueDateChanges() {
+        LocalDateTime now = LocalDateTime.of(2031, 3, 3, 12, 0);
+        Task late = new Task("Late", "desc", Task.TaskStatus.IN_PROGRESS, Task.TaskPriority.LOW);
+        late.setDueDate(now.minusDays(1));
+        repository.save(late);
+        Task done = new Task("Done", "desc", Task.TaskStatus.COMPLETED, Task.TaskPriority.LOW);
+        done.setDueDate(now.minusDays(2));
+        repository.save(done);
+
+        assertEquals(List.of(late.getId()), ids(repository.findOpenByDueDate(null, now, null, 10)).stream().toList());
+
+        late.setStatus(Task.TaskStatus.COMPLETED);
+        repository.save(late);
+        done.setStatus(Task.TaskStatus.TODO);
+        done.setDueDate(now.plusDays(1));
+        repository.save(done);
+        assertTrue(repository.findOpenByDueDate(null, now, null, 10).tasks().isEmpty());
+        assertEquals(done.getId(), repository.findOpenByDueDate(now, null, null, 10).tasks().get(0).getId());
+    }
+
+    @Test
+    void query_drivesFromMostSelectiveIndexAndMatchesBruteForce() {
+        LocalDateTime base = LocalDateTime.of(2031, 3, 3, 9, 0);
+        Task.TaskStatus[] statuses = Task.TaskStatus.values();
+        for (int i = 0; i < 200; i++) {
+            // Only every 50th task is URGENT; due dates spread over 200 hours
+            Task.TaskPriority priority = i % 50 == 0 ? Task.TaskPriority.URGENT : Task.TaskPriority.LOW;
+            Task task = new Task("Task " + i, "desc", statuses[i % statuses.length], priority);
+            task.setDueDate(base.plusHours(i));
+            repository.save(task);
+        }
+
+        TaskQuery urgentOpen = new TaskQuery(Set.of(Task.TaskStatus.TODO, Task.TaskStatus.IN_PROGRESS),
+                Set.of(Task.TaskPriority.URGENT), null, base.plusHours(150), null, null);
+        QueryResult urgent = repository.query(urgentOpen, null, 100);
+        assertEquals("priorityIndex", urgent.plan().access());
+        assertEquals(List.of("status", "dueDate"), urgent.plan().filters());
+        assertEquals(bruteForce(urgentOpen), urgent.page().tasks().stream().map(Task::getId).toList());
+
+        TaskQuery narrowDue = new TaskQuery(Set.of(Task.TaskStatus.TODO), null,
+                base.plusHours(10), base.plusHours(14), null, null);
+        QueryResult due = repository.query(narrowDue, null, 100);
+        assertEquals("dueDateIndex", due.plan().access());
+        assertEquals(4, due.plan().estimatedRows());
+        assertEquals(bruteForce(narrowDue), due.page().tasks().stream().map(Task::getId).toList());
+
+        QueryResult scan = repository.query(new TaskQuery(null, null, null, null, null, null), null, 10);
+        assertEquals("parallelScan", scan.plan().access());
+        assertEquals(10, scan.page().tasks().size());
+    }
+
+    @Test
+    void query_pagesInIdOrder() {
+        for (int i = 0; i < 30; i++) {
+            repository.save(new Task("Task " + i, "desc", Task.TaskStatus.IN_PROGRESS, Task.TaskPriority.HIGH));
+        }
+        TaskQuery query = new TaskQuery(Set.of(Task.TaskStatus.IN_PROGRESS), Set.of(Task.TaskPriority.HIGH),
+                null, null, null, null);
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            TaskPage page = repository.query(query, cursor, 7).page();
+            page.tasks().forEach(task -> walked.add(task.getId()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(bruteForce(query), walked);
+    }
+
+    @Test
+    void search_ranksTitleMatchesAndMatchesPrefixes() {
+        Task inDescription = repository.save(new Task("Weekly sync", "Deploy the billing service", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        Task inTitle = repository.save(new Task("Deploy billing", "Roll out to staging", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        Task titlePrefix = repository.save(new Task("Deployment checklist", "Billing-related", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        repository.save(new Task("Deploy docs", "Nothing else", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+
+        List<Task> found = repository.search("DEPLOY bill", null, 10).tasks();
+
+        // Title words outweigh description words; a whole word outweighs a prefix of the same field
+        assertEquals(List.of(inTitle.getId(), titlePrefix.getId(), inDescription.getId()),
+                found.stream().map(Task::getId).toList());
+        assertTrue(repository.search("zzz", null, 10).tasks().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> repository.search("  --  ", null, 10));
+    }
+
+    @Test
+    void search_followsTextChangesAndDeletes() {
+        Task task = repository.save(new Task("Migrate database", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+
+        task.setTitle("Rotate certificates");
+        repository.save(task);
+        assertTrue(repository.search("migrate", null, 10).tasks().isEmpty());
+        assertEquals(task.getId(), repository.search("certif", null, 10).tasks().get(0).getId());
+
+        repository.deleteById(task.getId());
+        assertTrue(repository.search("rotate", null, 10).tasks().isEmpty());
+    }
+
+    @Test
+    void search_walksPagesWithoutGapsOrDuplicates() {
+        for (int i = 0; i < 25; i++) {
+            String title = i % 2 == 0 ? "Invoice run " + i : "Monthly invoice " + i;
+            repository.save(new Task(title, i % 3 == 0 ? "invoice invoice" : "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        }
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            TaskPage page = repository.search("invoice", cursor, 4);
+            page.tasks().forEach(task -> walked.add(task.getId()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(25, walked.size());
+        assertEquals(25, Set.copyOf(walked).size());
+        assertEquals(walked, repository.search("invoice", null, 100).tasks().stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void update_bumpsVersionAndRejectsStaleVersion() {
+        Task task = repository.save(new Task("Versioned", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        assertEquals(1L, task.getVersion());
+        long inProgress = repository.countByStatus(Task.TaskStatus.IN_PROGRESS);
+
+        Task updated = repository.update(task.getId(), 1L, t -> t.setStatus(Task.TaskStatus.IN_PROGRESS)).orElseThrow();
+        assertEquals(2L, updated.getVersion());
+        assertEquals(inProgress + 1, repository.countByStatus(Task.TaskStatus.IN_PROGRESS));
+
+        VersionConflictException conflict = assertThrows(VersionConflictException.class,
+                () -> repository.update(task.getId(), 1L, t -> t.setTitle("Lost")));
+        assertEquals(2L, conflict.getCurrentVersion());
+        assertEquals("Versioned", repository.findById(task.getId()).orElseThrow().getTitle());
+
+        // A plain save is last-write-wins but still bumps the version
+        assertEquals(3L, repository.save(updated).getVersion());
+        assertTrue(repository.update(Long.MAX_VALUE, null, t -> t.setTitle("None")).isEmpty());
+    }
+
+    @Test
+    void concurrentUpdatesAreNeverLost() throws Exception {
+        Task counter = repository.save(new Task("Counter", "0", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        int threads = 8;
+        int increments = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < increments; i++) {
+                    repository.update(counter.getId(), null,
+                            task -> task.setDescription(String.valueOf(Integer.parseInt(task.getDescription()) + 1)));
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        Task result = repository.findById(counter.getId()).orElseThrow();
+        assertEquals(String.valueOf(threads * increments), result.getDescription());
+        assertEquals(1L + threads * increments, result.getVersion());
+    }
+
+    @Test
+    void indexesStayConsistentUnderConcurrentStatusChanges() throws Exception {
+        int taskCount = 500;
+        for (int i = 0; i < taskCount; i++) {
+            repository.save(new Task("Task " + i, "desc", Task.TaskStatus.TODO, Task.TaskPriority.MEDIUM));
+        }
+        List<Long> taskIds = ids(repository.findAll()).stream().toList();
+        Task.TaskStatus[] statuses = Task.TaskStatus.values();
+        Task.TaskPriority[] priorities = Task.TaskPriority.values();
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 20_000; i++) {
+                    Long id = taskIds.get(random.nextInt(taskIds.size()));
+                    Task update = new Task("Task " + id, "desc",
+                            statuses[random.nextInt(statuses.length)],
+                            priorities[random.nextInt(priorities.length)]);
+                    update.setId(id);
+                    repository.save(update);
+                    // Readers run alongside writers and must never see a task twice
+                    if (i % 1_000 == 0) {
+                        Task.TaskStatus status = statuses[random.nextInt(statuses.length)];
+                        List<Task> found = repository.findByStatus(status);
+                        assertEquals(found.size(), ids(found).size());
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+        List<Task> all = repository.findAll();
+        int indexedByStatus = 0;
+        for (Task.TaskStatus status : statuses) {
+            Set<Long> expected = all.stream()
+                    .filter(task -> task.getStatus() == status)
+                    .map(Task::getId)
+                    .collect(Collectors.toSet());
+            List<Task> found = repository.findByStatus(status);
+            assertEquals(expected, ids(found), "status index for " + status);
+            assertEquals(expected.size(), repository.countByStatus(status), "status count for " + status);
+            indexedByStatus += found.size();
+        }
+        int indexedByPriority = 0;
+        for (Task.TaskPriority priority : priorities) {
+            Set<Long> expected = all.stream()
+                    .filter(task -> task.getPriority() == priority)
+                    .map(Task::getId)
+                    .collect(Collectors.toSet());
+            List<Task> found = repository.findByPriority(priority);
+            assertEquals(expected, ids(found), "priority index for " + priority);
+            assertEquals(expected.size(), repository.countByPriority(priority), "priority count for " + priority);
+            indexedByPriority += found.size();
+        }
+        assertEquals(all.size(), indexedByStatus);
+        assertEquals(all.size(), indexedByPriority);
+    }
+
+    @Test
+    void modificationSequences_moveOnWritesToTheirStatus() {
+        long global = repository.modificationSequence();
+        long todo = repository.modificationSequenceByStatus(Task.TaskStatus.TODO);
+        long inProgress = repository.modificationSequenceByStatus(Task.TaskStatus.IN_PROGRESS);
+        long completed = repository.modificationSequenceByStatus(Task.TaskStatus.COMPLETED);
+
+        Task task = repository.save(new Task("Sequenced", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        assertEquals(global + 1, repository.modificationSequence());
+        assertEquals(todo + 1, repository.modificationSequenceByStatus(Task.TaskStatus.TODO));
+        assertEquals(inProgress, repository.modificationSequenceByStatus(Task.TaskStatus.IN_PROGRESS));
+
+        // Moving a task changes both listings
+        repository.update(task.getId(), null, t -> t.setStatus(Task.TaskStatus.IN_PROGRESS));
+        assertEquals(global + 2, repository.modificationSequence());
+        assertEquals(todo + 2, repository.modificationSequenceByStatus(Task.TaskStatus.TODO));
+        assertEquals(inProgress + 1, repository.modificationSequenceByStatus(Task.TaskStatus.IN_PROGRESS));
+
+        assertTrue(repository.deleteById(task.getId()));
+        assertFalse(repository.deleteById(task.getId()));
+        assertEquals(global + 3, repository.modificationSequence());
+        assertEquals(inProgress + 2, repository.modificationSequenceByStatus(Task.TaskStatus.IN_PROGRESS));
+        assertEquals(completed, repository.modificationSequenceByStatus(Task.TaskStatus.COMPLETED));
+    }
+
+    @Test
+    void modificationSequence_isNotMovedByRejectedUpdates() {
+        Task task = repository.save(new Task("Stale", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        long global = repository.modificationSequence();
+
+        assertThrows(VersionConflictException.class,
+                () -> repository.update(task.getId(), task.getVersion() + 1, t -> t.setTitle("Lost")));
+        assertTrue(repository.update(-1L, null, t -> t.setTitle("Missing")).isEmpty());
+
+        assertEquals(global, repository.modificationSequence());
+    }
+
+    private List<Long> bruteForce(TaskQuery query) {
+        return repository.findAll().stream()
+                .filter(task -> query.statuses().isEmpty() || query.statuses().contains(task.getStatus()))
+                .filter(task -> query.priorities().isEmpty() || query.priorities().contains(task.getPriority()))
+                .filter(task -> !query.hasDueRange() || (task.getDueDate() != null
+                        && (query.dueFrom() == null || !task.getDueDate().isBefore(query.dueFrom()))
+                        && (query.dueTo() == null || task.getDueDate().isBefore(query.dueTo()))))
+                .map(Task::getId)
+                .sorted()
+                .toList();
+    }
+
+    private static Set<Long> ids(TaskPage page) {
+        return ids(page.tasks());
+    }
+
+    private static Set<Long> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.buntu.taskmanagmentsystemspringbook.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MeteredTaskRepositoryTest {
+
+    private InMemoryTaskRepository store;
+    private SimpleMeterRegistry registry;
+    private MeteredTaskRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryTaskRepository();
+        registry = new SimpleMeterRegistry();
+        repository = new MeteredTaskRepository(store, registry);
+    }
+
+    @Test
+    void operations_areTimedPerOperation() {
+        Task task = repository.save(new Task("Timed", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        repository.findById(task.getId());
+        repository.findById(-1L);
+
+        assertEquals(1, registry.get("tasks.repository.operations").tag("operation", "save").timer().count());
+        assertEquals(2, registry.get("tasks.repository.operations").tag("operation", "findById").timer().count());
+        assertEquals(0, registry.get("tasks.repository.operations").tag("operation", "deleteById").timer().count());
+    }
+
+    @Test
+    void findByStatus_recordsResultSize() {
+        long todo = store.countByStatus(Task.TaskStatus.TODO);
+        repository.findByStatus(Task.TaskStatus.TODO);
+
+        var results = registry.get("tasks.repository.results").tag("operation", "findByStatus").summary();
+        assertEquals(1, results.count());
+        assertEquals(todo, results.totalAmount());
+    }
+
+    @Test
+    void update_countsVersionConflicts() {
+        Task task = repository.save(new Task("Contended", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+
+        assertThrows(VersionConflictException.class,
+                () -> repository.update(task.getId(), task.getVersion() + 1, t -> t.setTitle("Lost")));
+
+        assertEquals(1, registry.get("tasks.repository.conflicts").counter().count());
+        assertEquals(1, registry.get("tasks.repository.operations").tag("operation", "update").timer().count());
+    }
+
+    @Test
+    void gauges_followTheStore() {
+        long size = store.count();
+        long inProgress = store.countByStatus(Task.TaskStatus.IN_PROGRESS);
+
+        store.save(new Task("Gauge", "desc", Task.TaskStatus.IN_PROGRESS, Task.TaskPriority.HIGH));
+
+        assertEquals(size + 1, registry.get("tasks.store.size").gauge().value());
+        assertEquals(inProgress + 1, registry.get("tasks.store.status").tag("status", "IN_PROGRESS").gauge().value());
+        // Counts are O(1) and published by the gauges, so they are not timed
+        assertEquals(size + 1, repository.count());
+        assertNull(registry.find("tasks.repository.operations").tag("operation", "count").timer());
+    }
+}
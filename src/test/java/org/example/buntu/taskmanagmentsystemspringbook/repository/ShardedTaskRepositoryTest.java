@@ -0,0 +1,206 @@
+package org.example.buntu.taskmanagmentsystemspringbook.repository;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.QueryResult;
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskPage;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskQuery;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskSort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedTaskRepositoryTest {
+
+    private static final int SHARDS = 4;
+
+    private ShardedTaskRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new ShardedTaskRepository(SHARDS, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    @Test
+    void save_issuesUniqueIdsAndReadsRouteToTheirShard() {
+        List<Task> saved = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            saved.add(repository.save(new Task("Task " + i, "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW)));
+        }
+
+        assertEquals(100, saved.stream().map(Task::getId).distinct().count());
+        for (Task task : saved) {
+            assertEquals(task.getTitle(), repository.findById(task.getId()).orElseThrow().getTitle());
+        }
+        // Random placement still uses every shard, each issuing ids of its own residue
+        assertEquals(SHARDS, saved.stream().map(task -> Math.floorMod(task.getId() - 1, SHARDS)).distinct().count());
+        assertEquals(100, repository.count());
+    }
+
+    @Test
+    void scans_returnEveryShardInIdOrder() {
+        Task.TaskStatus[] statuses = Task.TaskStatus.values();
+        Task.TaskPriority[] priorities = Task.TaskPriority.values();
+        for (int i = 0; i < 200; i++) {
+            repository.save(new Task("Task " + i, "desc", statuses[i % statuses.length], priorities[i % priorities.length]));
+        }
+
+        List<Task> all = repository.findAll();
+        assertEquals(repository.count(), all.size());
+        assertInIdOrder(all);
+
+        List<Task> todo = repository.findByStatus(Task.TaskStatus.TODO);
+        assertInIdOrder(todo);
+        assertEquals(repository.countByStatus(Task.TaskStatus.TODO), todo.size());
+        assertEquals(ids(all.stream().filter(task -> task.getStatus() == Task.TaskStatus.TODO).toList()), ids(todo));
+
+        List<Task> urgent = repository.findByPriority(Task.TaskPriority.URGENT);
+        assertInIdOrder(urgent);
+        assertEquals(repository.countByPriority(Task.TaskPriority.URGENT), urgent.size());
+        assertEquals(urgent.size(), repository.stream(null, Task.TaskPriority.URGENT).count());
+    }
+
+    @Test
+    void findPage_walksEverySortOrderAcrossShards() {
+        LocalDateTime base = LocalDateTime.of(2030, 1, 1, 9, 0);
+        Task.TaskPriority[] priorities = Task.TaskPriority.values();
+        for (int i = 0; i < 40; i++) {
+            Task task = new Task("Task " + i, "desc", Task.TaskStatus.TODO, priorities[i % priorities.length]);
+            task.setDueDate(i % 3 == 0 ? null : base.minusHours(i));
+            repository.save(task);
+        }
+        List<Task> all = repository.findAll();
+
+        for (TaskSort sort : TaskSort.values()) {
+            List<Task> walked = new ArrayList<>();
+            String cursor = null;
+            do {
+                TaskPage page = repository.findPage(sort, cursor, 7);
+                assertTrue(page.tasks().size() <= 7);
+                walked.addAll(page.tasks());
+                cursor = page.nextCursor();
+            } while (cursor != null);
+
+            assertEquals(ids(all), ids(walked), "page walk ids for " + sort);
+            List<Task> expected = new ArrayList<>(walked);
+            expected.sort(Comparator.comparingLong((Task task) -> SortKey.valueOf(sort, task))
+                    .thenComparingLong(Task::getId));
+            assertEquals(expected, walked, "page order for " + sort);
+        }
+    }
+
+    @Test
+    void search_ranksAcrossShardsLikeOneStore() {
+        InMemoryTaskRepository single = new InMemoryTaskRepository();
+        for (int i = 0; i < 25; i++) {
+            String title = i % 2 == 0 ? "Invoice run " + i : "Monthly invoice " + i;
+            String description = i % 3 == 0 ? "invoice invoice" : "desc";
+            repository.save(new Task(title, description, Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+            single.save(new Task(title, description, Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        }
+
+        List<Task> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            TaskPage page = repository.search("invoice", cursor, 4);
+            walked.addAll(page.tasks());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(25, Set.copyOf(ids(walked)).size());
+        // Ids differ between the stores, but a score only depends on the task's text:
+        // the merged walk must be best score first, ties by id, exactly like one store
+        Map<String, Long> rankByTitle = new HashMap<>();
+        for (SortKey key : single.searchKeys("invoice", null, 100)) {
+            rankByTitle.put(single.findById(key.id()).orElseThrow().getTitle(), key.value());
+        }
+        List<SortKey> keys = walked.stream()
+                .map(task -> new SortKey(rankByTitle.get(task.getTitle()), task.getId()))
+                .toList();
+        assertEquals(keys.stream().sorted().toList(), keys);
+        assertThrows(IllegalArgumentException.class, () -> repository.search("  --  ", null, 10));
+    }
+
+    @Test
+    void query_pagesInIdOrderAndSumsShardPlans() {
+        for (int i = 0; i < 30; i++) {
+            repository.save(new Task("Task " + i, "desc", Task.TaskStatus.IN_PROGRESS, Task.TaskPriority.HIGH));
+        }
+        TaskQuery query = new TaskQuery(Set.of(Task.TaskStatus.IN_PROGRESS), Set.of(Task.TaskPriority.HIGH),
+                null, null, null, null);
+
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        do {
+            TaskPage page = repository.query(query, cursor, 7).page();
+            page.tasks().forEach(task -> walked.add(task.getId()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        List<Long> expected = repository.findAll().stream()
+                .filter(task -> task.getStatus() == Task.TaskStatus.IN_PROGRESS
+                        && task.getPriority() == Task.TaskPriority.HIGH)
+                .map(Task::getId).toList();
+        assertEquals(expected, walked);
+
+        QueryResult result = repository.query(query, null, 100);
+        assertEquals(repository.countByStatus(Task.TaskStatus.IN_PROGRESS),
+                result.plan().estimates().get("statusIndex"));
+        assertEquals(expected.size(), result.page().tasks().size());
+    }
+
+    @Test
+    void saveAll_spreadsBatchAndKeepsInputOrder() {
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            batch.add(new Task("Batch " + i, "desc", Task.TaskStatus.TODO, Task.TaskPriority.MEDIUM));
+        }
+
+        List<Task> saved = repository.saveAll(batch);
+
+        assertEquals(batch, saved);
+        assertEquals(40, saved.stream().map(Task::getId).distinct().count());
+        assertEquals(SHARDS, saved.stream().map(task -> Math.floorMod(task.getId() - 1, SHARDS)).distinct().count());
+
+        Set<Long> ids = saved.stream().map(Task::getId).limit(10).collect(Collectors.toSet());
+        assertEquals(ids, repository.deleteAllById(ids));
+        assertEquals(30, repository.count());
+    }
+
+    @Test
+    void modificationSequence_changesOnWritesToAnyShard() {
+        Task task = repository.save(new Task("Watch me", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        long sequence = repository.modificationSequence();
+        long todo = repository.modificationSequenceByStatus(Task.TaskStatus.TODO);
+
+        repository.update(task.getId(), null, changed -> changed.setStatus(Task.TaskStatus.IN_PROGRESS));
+
+        assertTrue(repository.modificationSequence() > sequence);
+        assertTrue(repository.modificationSequenceByStatus(Task.TaskStatus.TODO) > todo);
+        assertEquals(2L, repository.findById(task.getId()).orElseThrow().getVersion());
+    }
+
+    private static void assertInIdOrder(List<Task> tasks) {
+        List<Long> ids = tasks.stream().map(Task::getId).toList();
+        assertEquals(ids.stream().sorted().toList(), ids);
+    }
+
+    private static List<Long> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).sorted().toList();
+    }
+}
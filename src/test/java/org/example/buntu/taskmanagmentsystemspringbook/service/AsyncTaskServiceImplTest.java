@@ -0,0 +1,54 @@
+package org.example.buntu.taskmanagmentsystemspringbook.service;
+
+import jakarta.validation.Validation;
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.InMemoryTaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncTaskServiceImplTest {
+
+    private ExecutorService executor;
+    private final AtomicInteger submitted = new AtomicInteger();
+    private AsyncTaskServiceImpl asyncTaskService;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        TaskServiceImpl taskService = new TaskServiceImpl(new InMemoryTaskRepository(),
+                Validation.buildDefaultValidatorFactory().getValidator());
+        asyncTaskService = new AsyncTaskServiceImpl(taskService, command -> {
+            submitted.incrementAndGet();
+            executor.execute(command);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    void createTask_runsOnTheExecutor() {
+        Task created = asyncTaskService.createTask(new Task("Async", "desc", null, null)).join();
+
+        assertEquals(1, submitted.get());
+        assertNotNull(created.getId());
+        assertEquals(Task.TaskStatus.TODO, created.getStatus());
+    }
+
+    @Test
+    void failuresCompleteTheFutureExceptionally() {
+        CompletionException failure = assertThrows(CompletionException.class,
+                () -> asyncTaskService.updateTask(999L, new Task("Missing", "desc", null, null), null).join());
+        assertInstanceOf(TaskServiceImpl.TaskNotFoundException.class, failure.getCause());
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.buntu.taskmanagmentsystemspringbook.service;
+
+import org.example.buntu.taskmanagmentsystemspringbook.model.ChangeBatch;
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskChange;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.ChangeFeed;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.InMemoryTaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskChangeServiceImplTest {
+
+    private InMemoryTaskRepository repository;
+    private TaskChangeServiceImpl changeService;
+
+    @BeforeEach
+    void setUp() {
+        ChangeFeed feed = new ChangeFeed(100);
+        repository = new InMemoryTaskRepository(null, null, feed);
+        // Dispatch and delivery run inline on the writing thread
+        changeService = new TaskChangeServiceImpl(feed, Runnable::run);
+    }
+
+    @Test
+    void awaitChanges_completesOnTheNextWrite() throws Exception {
+        long since = changeService.getLastSequence();
+        CompletableFuture<ChangeBatch> pending = changeService.awaitChanges(since, 10, Duration.ofSeconds(30));
+        assertFalse(pending.isDone());
+
+        Task task = repository.save(new Task("Awaited", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+
+        ChangeBatch batch = pending.get(1, TimeUnit.SECONDS);
+        assertEquals(1, batch.changes().size());
+        assertEquals(task.getId(), batch.changes().get(0).taskId());
+        assertEquals(since + 1, batch.lastSequence());
+    }
+
+    @Test
+    void awaitChanges_returnsBufferedChangesRightAway() {
+        long since = changeService.getLastSequence();
+        repository.save(new Task("Buffered", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+
+        CompletableFuture<ChangeBatch> result = changeService.awaitChanges(since, 10, Duration.ofSeconds(30));
+        assertTrue(result.isDone());
+        assertEquals(1, result.join().changes().size());
+    }
+
+    @Test
+    void awaitChanges_timesOutWithEmptyBatch() throws Exception {
+        long since = changeService.getLastSequence();
+
+        ChangeBatch batch = changeService.awaitChanges(since, 10, Duration.ofMillis(50)).get(5, TimeUnit.SECONDS);
+
+        assertTrue(batch.changes().isEmpty());
+        assertFalse(batch.resync());
+        assertEquals(since, batch.lastSequence());
+    }
+
+    @Test
+    void subscribe_deliversBacklogThenLiveChangesUntilCancelled() {
+        long since = changeService.getLastSequence();
+        Task first = repository.save(new Task("Backlog", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        List<TaskChange> received = new CopyOnWriteArrayList<>();
+
+        TaskChangeService.Subscription subscription =
+                changeService.subscribe(since, batch -> received.addAll(batch.changes()));
+        repository.update(first.getId(), null, t -> t.setTitle("Live"));
+        subscription.cancel();
+        repository.deleteById(first.getId());
+
+        assertEquals(List.of(TaskChange.Type.CREATED, TaskChange.Type.UPDATED),
+                received.stream().map(TaskChange::type).toList());
+        assertEquals("Live", received.get(1).task().getTitle());
+    }
+
+    @Test
+    void subscribe_failingListenerIsDropped() {
+        List<ChangeBatch> calls = new CopyOnWriteArrayList<>();
+        changeService.subscribe(changeService.getLastSequence(), batch -> {
+            calls.add(batch);
+            throw new IllegalStateException("client went away");
+        });
+
+        repository.save(new Task("One", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        repository.save(new Task("Two", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+
+        assertEquals(1, calls.size());
+    }
+}
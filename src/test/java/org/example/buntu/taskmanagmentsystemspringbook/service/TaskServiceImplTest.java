@@ -0,0 +1,138 @@
+package org.example.buntu.taskmanagmentsystemspringbook.service;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.example.buntu.taskmanagmentsystemspringbook.model.AnalyticsResponse;
+import org.example.buntu.taskmanagmentsystemspringbook.model.BatchItemResult;
+import org.example.buntu.taskmanagmentsystemspringbook.model.Task;
+import org.example.buntu.taskmanagmentsystemspringbook.model.TaskPatch;
+import org.example.buntu.taskmanagmentsystemspringbook.repository.InMemoryTaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskServiceImplTest {
+
+    private InMemoryTaskRepository repository;
+    private TaskServiceImpl taskService;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryTaskRepository();
+        taskService = new TaskServiceImpl(repository, Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    void createTasks_validatesEveryItemAndAssignsConsecutiveIds() {
+        Task invalid = new Task();
+        Task preset = new Task("First", "desc", Task.TaskStatus.TODO, Task.TaskPriority.MEDIUM);
+        preset.setId(500L);
+        List<BatchItemResult> results = taskService.createTasks(Arrays.asList(
+                preset,
+                invalid,
+                new Task("Second", "desc", Task.TaskStatus.IN_PROGRESS, Task.TaskPriority.HIGH)));
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertTrue(results.get(1).error().contains("title"));
+        assertTrue(results.get(2).isSuccess());
+
+        // Client supplied ids are ignored on create
+        assertEquals(1L, results.get(0).id());
+        assertEquals(results.get(0).id() + 1, results.get(2).id());
+        assertEquals(2, repository.count());
+    }
+
+    @Test
+    void updateTasks_reportsMissingAndUnknownIds() {
+        Task created = taskService.createTask(new Task("Original", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        Task change = new Task("Renamed", "desc", Task.TaskStatus.COMPLETED, Task.TaskPriority.LOW);
+        change.setId(created.getId());
+        Task unknown = new Task("Unknown", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW);
+        unknown.setId(999L);
+        Task withoutId = new Task("No id", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW);
+
+        List<BatchItemResult> results = taskService.updateTasks(List.of(change, unknown, withoutId));
+
+        assertTrue(results.get(0).isSuccess());
+        assertEquals("Task not found with id: 999", results.get(1).error());
+        assertEquals("Task id is required", results.get(2).error());
+        assertEquals("Renamed", taskService.getTaskById(created.getId()).getTitle());
+        assertEquals(1, repository.countByStatus(Task.TaskStatus.COMPLETED));
+    }
+
+    @Test
+    void updateTasks_doesNotRecreateTasksDeletedDuringTheBatch() {
+        Task first = taskService.createTask(new Task("First", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        Task second = taskService.createTask(new Task("Second", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        Task firstChange = new Task("First renamed", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW);
+        firstChange.setId(first.getId());
+        Task secondChange = new Task("Second renamed", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW);
+        secondChange.setId(second.getId());
+        // Another request deletes both tasks while the batch is between its items
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        Validator interleaving = (Validator) Proxy.newProxyInstance(Validator.class.getClassLoader(),
+                new Class<?>[]{Validator.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("validate") && args[0] == secondChange) {
+                        repository.deleteAllById(List.of(first.getId(), second.getId()));
+                    }
+                    return method.invoke(validator, args);
+                });
+        taskService = new TaskServiceImpl(repository, interleaving);
+
+        List<BatchItemResult> results = taskService.updateTasks(List.of(firstChange, secondChange));
+
+        assertTrue(results.get(0).isSuccess());
+        assertEquals("Task not found with id: " + second.getId(), results.get(1).error());
+        assertTrue(repository.findById(first.getId()).isEmpty());
+        assertTrue(repository.findById(second.getId()).isEmpty());
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    void deleteTasks_reportsPerId() {
+        Task created = taskService.createTask(new Task("Delete me", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        List<BatchItemResult> results = taskService.deleteTasks(List.of(created.getId(), 42L));
+
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    void statusChangesAreRecordedInAnalytics() {
+        Task task = taskService.createTask(new Task("Tracked", "desc", Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        taskService.patchTask(task.getId(), new TaskPatch(null, null, Task.TaskStatus.IN_PROGRESS, null, null), null);
+        Task change = new Task("Tracked", "desc", Task.TaskStatus.COMPLETED, Task.TaskPriority.LOW);
+        change.setId(task.getId());
+        taskService.updateTasks(List.of(change));
+        // Not a status change
+        taskService.patchTask(task.getId(), new TaskPatch("Renamed", null, null, null, null), null);
+
+        AnalyticsResponse analytics = taskService.getAnalytics(Duration.ofHours(1), Duration.ofMinutes(5));
+
+        assertEquals(1, analytics.created());
+        assertEquals(1, analytics.started());
+        assertEquals(1, analytics.completed());
+        assertEquals(1, analytics.timeInStatus().get(Task.TaskStatus.TODO).count());
+        assertEquals(1, analytics.timeInStatus().get(Task.TaskStatus.IN_PROGRESS).count());
+        assertEquals(1, analytics.leadTime().count());
+    }
+
+    @Test
+    void batchSizeIsBounded() {
+        List<Long> ids = new ArrayList<>();
+        for (long i = 0; i <= TaskServiceImpl.MAX_BATCH_SIZE; i++) {
+            ids.add(i);
+        }
+        assertThrows(IllegalArgumentException.class, () -> taskService.deleteTasks(ids));
+    }
+}